@@ -48,6 +48,7 @@ public class CanvasFabricMod implements ClientModInitializer {
 		KeyBindingHelper.registerKeyBinding(CanvasMod.RECOMPILE);
 		KeyBindingHelper.registerKeyBinding(CanvasMod.FLAWLESS_TOGGLE);
 		KeyBindingHelper.registerKeyBinding(CanvasMod.PROFILER_TOGGLE);
+		KeyBindingHelper.registerKeyBinding(CanvasMod.METRICS_EXPORT);
 
 		FabricLoader.getInstance().getModContainer(CanvasMod.MODID).ifPresent(modContainer -> {
 			ResourceManagerHelper.registerBuiltinResourcePack(new ResourceLocation("canvas:abstract"), modContainer, ResourcePackActivationType.DEFAULT_ENABLED);
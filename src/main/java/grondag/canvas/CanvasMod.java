@@ -48,6 +48,7 @@ import grondag.canvas.apiimpl.CanvasState;
 import grondag.canvas.compat.Compat;
 import grondag.canvas.config.ConfigManager;
 import grondag.canvas.config.Configurator;
+import grondag.canvas.perf.TerrainMetrics;
 
 //FEAT: weather rendering
 //FEAT: sky rendering
@@ -68,6 +69,7 @@ public class CanvasMod {
 	public static KeyMapping RECOMPILE = new KeyMapping("key.canvas.recompile", Character.valueOf('='), "key.canvas.category");
 	public static KeyMapping FLAWLESS_TOGGLE = new KeyMapping("key.canvas.flawless_toggle", -1, "key.canvas.category");
 	public static KeyMapping PROFILER_TOGGLE = new KeyMapping("key.canvas.profiler_toggle", -1, "key.canvas.category");
+	public static KeyMapping METRICS_EXPORT = new KeyMapping("key.canvas.metrics_export", -1, "key.canvas.category");
 	public static String versionString = "unknown";
 
 	public static void init() {
@@ -133,6 +135,7 @@ public class CanvasMod {
 
 		RenderReloadListener.register(CanvasState::reload);
 		AoFace.clampExteriorVertices(Configurator.clampExteriorVertices);
+		TerrainMetrics.init();
 		Compat.init();
 	}
 
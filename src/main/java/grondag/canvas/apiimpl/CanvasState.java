@@ -32,6 +32,7 @@ import grondag.canvas.apiimpl.rendercontext.CanvasItemRenderContext;
 import grondag.canvas.config.Configurator;
 import grondag.canvas.material.property.TextureMaterialState;
 import grondag.canvas.perf.ChunkRebuildCounters;
+import grondag.canvas.perf.TerrainMetrics;
 import grondag.canvas.perf.Timekeeper;
 import grondag.canvas.pipeline.PipelineManager;
 import grondag.canvas.pipeline.config.PipelineLoader;
@@ -74,6 +75,7 @@ public class CanvasState {
 		CanvasEntityBlockRenderContext.reload();
 		CanvasItemRenderContext.reload();
 		ChunkRebuildCounters.reset();
+		TerrainMetrics.reset();
 		ChunkColorCache.invalidate();
 		AoFace.clampExteriorVertices(Configurator.clampExteriorVertices);
 
@@ -0,0 +1,138 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.apiimpl.rendercontext;
+
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.EmptyBlockGetter;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+
+/**
+ * Per-block-state face occlusion facts, so that neighbor culling between
+ * full opaque cubes can be decided with bit tests instead of the shape
+ * comparisons and shared occlusion cache in {@link Block#shouldRenderFace}.
+ *
+ * <p>Only states without a dynamic shape are cached. Those are the same states
+ * for which vanilla caches face occlusion shapes without regard to position,
+ * so the result is identical. Everything else falls through to vanilla.
+ *
+ * <p>Not thread-safe. Each terrain render context holds its own instance.
+ */
+class BlockFaceCullCache {
+	/** Low six bits: face occlusion shape is empty for the direction with that ordinal. */
+	static final int EMPTY_FACE_MASK = 0x3F;
+	/** State occludes all six faces of its neighbors. */
+	static final int FULL_CUBE = 1 << 6;
+	/** State shape can vary by position - facts are not cached. */
+	static final int DYNAMIC = 1 << 7;
+
+	/** Face is hidden by the neighbor. */
+	static final int CULL = 0;
+	/** Face is visible unless the state pair skips rendering, e.g. glass next to glass. */
+	static final int RENDER_UNLESS_SKIPPED = 1;
+	/** Not decidable from cached facts - use vanilla logic. */
+	static final int VANILLA = 2;
+
+	private final Reference2IntOpenHashMap<BlockState> flags = new Reference2IntOpenHashMap<>();
+
+	BlockFaceCullCache() {
+		flags.defaultReturnValue(-1);
+	}
+
+	/**
+	 * Same result as {@link Block#shouldRenderFace(BlockState, BlockGetter, BlockPos, Direction, BlockPos)}.
+	 */
+	boolean shouldRenderFace(BlockState blockState, BlockGetter blockView, BlockPos blockPos, Direction face, BlockPos offsetPos) {
+		final BlockState neighborState = blockView.getBlockState(offsetPos);
+		final int neighborFlags = flags(neighborState);
+
+		// only look up our own flags when the neighbor can decide the outcome
+		final int decision = (neighborFlags & FULL_CUBE) == 0 ? VANILLA : decide(flags(blockState), neighborFlags, face.ordinal());
+
+		return switch (decision) {
+			case CULL -> false;
+			case RENDER_UNLESS_SKIPPED -> !blockState.skipRendering(neighborState, face);
+			default -> Block.shouldRenderFace(blockState, blockView, blockPos, face, offsetPos);
+		};
+	}
+
+	/**
+	 * Outcome for a face given the cached flags of this state and its neighbor.
+	 * Mirrors vanilla: a neighbor that occludes as a full cube hides the face unless
+	 * this state has nothing to occlude on that side.
+	 *
+	 * @return {@link #CULL}, {@link #RENDER_UNLESS_SKIPPED} or {@link #VANILLA}
+	 */
+	static int decide(int selfFlags, int neighborFlags, int faceOrdinal) {
+		if ((neighborFlags & FULL_CUBE) == 0 || (selfFlags & DYNAMIC) != 0) {
+			return VANILLA;
+		}
+
+		return (selfFlags & (1 << faceOrdinal)) == 0 ? CULL : RENDER_UNLESS_SKIPPED;
+	}
+
+	private int flags(BlockState blockState) {
+		int result = flags.getInt(blockState);
+
+		if (result == -1) {
+			result = computeFlags(blockState);
+			flags.put(blockState, result);
+		}
+
+		return result;
+	}
+
+	private static int computeFlags(BlockState blockState) {
+		if (blockState.getBlock().hasDynamicShape()) {
+			return flags(true, 0, false);
+		}
+
+		int emptyFaces = 0;
+
+		for (final Direction face : Direction.values()) {
+			if (blockState.getFaceOcclusionShape(EmptyBlockGetter.INSTANCE, BlockPos.ZERO, face).isEmpty()) {
+				emptyFaces |= 1 << face.ordinal();
+			}
+		}
+
+		return flags(false, emptyFaces, blockState.canOcclude() && Block.isShapeFullBlock(blockState.getOcclusionShape(EmptyBlockGetter.INSTANCE, BlockPos.ZERO)));
+	}
+
+	/**
+	 * Packs the occlusion facts of a state.
+	 *
+	 * @param emptyFaces bit set by direction ordinal of faces with an empty occlusion shape
+	 * @param occludesFullCube state can occlude and its occlusion shape is a full block
+	 */
+	static int flags(boolean dynamicShape, int emptyFaces, boolean occludesFullCube) {
+		if (dynamicShape) {
+			return DYNAMIC;
+		}
+
+		final int result = (emptyFaces & EMPTY_FACE_MASK) | (occludesFullCube ? FULL_CUBE : 0);
+		assert (result & FULL_CUBE) == 0 || (result & EMPTY_FACE_MASK) == 0;
+		return result;
+	}
+}
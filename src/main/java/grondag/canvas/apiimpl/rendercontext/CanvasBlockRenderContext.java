@@ -22,6 +22,7 @@ package grondag.canvas.apiimpl.rendercontext;
 
 import java.util.function.Supplier;
 
+import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.blaze3d.vertex.VertexConsumer;
 
@@ -46,11 +47,26 @@ public class CanvasBlockRenderContext extends SimpleBlockRenderContext {
 
 	private static ThreadLocal<CanvasBlockRenderContext> POOL = POOL_FACTORY.get();
 
+	/** Render thread instance, cached to skip the thread local lookup for the common case. */
+	private static CanvasBlockRenderContext renderThreadContext;
+
 	public static void reload() {
 		POOL = POOL_FACTORY.get();
+		renderThreadContext = null;
 	}
 
 	public static CanvasBlockRenderContext get() {
+		if (RenderSystem.isOnRenderThread()) {
+			CanvasBlockRenderContext result = renderThreadContext;
+
+			if (result == null) {
+				result = POOL.get();
+				renderThreadContext = result;
+			}
+
+			return result;
+		}
+
 		return POOL.get();
 	}
 
@@ -20,20 +20,39 @@
 
 package grondag.canvas.apiimpl.rendercontext;
 
+import java.util.BitSet;
 import java.util.function.Supplier;
 
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.jetbrains.annotations.Nullable;
+
+import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.blaze3d.vertex.VertexConsumer;
 
 import net.minecraft.client.renderer.BlockEntityWithoutLevelRenderer;
+import net.minecraft.client.renderer.ItemModelShaper;
 import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.block.model.ItemOverrides;
+import net.minecraft.client.renderer.block.model.ItemTransforms;
+import net.minecraft.client.resources.model.BakedModel;
+import net.minecraft.client.resources.model.SimpleBakedModel;
 import net.minecraft.world.item.BlockItem;
+import net.minecraft.world.item.Item;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.block.AbstractBannerBlock;
 
+import io.vram.frex.api.math.FastMatrix3f;
+import io.vram.frex.api.math.FastMatrix4f;
 import io.vram.frex.base.renderer.context.render.ItemRenderContext;
 
+import grondag.canvas.apiimpl.rendercontext.encoder.BaseQuadEncoder;
 import grondag.canvas.apiimpl.rendercontext.encoder.StandardQuadEncoder;
+import grondag.canvas.buffer.format.CanvasVertexFormats;
 import grondag.canvas.buffer.input.CanvasImmediate;
+import grondag.canvas.buffer.input.VertexCollector;
+import grondag.canvas.buffer.input.VertexCollectorList;
+import grondag.canvas.material.state.CanvasRenderMaterial;
 import grondag.canvas.material.state.RenderContextState;
 import grondag.canvas.material.state.RenderContextState.GuiMode;
 
@@ -53,18 +72,105 @@ public class CanvasItemRenderContext extends ItemRenderContext {
 		return POOL.get();
 	}
 
+	/** GUI item draws retained per context. Each slot position is a separate entry. */
+	private static final int GUI_CACHE_CAPACITY = 512;
+
 	protected VertexConsumer defaultConsumer;
 
 	public final StandardQuadEncoder encoder;
 
+	private final ItemQuadCache<CachedQuads> guiCache = new ItemQuadCache<>(GUI_CACHE_CAPACITY);
+	private final int[] transform = new int[ItemQuadCache.TRANSFORM_LENGTH];
+	private @Nullable CachedQuads recording = null;
+
 	public CanvasItemRenderContext() {
 		super();
 		encoder = new StandardQuadEncoder(emitter, inputContext);
 	}
 
+	@Override
+	public void renderItem(ItemModelShaper models, ItemStack stack, ItemTransforms.TransformType renderMode, boolean leftHanded, PoseStack poseStack, MultiBufferSource vertexConsumers, int lightmap, int overlay, BakedModel model) {
+		if (!isCacheable(stack, renderMode, vertexConsumers, model)) {
+			super.renderItem(models, stack, renderMode, leftHanded, poseStack, vertexConsumers, lightmap, overlay, model);
+			return;
+		}
+
+		captureTransform(poseStack);
+		final Item item = stack.getItem();
+		final CachedQuads cached = guiCache.get(item, model, lightmap, overlay, leftHanded, transform);
+
+		if (cached != null) {
+			cached.copyTo(((CanvasImmediate) vertexConsumers).collectors, encoder.animationBits);
+			return;
+		}
+
+		final CachedQuads result = new CachedQuads();
+		recording = result;
+
+		try {
+			super.renderItem(models, stack, renderMode, leftHanded, poseStack, vertexConsumers, lightmap, overlay, model);
+		} finally {
+			recording = null;
+		}
+
+		guiCache.put(item, model, lightmap, overlay, leftHanded, transform, result);
+	}
+
+	/**
+	 * True for GUI items whose encoded output depends only on item, model and transform.
+	 * Stacks with tags are excluded because tags drive tint colors, damage and glint.
+	 * Only vanilla simple models without overrides are included because other models
+	 * may vary their output per call.
+	 */
+	private static boolean isCacheable(ItemStack stack, ItemTransforms.TransformType renderMode, MultiBufferSource vertexConsumers, BakedModel model) {
+		return renderMode == ItemTransforms.TransformType.GUI
+				&& vertexConsumers instanceof CanvasImmediate
+				&& !stack.hasTag()
+				&& !stack.hasFoil()
+				&& model.getClass() == SimpleBakedModel.class
+				&& model.getOverrides() == ItemOverrides.EMPTY;
+	}
+
+	private void captureTransform(PoseStack poseStack) {
+		final FastMatrix4f m = FastMatrix4f.cast(poseStack.last().pose());
+		final FastMatrix3f n = (FastMatrix3f) (Object) poseStack.last().normal();
+		final int[] t = transform;
+		t[0] = Float.floatToRawIntBits(m.f_m00());
+		t[1] = Float.floatToRawIntBits(m.f_m01());
+		t[2] = Float.floatToRawIntBits(m.f_m02());
+		t[3] = Float.floatToRawIntBits(m.f_m03());
+		t[4] = Float.floatToRawIntBits(m.f_m10());
+		t[5] = Float.floatToRawIntBits(m.f_m11());
+		t[6] = Float.floatToRawIntBits(m.f_m12());
+		t[7] = Float.floatToRawIntBits(m.f_m13());
+		t[8] = Float.floatToRawIntBits(m.f_m20());
+		t[9] = Float.floatToRawIntBits(m.f_m21());
+		t[10] = Float.floatToRawIntBits(m.f_m22());
+		t[11] = Float.floatToRawIntBits(m.f_m23());
+		t[12] = Float.floatToRawIntBits(m.f_m30());
+		t[13] = Float.floatToRawIntBits(m.f_m31());
+		t[14] = Float.floatToRawIntBits(m.f_m32());
+		t[15] = Float.floatToRawIntBits(m.f_m33());
+		t[16] = Float.floatToRawIntBits(n.f_m00());
+		t[17] = Float.floatToRawIntBits(n.f_m01());
+		t[18] = Float.floatToRawIntBits(n.f_m02());
+		t[19] = Float.floatToRawIntBits(n.f_m10());
+		t[20] = Float.floatToRawIntBits(n.f_m11());
+		t[21] = Float.floatToRawIntBits(n.f_m12());
+		t[22] = Float.floatToRawIntBits(n.f_m20());
+		t[23] = Float.floatToRawIntBits(n.f_m21());
+		t[24] = Float.floatToRawIntBits(n.f_m22());
+	}
+
 	@Override
 	protected void encodeQuad() {
 		encoder.encode(defaultConsumer);
+
+		if (recording != null) {
+			final CanvasRenderMaterial mat = (CanvasRenderMaterial) emitter.material();
+			// Encoder always leaves the last encoded quad in the shared target array
+			recording.add(mat, emitter.effectiveCullFaceId(), encoder.collector(mat).target(), BaseQuadEncoder.animationIndex(emitter));
+		}
 	}
 
 	@Override
@@ -102,4 +208,36 @@ public class CanvasItemRenderContext extends ItemRenderContext {
 			context.guiMode(GuiMode.NORMAL);
 		}
 	}
+
+	/** Encoded quads for one item draw, in the order they were encoded. */
+	private static class CachedQuads {
+		private final ObjectArrayList<CanvasRenderMaterial> materials = new ObjectArrayList<>();
+		private final IntArrayList faces = new IntArrayList();
+		private final IntArrayList data = new IntArrayList();
+		private final BitSet animationBits = new BitSet();
+
+		private void add(CanvasRenderMaterial mat, int effectiveCullFaceId, int[] target, int animationIndex) {
+			materials.add(mat);
+			faces.add(effectiveCullFaceId);
+			data.addElements(data.size(), target, 0, CanvasVertexFormats.STANDARD_QUAD_STRIDE);
+
+			if (animationIndex >= 0) {
+				animationBits.set(animationIndex);
+			}
+		}
+
+		private void copyTo(VertexCollectorList collectors, BitSet animationBits) {
+			final int[] data = this.data.elements();
+			final int limit = materials.size();
+
+			for (int i = 0; i < limit; ++i) {
+				final CanvasRenderMaterial mat = materials.get(i);
+				final VertexCollector collector = collectors.get(mat);
+				System.arraycopy(data, i * CanvasVertexFormats.STANDARD_QUAD_STRIDE, collector.target(), 0, CanvasVertexFormats.STANDARD_QUAD_STRIDE);
+				collector.commit(faces.getInt(i), mat.castShadows());
+			}
+
+			animationBits.or(this.animationBits);
+		}
+	}
 }
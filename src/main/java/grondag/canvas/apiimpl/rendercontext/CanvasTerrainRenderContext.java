@@ -20,23 +20,42 @@
 
 package grondag.canvas.apiimpl.rendercontext;
 
+import java.util.Arrays;
+import java.util.List;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
 import org.jetbrains.annotations.Nullable;
 
+import com.mojang.blaze3d.platform.NativeImage;
+
 import net.minecraft.CrashReport;
 import net.minecraft.CrashReportCategory;
 import net.minecraft.ReportedException;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.ItemBlockRenderTypes;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 import net.minecraft.client.resources.model.BakedModel;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.BlockPos.MutableBlockPos;
 import net.minecraft.core.Direction;
+import net.minecraft.util.RandomSource;
 import net.minecraft.world.level.BlockAndTintGetter;
+import net.minecraft.world.level.EmptyBlockGetter;
 import net.minecraft.world.level.biome.Biome;
 import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.RenderShape;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.material.FluidState;
 
+import io.vram.frex.api.material.MaterialConstants;
+import io.vram.frex.api.material.MaterialFinder;
 import io.vram.frex.api.math.MatrixStack;
 import io.vram.frex.api.math.PackedSectionPos;
 import io.vram.frex.api.model.BlockModel;
@@ -49,11 +68,19 @@ import io.vram.frex.base.renderer.context.render.BlockRenderContext;
 import grondag.canvas.apiimpl.rendercontext.encoder.TerrainQuadEncoder;
 import grondag.canvas.config.Configurator;
 import grondag.canvas.light.LightSmoother;
+import grondag.canvas.material.state.CanvasRenderMaterial;
+import grondag.canvas.mixinterface.SpriteExt;
 import grondag.canvas.terrain.region.input.InputRegion;
 import grondag.canvas.terrain.region.input.PackedInputRegion;
+import grondag.canvas.terrain.util.LodMesher;
 import grondag.canvas.terrain.util.RenderRegionStateIndexer;
 
 public class CanvasTerrainRenderContext extends BlockRenderContext<BlockAndTintGetter> implements BlockStateRenderer {
+	// Simplified faces use flat color - cutout holes are filled in at that distance
+	private static final CanvasRenderMaterial LOD_SOLID = lodMaterial(MaterialConstants.PRESET_SOLID);
+	private static final CanvasRenderMaterial LOD_TRANSLUCENT = lodMaterial(MaterialConstants.PRESET_TRANSLUCENT);
+	private static final Direction[] FACES = Direction.values();
+
 	// Reused each build to prevent needless allocation
 	public final ObjectOpenHashSet<BlockEntity> nonCullBlockEntities = new ObjectOpenHashSet<>();
 	public final ObjectOpenHashSet<BlockEntity> addedBlockEntities = new ObjectOpenHashSet<>();
@@ -65,6 +92,18 @@ public class CanvasTerrainRenderContext extends BlockRenderContext<BlockAndTintG
 
 	public final TerrainQuadEncoder encoder;
 
+	private final BlockFaceCullCache faceCullCache = new BlockFaceCullCache();
+
+	// Simplified mesh state, reused each build. Appearance lists are indexed by LOD key - 1.
+	private final int[] lodKeys = new int[LodMesher.PADDED_COUNT];
+	private final Reference2IntOpenHashMap<BlockState> lodStateKeys = new Reference2IntOpenHashMap<>();
+	private final Long2IntOpenHashMap lodAppearanceKeys = new Long2IntOpenHashMap();
+	private final ObjectArrayList<CanvasRenderMaterial> lodMaterials = new ObjectArrayList<>();
+	private final IntArrayList lodColors = new IntArrayList();
+	private final float[] lodVertex = new float[3];
+	private final RandomSource lodRandom = RandomSource.create();
+	private final LodMesher.QuadSink lodSink = this::emitLodQuad;
+
 	@SuppressWarnings("unchecked")
 	public CanvasTerrainRenderContext() {
 		super();
@@ -72,6 +111,8 @@ public class CanvasTerrainRenderContext extends BlockRenderContext<BlockAndTintG
 		inputContext.prepareForWorld(region, true, matrixStack);
 		encoder = new TerrainQuadEncoder(emitter, inputContext);
 		bakedListenerContext = (RenderRegionContext<BlockAndTintGetter>) inputContext;
+		lodStateKeys.defaultReturnValue(-1);
+		lodAppearanceKeys.defaultReturnValue(0);
 	}
 
 	private final AoCalculator aoCalc = new AoCalculator() {
@@ -131,7 +172,7 @@ public class CanvasTerrainRenderContext extends BlockRenderContext<BlockAndTintG
 		protected boolean shouldRenderFace(Direction face, BlockPos offsetPos) {
 			// We exploit the geometry analysis that happens during chunk baking to skip
 			// rendering of faces that cannot be visible because they are inside closed-off areas.
-			return !region.isClosed(region.blockIndex(offsetPos.getX(), offsetPos.getY(), offsetPos.getZ())) && Block.shouldRenderFace(blockState, blockView, blockPos, face, offsetPos);
+			return !region.isClosed(region.blockIndex(offsetPos.getX(), offsetPos.getY(), offsetPos.getZ())) && faceCullCache.shouldRenderFace(blockState, blockView, blockPos, face, offsetPos);
 		}
 	}
 
@@ -182,6 +223,190 @@ public class CanvasTerrainRenderContext extends BlockRenderContext<BlockAndTintG
 		renderInner((BlockModel) model);
 	}
 
+	/**
+	 * Builds a simplified mesh of the current region in place of per-block models.
+	 * Full-cube blocks and fluids become greedy-merged voxel faces with one flat color
+	 * and light value per merged face. Everything else is omitted.
+	 *
+	 * <p>Merged faces can span many blocks and atlas sprites can't tile, so the face
+	 * color is the sprite's average color rather than a stretched texture.
+	 */
+	public void renderLod() {
+		lodStateKeys.clear();
+		lodAppearanceKeys.clear();
+		lodMaterials.clear();
+		lodColors.clear();
+
+		final int xOrigin = region.originX();
+		final int yOrigin = region.originY();
+		final int zOrigin = region.originZ();
+
+		for (int z = -1; z <= 16; ++z) {
+			for (int y = -1; y <= 16; ++y) {
+				for (int x = -1; x <= 16; ++x) {
+					final BlockState blockState = region.getBlockState(xOrigin + x, yOrigin + y, zOrigin + z);
+					int key = lodStateKeys.getInt(blockState);
+
+					if (key == -1) {
+						// Tint is sampled where the state is first seen - close enough at LOD distances
+						key = lodKey(blockState, searchPos.set(xOrigin + x, yOrigin + y, zOrigin + z));
+						lodStateKeys.put(blockState, key);
+					}
+
+					lodKeys[LodMesher.paddedIndex(x, y, z)] = key;
+				}
+			}
+		}
+
+		matrixStack.modelMatrix().f_setIdentity();
+		LodMesher.mesh(lodKeys, lodSink);
+	}
+
+	private int lodKey(BlockState blockState, BlockPos pos) {
+		if (blockState.isAir()) {
+			return 0;
+		}
+
+		final Minecraft mc = Minecraft.getInstance();
+		final TextureAtlasSprite sprite;
+		final CanvasRenderMaterial material;
+		int color = 0xFFFFFF;
+
+		if (blockState.getRenderShape() == RenderShape.MODEL && !blockState.getBlock().hasDynamicShape()
+				&& Block.isShapeFullBlock(blockState.getShape(EmptyBlockGetter.INSTANCE, BlockPos.ZERO))) {
+			final BakedModel model = mc.getBlockRenderer().getBlockModel(blockState);
+			// Top face is the most representative from a distance
+			lodRandom.setSeed(42L);
+			List<BakedQuad> quads = model.getQuads(blockState, Direction.UP, lodRandom);
+
+			if (quads.isEmpty()) {
+				lodRandom.setSeed(42L);
+				quads = model.getQuads(blockState, null, lodRandom);
+			}
+
+			if (quads.isEmpty()) {
+				sprite = model.getParticleIcon();
+			} else {
+				final BakedQuad quad = quads.get(0);
+				sprite = quad.getSprite();
+
+				if (quad.isTinted()) {
+					color = mc.getBlockColors().getColor(blockState, region, pos, quad.getTintIndex());
+				}
+			}
+
+			material = ItemBlockRenderTypes.getChunkRenderType(blockState) == RenderType.translucent() ? LOD_TRANSLUCENT : LOD_SOLID;
+		} else {
+			final FluidState fluidState = blockState.getFluidState();
+
+			if (fluidState.isEmpty()) {
+				return 0;
+			}
+
+			sprite = mc.getBlockRenderer().getBlockModelShaper().getParticleIcon(blockState);
+			color = mc.getBlockColors().getColor(blockState, region, pos, 0);
+			material = ItemBlockRenderTypes.getRenderLayer(fluidState) == RenderType.translucent() ? LOD_TRANSLUCENT : LOD_SOLID;
+		}
+
+		final boolean translucent = material == LOD_TRANSLUCENT;
+		final int flatColor = multiplyColor(averageColor(sprite, translucent), color == -1 ? 0xFFFFFF : color);
+
+		// States that look the same share a key so their faces can merge
+		final long appearance = (translucent ? 1L << 32 : 0L) | (flatColor & 0xFFFFFFFFL);
+		int key = lodAppearanceKeys.get(appearance);
+
+		if (key == 0) {
+			lodMaterials.add(material);
+			lodColors.add(flatColor);
+			key = lodMaterials.size();
+			lodAppearanceKeys.put(appearance, key);
+		}
+
+		return translucent ? key | LodMesher.TRANSLUCENT : key;
+	}
+
+	/**
+	 * Average color of the visible texels in the first frame of the sprite, as ARGB.
+	 * Alpha is the average of visible texels when translucent, otherwise opaque.
+	 */
+	private static int averageColor(TextureAtlasSprite sprite, boolean translucent) {
+		final NativeImage[] images = ((SpriteExt) sprite).canvas_images();
+
+		if (images == null || images.length == 0 || images[0] == null) {
+			return 0xFFFFFFFF;
+		}
+
+		final NativeImage image = images[0];
+		final int width = Math.min(sprite.getWidth(), image.getWidth());
+		final int height = Math.min(sprite.getHeight(), image.getHeight());
+		long r = 0, g = 0, b = 0, a = 0;
+		int count = 0;
+
+		for (int y = 0; y < height; ++y) {
+			for (int x = 0; x < width; ++x) {
+				// ABGR
+				final int texel = image.getPixelRGBA(x, y);
+				final int alpha = texel >>> 24;
+
+				if (alpha != 0) {
+					r += texel & 0xFF;
+					g += (texel >> 8) & 0xFF;
+					b += (texel >> 16) & 0xFF;
+					a += alpha;
+					++count;
+				}
+			}
+		}
+
+		if (count == 0) {
+			return 0xFFFFFFFF;
+		}
+
+		final int alpha = translucent ? (int) (a / count) : 0xFF;
+		return alpha << 24 | (int) (r / count) << 16 | (int) (g / count) << 8 | (int) (b / count);
+	}
+
+	/** Channel-wise product of an ARGB color and an RGB tint. */
+	private static int multiplyColor(int argb, int rgbTint) {
+		final int r = ((argb >> 16) & 0xFF) * ((rgbTint >> 16) & 0xFF) / 255;
+		final int g = ((argb >> 8) & 0xFF) * ((rgbTint >> 8) & 0xFF) / 255;
+		final int b = (argb & 0xFF) * (rgbTint & 0xFF) / 255;
+		return (argb & 0xFF000000) | r << 16 | g << 8 | b;
+	}
+
+	private void emitLodQuad(int face, int key, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+		final int appearance = (key & ~LodMesher.TRANSLUCENT) - 1;
+		final int color = lodColors.getInt(appearance);
+		final Direction direction = FACES[face];
+
+		// Light is taken from the open block in front of the quad's min corner
+		final int light = region.cachedBrightness(searchPos.set(
+				region.originX() + minX + Math.min(direction.getStepX(), 0),
+				region.originY() + minY + Math.min(direction.getStepY(), 0),
+				region.originZ() + minZ + Math.min(direction.getStepZ(), 0)));
+
+		emitter.material(lodMaterials.get(appearance));
+		emitter.cullFace(direction);
+		final float[] vertex = lodVertex;
+
+		for (int i = 0; i < 4; ++i) {
+			LodMesher.vertex(face, i, minX, minY, minZ, maxX, maxY, maxZ, vertex);
+			emitter.pos(i, vertex[0], vertex[1], vertex[2]);
+			emitter.vertexColor(i, color);
+			emitter.lightmap(i, light);
+		}
+
+		// Simplified quads are already in region space and need no shading pass
+		emitter.complete();
+		Arrays.fill(emitter.ao, 255);
+		encoder.encode();
+		emitter.clear();
+	}
+
+	private static CanvasRenderMaterial lodMaterial(int preset) {
+		return (CanvasRenderMaterial) MaterialFinder.threadLocal().preset(preset).disableAo(true).discardsTexture(true).find();
+	}
+
 	private void renderInner(final BlockModel model) {
 		try {
 			model.renderAsBlock(this.inputContext, emitter());
@@ -0,0 +1,115 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.apiimpl.rendercontext;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded, least-recently-used cache of encoded item quads keyed by item, model and
+ * the full model and normal transform, so that hits can be copied directly to collectors
+ * with no re-encoding.  Items drawn at different positions are separate entries.
+ *
+ * <p>Not thread-safe. Each render context has its own instance, and contexts are
+ * replaced on resource reload, which is the only invalidation needed while the
+ * eligibility rules exclude anything that can change without a reload.
+ */
+public class ItemQuadCache<V> {
+	/** 16 model matrix and 9 normal matrix components. */
+	public static final int TRANSFORM_LENGTH = 25;
+
+	private final LinkedHashMap<Key, V> map;
+	private final Key searchKey = new Key();
+
+	public ItemQuadCache(int capacity) {
+		map = new LinkedHashMap<>(capacity, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<Key, V> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * @param transform raw float bits of the model and normal matrix, {@link #TRANSFORM_LENGTH} long.
+	 * Not retained.
+	 */
+	public V get(Object item, Object model, int lightmap, int overlay, boolean leftHanded, int[] transform) {
+		return map.get(searchKey.set(item, model, lightmap, overlay, leftHanded, transform));
+	}
+
+	/**
+	 * @param transform raw float bits of the model and normal matrix, {@link #TRANSFORM_LENGTH} long.
+	 * Copied if the entry is added.
+	 */
+	public void put(Object item, Object model, int lightmap, int overlay, boolean leftHanded, int[] transform, V value) {
+		map.put(new Key().set(item, model, lightmap, overlay, leftHanded, transform.clone()), value);
+	}
+
+	public int size() {
+		return map.size();
+	}
+
+	public void clear() {
+		map.clear();
+	}
+
+	private static class Key {
+		private Object item;
+		private Object model;
+		private int lightmap;
+		private int overlay;
+		private boolean leftHanded;
+		private int[] transform;
+		private int hash;
+
+		private Key set(Object item, Object model, int lightmap, int overlay, boolean leftHanded, int[] transform) {
+			assert transform.length == TRANSFORM_LENGTH;
+			this.item = item;
+			this.model = model;
+			this.lightmap = lightmap;
+			this.overlay = overlay;
+			this.leftHanded = leftHanded;
+			this.transform = transform;
+
+			int h = System.identityHashCode(item);
+			h = h * 31 + System.identityHashCode(model);
+			h = h * 31 + lightmap;
+			h = h * 31 + overlay;
+			h = h * 31 + (leftHanded ? 1 : 0);
+			hash = h * 31 + Arrays.hashCode(transform);
+			return this;
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof final Key other && hash == other.hash && item == other.item && model == other.model
+					&& lightmap == other.lightmap && overlay == other.overlay && leftHanded == other.leftHanded
+					&& Arrays.equals(transform, other.transform);
+		}
+	}
+}
@@ -27,7 +27,9 @@ import org.jetbrains.annotations.Nullable;
 import io.vram.frex.api.model.InputContext;
 import io.vram.frex.base.renderer.mesh.BaseQuadEmitter;
 
+import grondag.canvas.buffer.input.DrawableVertexCollector;
 import grondag.canvas.buffer.input.VertexCollectorList;
+import grondag.canvas.material.state.CanvasRenderMaterial;
 import grondag.canvas.mixinterface.SpriteExt;
 
 public abstract class BaseQuadEncoder {
@@ -43,16 +45,47 @@ public abstract class BaseQuadEncoder {
 
 	public final BitSet animationBits = new BitSet();
 
+	// Memo of the most recent collector lookup. Consecutive quads from the same
+	// model nearly always share a material, so most lookups end here.
+	private @Nullable VertexCollectorList lastCollectors = null;
+	private @Nullable CanvasRenderMaterial lastMaterial = null;
+	private @Nullable DrawableVertexCollector lastCollector = null;
+
+	/**
+	 * Same result as {@code collectors.get(mat)} but skips the list lookup when the
+	 * material and collector list are unchanged since the previous call.
+	 * Reassigning {@link #collectors} invalidates the memo. Collector lists never
+	 * discard a collector once created, so nothing else can make it stale.
+	 */
+	public final @Nullable DrawableVertexCollector collector(CanvasRenderMaterial mat) {
+		final VertexCollectorList collectors = this.collectors;
+
+		if (mat != lastMaterial || collectors != lastCollectors || lastCollector == null) {
+			lastCollector = collectors.get(mat);
+			lastMaterial = mat;
+			lastCollectors = collectors;
+		}
+
+		return lastCollector;
+	}
+
 	protected void trackAnimation(BaseQuadEmitter quad) {
+		final int animationIndex = animationIndex(quad);
+
+		if (animationIndex >= 0) {
+			animationBits.set(animationIndex);
+		}
+	}
+
+	/** Index of the animated sprite used by the quad, or -1 if the quad has no animated sprite. */
+	public static int animationIndex(BaseQuadEmitter quad) {
 		final var mat = quad.material();
 
 		if (!mat.discardsTexture() && mat.texture().isAtlas()) {
 			// WIP: create and use sprite method on quad
-			final int animationIndex = ((SpriteExt) mat.texture().spriteIndex().fromIndex(quad.spriteId())).canvas_animationIndex();
-
-			if (animationIndex >= 0) {
-				animationBits.set(animationIndex);
-			}
+			return ((SpriteExt) mat.texture().spriteIndex().fromIndex(quad.spriteId())).canvas_animationIndex();
 		}
+
+		return -1;
 	}
 }
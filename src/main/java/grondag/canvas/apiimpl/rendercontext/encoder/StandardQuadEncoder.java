@@ -51,7 +51,7 @@ public class StandardQuadEncoder extends BaseQuadEncoder {
 		}
 
 		if (collectors != null && !forceVirtualRender) {
-			StandardEncoder.encodeQuad(emitter, inputContext, collectors.get((CanvasRenderMaterial) emitter.material()));
+			StandardEncoder.encodeQuad(emitter, inputContext, collector((CanvasRenderMaterial) emitter.material()));
 		} else {
 			EncoderUtil.encodeQuad(emitter, inputContext, defaultConsumer);
 		}
@@ -54,7 +54,7 @@ public class TerrainQuadEncoder extends BaseQuadEncoder {
 
 	public void encode() {
 		trackAnimation(emitter);
-		TerrainEncoder.encodeQuad(this, collectors.get((CanvasRenderMaterial) emitter.material()));
+		TerrainEncoder.encodeQuad(this, collector((CanvasRenderMaterial) emitter.material()));
 	}
 
 	public BaseQuadEmitter emitter() {
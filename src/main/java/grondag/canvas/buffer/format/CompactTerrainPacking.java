@@ -0,0 +1,154 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.buffer.format;
+
+/**
+ * Bit packing for the compact terrain vertex format, with a CPU-side reference
+ * decoder that mirrors the vertex shader.
+ *
+ * <p>Each vertex is six ints. The first three hold sector-relative fixed-point
+ * position along with the sector ID, normal, tangent handedness and AO:
+ * <pre>
+ * int 0: x (22 bits) | sector ID (9 bits) | tangent inverted (1 bit)
+ * int 1: y (22 bits) | octahedral normal u (7 bits) | AO low (3 bits)
+ * int 2: z (22 bits) | octahedral normal v (7 bits) | AO high (3 bits)
+ * int 3: color RGBA
+ * int 4: u (16 bits) | v (16 bits)
+ * int 5: block light (8 bits) | sky light (8 bits) | material (16 bits)
+ * </pre>
+ *
+ * <p>Positions use 8 integer and 14 fractional bits - enough for the 1/16000
+ * resolution iron bars need. The tangent vector is not stored. The shader
+ * reconstructs it from the normal, which matches vanilla UV layout on block faces.
+ */
+public final class CompactTerrainPacking {
+	private CompactTerrainPacking() { }
+
+	public static final int POSITION_BITS = 22;
+	public static final int POSITION_MASK = (1 << POSITION_BITS) - 1;
+	public static final int FRACTION_BITS = 14;
+	public static final float POSITION_SCALE = 1 << FRACTION_BITS;
+
+	public static final int SECTOR_BITS = 9;
+	public static final int SECTOR_MASK = (1 << SECTOR_BITS) - 1;
+	public static final int NORMAL_BITS = 7;
+	public static final int NORMAL_MASK = (1 << NORMAL_BITS) - 1;
+	/** Quantized value of zero. Values range 0 to 126 so that zero and the axes are exact. */
+	private static final int NORMAL_CENTER = NORMAL_MASK >> 1;
+
+	public static final int AO_BITS = 6;
+	public static final int AO_MASK = (1 << AO_BITS) - 1;
+
+	/**
+	 * @param coordinate sector-relative position, including the sector origin offset. Must be 0 to 255.
+	 */
+	public static int packPosition(float coordinate) {
+		assert coordinate >= 0 && coordinate < 256 : "Compact terrain position out of range";
+		return Math.min(Math.round(coordinate * POSITION_SCALE), POSITION_MASK);
+	}
+
+	public static float unpackPosition(int packed) {
+		return (packed & POSITION_MASK) / POSITION_SCALE;
+	}
+
+	/**
+	 * Octahedral encoding of a unit vector into two 7-bit values, u in the low bits.
+	 */
+	public static int packNormal(float x, float y, float z) {
+		final float sum = Math.abs(x) + Math.abs(y) + Math.abs(z);
+
+		if (sum == 0) {
+			// degenerate - point up
+			return packNormal(0, 1, 0);
+		}
+
+		float u = x / sum;
+		float v = y / sum;
+
+		if (z < 0) {
+			final float pu = u;
+			u = (1 - Math.abs(v)) * signNotZero(pu);
+			v = (1 - Math.abs(pu)) * signNotZero(v);
+		}
+
+		final int qu = Math.round(u * NORMAL_CENTER) + NORMAL_CENTER;
+		final int qv = Math.round(v * NORMAL_CENTER) + NORMAL_CENTER;
+		return qu | (qv << NORMAL_BITS);
+	}
+
+	/**
+	 * Same result as the shader, not normalized.
+	 * @param out receives x, y, z
+	 */
+	public static void unpackNormal(int packed, float[] out) {
+		final float u = (float) ((packed & NORMAL_MASK) - NORMAL_CENTER) / NORMAL_CENTER;
+		final float v = (float) (((packed >> NORMAL_BITS) & NORMAL_MASK) - NORMAL_CENTER) / NORMAL_CENTER;
+		final float z = 1 - Math.abs(u) - Math.abs(v);
+
+		if (z < 0) {
+			out[0] = (1 - Math.abs(v)) * signNotZero(u);
+			out[1] = (1 - Math.abs(u)) * signNotZero(v);
+		} else {
+			out[0] = u;
+			out[1] = v;
+		}
+
+		out[2] = z;
+	}
+
+	public static int packX(int x, int sectorId, boolean tangentInverted) {
+		assert sectorId >= 0 && sectorId <= SECTOR_MASK;
+		return x | (sectorId << POSITION_BITS) | (tangentInverted ? 0x80000000 : 0);
+	}
+
+	public static int packY(int y, int normal, int ao) {
+		return y | ((normal & NORMAL_MASK) << POSITION_BITS) | ((ao & 7) << 29);
+	}
+
+	public static int packZ(int z, int normal, int ao) {
+		return z | (((normal >> NORMAL_BITS) & NORMAL_MASK) << POSITION_BITS) | ((ao >> 3) << 29);
+	}
+
+	public static int unpackSector(int packedX) {
+		return (packedX >>> POSITION_BITS) & SECTOR_MASK;
+	}
+
+	public static boolean unpackTangentInverted(int packedX) {
+		return packedX < 0;
+	}
+
+	public static int unpackNormalBits(int packedY, int packedZ) {
+		return ((packedY >>> POSITION_BITS) & NORMAL_MASK) | (((packedZ >>> POSITION_BITS) & NORMAL_MASK) << NORMAL_BITS);
+	}
+
+	public static int unpackAo(int packedY, int packedZ) {
+		return (packedY >>> 29) | ((packedZ >>> 29) << 3);
+	}
+
+	/** Reduces 0-255 AO to the stored precision. */
+	public static int packAo(int ao) {
+		return (ao * AO_MASK + 127) / 255;
+	}
+
+	private static float signNotZero(float value) {
+		return value >= 0 ? 1 : -1;
+	}
+}
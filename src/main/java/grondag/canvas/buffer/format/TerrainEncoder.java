@@ -49,6 +49,7 @@ import io.vram.frex.base.renderer.mesh.MeshEncodingHelper;
 
 import grondag.canvas.apiimpl.rendercontext.encoder.TerrainQuadEncoder;
 import grondag.canvas.buffer.input.VertexCollector;
+import grondag.canvas.config.Configurator;
 import grondag.canvas.material.state.CanvasRenderMaterial;
 
 public class TerrainEncoder {
@@ -69,9 +70,30 @@ public class TerrainEncoder {
 			LIGHTMAPS_2UB, MATERIAL_1US,
 			NORMAL_TANGENT_4B);
 
+	private static final CanvasVertexFormatElement PACKED_POS_3UI = new CanvasVertexFormatElement(VertexFormatElement.Type.UINT, 3, "in_packed_pos", false, true);
+
+	/**
+	 * Optional 24-byte format. Position, sector, normal, tangent handedness and AO
+	 * share the first three ints - see {@link CompactTerrainPacking} for the layout.
+	 */
+	public static final CanvasVertexFormat TERRAIN_COMPACT = new CanvasVertexFormat(
+			PACKED_POS_3UI,
+			BASE_RGBA_4UB,
+			BASE_TEX_2US,
+			LIGHTMAPS_2UB, MATERIAL_1US);
+
+	public static final boolean COMPACT = Configurator.compactTerrainVertices.get();
+	public static final CanvasVertexFormat TERRAIN_FORMAT = COMPACT ? TERRAIN_COMPACT : TERRAIN_MATERIAL;
+
 	private static final int TERRAIN_VERTEX_STRIDE = TERRAIN_MATERIAL.vertexStrideInts;
+	private static final int COMPACT_VERTEX_STRIDE = TERRAIN_COMPACT.vertexStrideInts;
 
 	public static void encodeQuad(TerrainQuadEncoder encoder, VertexCollector buff) {
+		if (COMPACT) {
+			encodeCompactQuad(encoder, buff);
+			return;
+		}
+
 		final var quad = encoder.emitter();
 		final var inputContext = encoder.inputContext();
 
@@ -184,4 +206,94 @@ public class TerrainEncoder {
 
 		buff.commit(quad.effectiveCullFaceId(), mat.castShadows());
 	}
+
+	private static void encodeCompactQuad(TerrainQuadEncoder encoder, VertexCollector buff) {
+		final var quad = encoder.emitter();
+		final var inputContext = encoder.inputContext();
+
+		final var matrixStack = inputContext.matrixStack();
+		final FastMatrix4f matrix = matrixStack.modelMatrix();
+		final FastMatrix3f normalMatrix = matrixStack.normalMatrix();
+
+		final boolean isNormalMatrixUseful = !normalMatrix.f_isIdentity();
+
+		final boolean aoDisabled = !Minecraft.useAmbientOcclusion();
+		final int[] aoData = quad.ao;
+		final CanvasRenderMaterial mat = (CanvasRenderMaterial) quad.material();
+
+		assert mat.preset() != MaterialConstants.PRESET_DEFAULT;
+
+		final int quadNormalFlags = quad.normalFlags();
+		final int faceNormal = quadNormalFlags == 0b1111 ? 0 : quad.packedFaceNormal();
+		int packedNormal = 0;
+		int octNormal = CompactTerrainPacking.packNormal(0, 0, 0);
+
+		final int quadTangetFlags = quad.tangentFlags();
+		final int faceTangent = quadTangetFlags == 0b1111 ? 0 : quad.packedFaceTanget();
+		int packedTangent = 0;
+		boolean tangentInverted = false;
+
+		final int material = mat.materialIndexer().index(quad.spriteId()) << 16;
+		final boolean unlit = mat.unlit();
+
+		final int[] target = buff.target();
+		final int baseSourceIndex = quad.vertexStart();
+		final int[] source = quad.data();
+
+		final int sectorId = encoder.sectorId();
+		assert sectorId >= 0;
+		final int sectorRelativeRegionOrigin = encoder.sectorRelativeRegionOrigin();
+		final int originX = sectorRelativeRegionOrigin & 0xFF;
+		final int originY = (sectorRelativeRegionOrigin >> 8) & 0xFF;
+		final int originZ = (sectorRelativeRegionOrigin >> 16) & 0xFF;
+
+		for (int i = 0; i < 4; i++) {
+			final int vertexMask = 1 << i;
+			final int fromIndex = baseSourceIndex + i * MESH_VERTEX_STRIDE;
+			final int toIndex = i * COMPACT_VERTEX_STRIDE;
+
+			final int p = ((quadNormalFlags & vertexMask) == 0) ? faceNormal : source[fromIndex + VERTEX_NORMAL];
+
+			if (p != packedNormal) {
+				packedNormal = p;
+				final int n = isNormalMatrixUseful ? normalMatrix.f_transformPacked3f(packedNormal) : packedNormal;
+				octNormal = CompactTerrainPacking.packNormal((byte) n / 127f, (byte) (n >> 8) / 127f, (byte) (n >> 16) / 127f);
+			}
+
+			// only handedness is kept - shader derives the tangent vector from the normal
+			final int t = ((quadTangetFlags & vertexMask) == 0) ? faceTangent : source[baseSourceIndex + i + HEADER_FIRST_VERTEX_TANGENT];
+
+			if (t != packedTangent) {
+				packedTangent = t;
+				final int transformedTangent = isNormalMatrixUseful ? normalMatrix.f_transformPacked3f(packedTangent) : packedTangent;
+				tangentInverted = (transformedTangent & 0x1000000) != 0;
+			}
+
+			final float x = Float.intBitsToFloat(source[fromIndex + VERTEX_X]);
+			final float y = Float.intBitsToFloat(source[fromIndex + VERTEX_Y]);
+			final float z = Float.intBitsToFloat(source[fromIndex + VERTEX_Z]);
+
+			final float xOut = matrix.f_m00() * x + matrix.f_m10() * y + matrix.f_m20() * z + matrix.f_m30();
+			final float yOut = matrix.f_m01() * x + matrix.f_m11() * y + matrix.f_m21() * z + matrix.f_m31();
+			final float zOut = matrix.f_m02() * x + matrix.f_m12() * y + matrix.f_m22() * z + matrix.f_m32();
+
+			final int ao = aoDisabled ? CompactTerrainPacking.AO_MASK : CompactTerrainPacking.packAo(aoData[i]);
+
+			target[toIndex] = CompactTerrainPacking.packX(CompactTerrainPacking.packPosition(xOut + originX), sectorId, tangentInverted);
+			target[toIndex + 1] = CompactTerrainPacking.packY(CompactTerrainPacking.packPosition(yOut + originY), octNormal, ao);
+			target[toIndex + 2] = CompactTerrainPacking.packZ(CompactTerrainPacking.packPosition(zOut + originZ), octNormal, ao);
+
+			target[toIndex + 3] = source[fromIndex + VERTEX_COLOR];
+
+			target[toIndex + 4] = (source[fromIndex + VERTEX_U] + UV_ROUNDING_BIT) >> UV_EXTRA_PRECISION
+					| ((source[fromIndex + VERTEX_V] + UV_ROUNDING_BIT) >> UV_EXTRA_PRECISION << 16);
+
+			final int packedLight = unlit ? MeshEncodingHelper.FULL_BRIGHTNESS : source[fromIndex + VERTEX_LIGHTMAP];
+			final int blockLight = packedLight & 0xFF;
+			final int skyLight = (packedLight >> 16) & 0xFF;
+			target[toIndex + 5] = blockLight | (skyLight << 8) | material;
+		}
+
+		buff.commit(quad.effectiveCullFaceId(), mat.castShadows());
+	}
 }
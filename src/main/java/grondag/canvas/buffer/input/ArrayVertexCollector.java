@@ -90,6 +90,14 @@ public abstract class ArrayVertexCollector extends BaseVertexCollector {
 		return null;
 	}
 
+	/**
+	 * Reorders quads so each shadow cascade draws a leading subset.
+	 * See {@link CascadeQuadSorter}. Not for collectors that depend on quad order.
+	 */
+	public final void sortByShadowCascade(CascadeQuadSorter sorter, int[] vertexCountsOut, int outOffset) {
+		sorter.sort(vertexData, integerSize, vertexStrideInts, vertexCountsOut, outOffset);
+	}
+
 	@Override
 	public final int[] saveState(int[] priorState) {
 		final int integerSize = this.integerSize;
@@ -26,6 +26,7 @@ import java.util.SortedMap;
 import com.google.common.base.Predicates;
 import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.jetbrains.annotations.Nullable;
 
 import com.mojang.blaze3d.vertex.BufferBuilder;
 import com.mojang.blaze3d.vertex.VertexConsumer;
@@ -84,6 +85,16 @@ public class CanvasImmediate extends BufferSource {
 		return drawList.isEmpty() ? DrawableStream.EMPTY : new DrawableStream(drawList);
 	}
 
+	/**
+	 * As {@link #prepareDrawable(TargetRenderState)} but also groups quads by shadow
+	 * cascade when a sorter is given. Changes the order of quads drawn in the color pass.
+	 */
+	public DrawableStream prepareDrawable(TargetRenderState target, @Nullable CascadeQuadSorter cascadeSorter, int cascadeCount) {
+		final ObjectArrayList<DrawableVertexCollector> drawList = collectors.sortedDrawList(target);
+
+		return drawList.isEmpty() ? DrawableStream.EMPTY : new DrawableStream(drawList, cascadeSorter, cascadeCount);
+	}
+
 	public void drawCollectors(TargetRenderState target) {
 		final ObjectArrayList<DrawableVertexCollector> drawList = collectors.sortedDrawList(target);
 
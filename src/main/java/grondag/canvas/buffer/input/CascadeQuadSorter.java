@@ -0,0 +1,187 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.buffer.input;
+
+/**
+ * Reorders quads so that each shadow cascade can draw a leading subset
+ * of a collector instead of all of it.
+ *
+ * <p>Each quad is assigned the deepest (highest index, most detailed) cascade
+ * whose light-space square its light-space bounds intersect. Cascades are
+ * roughly nested, with smaller cascades inside larger ones, so a quad is
+ * drawn in every cascade up to and including its assigned cascade. That is
+ * conservative when cascades aren't strictly nested. Quads outside every
+ * cascade sort last and are never drawn in the shadow pass.
+ *
+ * <p>The partition is stable so that quads keep their relative order within
+ * each cascade group. Positions are expected as camera-relative floats in
+ * the first three integers of each vertex, the same space as the shadow
+ * view matrix and cascade centers.
+ *
+ * <p>Not thread-safe. Has no GL dependencies so that assignment can be tested.
+ */
+public class CascadeQuadSorter {
+	private final int cascadeCount;
+	private final float[] bounds;
+	private final int[] histogram;
+	private float m00, m01, m02, m03, m10, m11, m12, m13;
+	private int[] quadCascades = new int[256];
+	private int[] scratch = new int[4096];
+
+	public CascadeQuadSorter(int cascadeCount) {
+		this.cascadeCount = cascadeCount;
+		bounds = new float[cascadeCount * 4];
+		histogram = new int[cascadeCount + 1];
+	}
+
+	/**
+	 * Sets the first two rows of the light view matrix. Only X and Y in light space are needed.
+	 * Light-space x is {@code m00 * x + m01 * y + m02 * z + m03}, and likewise for y with the
+	 * second row. Note this is row-major: from a {@code FastMatrix4f}, which names elements
+	 * by column then row, pass {@code f_m00, f_m10, f_m20, f_m30, f_m01, f_m11, f_m21, f_m31}.
+	 */
+	public void setView(float m00, float m01, float m02, float m03, float m10, float m11, float m12, float m13) {
+		this.m00 = m00;
+		this.m01 = m01;
+		this.m02 = m02;
+		this.m03 = m03;
+		this.m10 = m10;
+		this.m11 = m11;
+		this.m12 = m12;
+		this.m13 = m13;
+	}
+
+	/** Light-space center x, y, z and radius for each cascade, four floats per cascade. */
+	public void setCascades(float[] centersAndRadii) {
+		System.arraycopy(centersAndRadii, 0, bounds, 0, cascadeCount * 4);
+	}
+
+	/** Deepest cascade intersecting the given light-space box, or -1 if none. */
+	public int deepestCascade(float minX, float minY, float maxX, float maxY) {
+		for (int c = cascadeCount - 1; c >= 0; --c) {
+			final int i = c * 4;
+			final float cx = bounds[i];
+			final float cy = bounds[i + 1];
+			final float r = bounds[i + 3];
+
+			if (maxX >= cx - r && minX <= cx + r && maxY >= cy - r && minY <= cy + r) {
+				return c;
+			}
+		}
+
+		return -1;
+	}
+
+	int quadCascade(int[] data, int quadStart, int vertexStride) {
+		float minX = Float.POSITIVE_INFINITY;
+		float minY = Float.POSITIVE_INFINITY;
+		float maxX = Float.NEGATIVE_INFINITY;
+		float maxY = Float.NEGATIVE_INFINITY;
+
+		for (int v = 0; v < 4; ++v) {
+			final int i = quadStart + v * vertexStride;
+			final float x = Float.intBitsToFloat(data[i]);
+			final float y = Float.intBitsToFloat(data[i + 1]);
+			final float z = Float.intBitsToFloat(data[i + 2]);
+			final float lx = m00 * x + m01 * y + m02 * z + m03;
+			final float ly = m10 * x + m11 * y + m12 * z + m13;
+			minX = Math.min(minX, lx);
+			minY = Math.min(minY, ly);
+			maxX = Math.max(maxX, lx);
+			maxY = Math.max(maxY, ly);
+		}
+
+		return deepestCascade(minX, minY, maxX, maxY);
+	}
+
+	/**
+	 * Stable-partitions quads in place by assigned cascade, deepest first.
+	 *
+	 * @param data             vertex data
+	 * @param intCount         number of integers of vertex data in use
+	 * @param vertexStride     integers per vertex
+	 * @param vertexCountsOut  receives the number of leading vertices to draw for each cascade
+	 * @param outOffset        index in vertexCountsOut of the count for cascade zero
+	 */
+	public void sort(int[] data, int intCount, int vertexStride, int[] vertexCountsOut, int outOffset) {
+		final int cascadeCount = this.cascadeCount;
+		final int quadStride = vertexStride * 4;
+		final int quadCount = intCount / quadStride;
+		final int[] histogram = this.histogram;
+
+		if (quadCascades.length < quadCount) {
+			quadCascades = new int[Math.max(quadCount, quadCascades.length * 2)];
+		}
+
+		final int[] quadCascades = this.quadCascades;
+
+		for (int i = 0; i <= cascadeCount; ++i) {
+			histogram[i] = 0;
+		}
+
+		// bucket 0 is the deepest cascade, last bucket is outside all cascades
+		boolean needsSort = false;
+		int lastBucket = 0;
+
+		for (int q = 0; q < quadCount; ++q) {
+			final int bucket = cascadeCount - 1 - quadCascade(data, q * quadStride, vertexStride);
+			quadCascades[q] = bucket;
+			++histogram[bucket];
+			needsSort |= bucket < lastBucket;
+			lastBucket = bucket;
+		}
+
+		int drawQuads = 0;
+
+		for (int c = cascadeCount - 1; c >= 0; --c) {
+			drawQuads += histogram[cascadeCount - 1 - c];
+			vertexCountsOut[outOffset + c] = drawQuads * 4;
+		}
+
+		if (!needsSort) {
+			return;
+		}
+
+		// convert counts to bucket start positions
+		int start = 0;
+
+		for (int i = 0; i <= cascadeCount; ++i) {
+			final int count = histogram[i];
+			histogram[i] = start;
+			start += count;
+		}
+
+		final int usedInts = quadCount * quadStride;
+
+		if (scratch.length < usedInts) {
+			scratch = new int[Math.max(usedInts, scratch.length * 2)];
+		}
+
+		final int[] scratch = this.scratch;
+
+		for (int q = 0; q < quadCount; ++q) {
+			final int targetQuad = histogram[quadCascades[q]]++;
+			System.arraycopy(data, q * quadStride, scratch, targetQuad * quadStride, quadStride);
+		}
+
+		System.arraycopy(scratch, 0, data, 0, usedInts);
+	}
+}
@@ -0,0 +1,151 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.buffer.input;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+
+import io.vram.frex.api.math.FastMatrix4f;
+
+import grondag.canvas.material.state.CanvasRenderMaterial;
+
+/**
+ * Accumulates glyph and text effect quads for whole strings and emits them to the
+ * collector emitter in one pass when the batch ends, instead of four chained
+ * {@link VertexConsumer} calls per vertex as each glyph is rendered.
+ *
+ * <p>Quads are only batched when the target is a Canvas collector emitter. Because
+ * all collector buffers share one emitter, the material prepared for each glyph is
+ * captured and the batch is flushed whenever it changes.
+ *
+ * <p>Vertex values are computed exactly as the vertex consumer path would compute them:
+ * positions are transformed in the same order of operations as {@code VertexConsumer.vertex(Matrix4f, ...)}
+ * and colors use the same float to int conversion, so output is identical.
+ *
+ * <p>Render thread only. Batches may nest and are flushed when the outermost batch ends.
+ */
+public abstract class GlyphBatch {
+	/** Position (3), color, u, v, lightmap. */
+	private static final int VERTEX_STRIDE = 7;
+	private static final int QUAD_STRIDE = VERTEX_STRIDE * 4;
+
+	private static int depth = 0;
+	private static VertexCollectorList.Emitter emitter = null;
+	private static CanvasRenderMaterial material = null;
+	private static int[] data = new int[QUAD_STRIDE * 64];
+	private static int vertexCount = 0;
+
+	private GlyphBatch() { }
+
+	public static void begin() {
+		++depth;
+	}
+
+	public static void end() {
+		assert depth > 0 : "Unbalanced glyph batch end";
+
+		if (--depth == 0) {
+			flush();
+			emitter = null;
+			material = null;
+		}
+	}
+
+	/**
+	 * Call before adding vertices for a glyph or effect quad. Flushes pending
+	 * quads if the target emitter or its prepared material has changed.
+	 *
+	 * @return true if the quad should be added with {@link #vertex(FastMatrix4f, float, float, float, int, float, float, int)},
+	 * false if it must be sent to the consumer directly
+	 */
+	public static boolean accept(VertexConsumer consumer) {
+		if (depth == 0 || !(consumer instanceof final VertexCollectorList.Emitter targetEmitter) || !RenderSystem.isOnRenderThread()) {
+			return false;
+		}
+
+		final CanvasRenderMaterial targetMaterial = (CanvasRenderMaterial) targetEmitter.material();
+
+		if (targetEmitter != emitter || targetMaterial != material) {
+			flush();
+			emitter = targetEmitter;
+			material = targetMaterial;
+		}
+
+		return true;
+	}
+
+	/** Same conversion and packing as the vertex consumer color path. */
+	public static int color(float red, float green, float blue, float alpha) {
+		return ((int) (alpha * 255.0F) & 0xFF) << 24 | ((int) (red * 255.0F) & 0xFF) << 16 | ((int) (green * 255.0F) & 0xFF) << 8 | ((int) (blue * 255.0F) & 0xFF);
+	}
+
+	public static void vertex(FastMatrix4f matrix, float x, float y, float z, int color, float u, float v, int lightmap) {
+		int[] data = GlyphBatch.data;
+		int i = vertexCount * VERTEX_STRIDE;
+
+		if (i == data.length) {
+			data = new int[data.length * 2];
+			System.arraycopy(GlyphBatch.data, 0, data, 0, i);
+			GlyphBatch.data = data;
+		}
+
+		data[i++] = Float.floatToRawIntBits(matrix.f_m00() * x + matrix.f_m10() * y + matrix.f_m20() * z + matrix.f_m30() * 1.0F);
+		data[i++] = Float.floatToRawIntBits(matrix.f_m01() * x + matrix.f_m11() * y + matrix.f_m21() * z + matrix.f_m31() * 1.0F);
+		data[i++] = Float.floatToRawIntBits(matrix.f_m02() * x + matrix.f_m12() * y + matrix.f_m22() * z + matrix.f_m32() * 1.0F);
+		data[i++] = color;
+		data[i++] = Float.floatToRawIntBits(u);
+		data[i++] = Float.floatToRawIntBits(v);
+		data[i] = lightmap;
+		++vertexCount;
+	}
+
+	private static void flush() {
+		final int limit = vertexCount * VERTEX_STRIDE;
+
+		if (limit == 0) {
+			return;
+		}
+
+		assert (vertexCount & 3) == 0 : "Partial quad in glyph batch";
+
+		final VertexCollectorList.Emitter emitter = GlyphBatch.emitter;
+		final int[] data = GlyphBatch.data;
+		// The caller may have already prepared the emitter for a different material
+		// - that's usually why we are flushing - so it must be restored after.
+		final CanvasRenderMaterial callerMaterial = (CanvasRenderMaterial) emitter.material();
+		emitter.prepare(material);
+
+		for (int quadStart = 0; quadStart < limit; quadStart += QUAD_STRIDE) {
+			for (int v = 0; v < 4; ++v) {
+				final int i = quadStart + v * VERTEX_STRIDE;
+				emitter.pos(v, Float.intBitsToFloat(data[i]), Float.intBitsToFloat(data[i + 1]), Float.intBitsToFloat(data[i + 2]));
+				emitter.vertexColor(v, data[i + 3]);
+				emitter.uv(v, Float.intBitsToFloat(data[i + 4]), Float.intBitsToFloat(data[i + 5]));
+				emitter.lightmap(v, data[i + 6]);
+			}
+
+			emitter.emit();
+		}
+
+		emitter.prepare(callerMaterial);
+		vertexCount = 0;
+	}
+}
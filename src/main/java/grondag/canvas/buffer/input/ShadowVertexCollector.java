@@ -58,6 +58,15 @@ public class ShadowVertexCollector extends BaseVertexCollector {
 		return common.vertexCount();
 	}
 
+	/**
+	 * Reorders shadow-casting quads so each shadow cascade draws a leading subset.
+	 * Only the common range is drawn in the shadow pass, so color-only quads are left as is.
+	 * See {@link CascadeQuadSorter}.
+	 */
+	public final void sortByShadowCascade(CascadeQuadSorter sorter, int[] vertexCountsOut, int outOffset) {
+		common.sortByShadowCascade(sorter, vertexCountsOut, outOffset);
+	}
+
 	@Override
 	public void commit(int size) {
 		throw new UnsupportedOperationException("Commit on ShadowVertexCollector must provide castShadowl");
@@ -26,6 +26,8 @@ import it.unimi.dsi.fastutil.ints.IntComparator;
 import net.minecraft.util.Mth;
 import net.minecraft.world.phys.Vec3;
 
+import grondag.canvas.buffer.format.CompactTerrainPacking;
+import grondag.canvas.buffer.format.TerrainEncoder;
 import grondag.canvas.material.state.RenderState;
 import grondag.canvas.render.terrain.TerrainSectorMap.RegionRenderSector;
 
@@ -38,7 +40,7 @@ public class SortingVertexCollector extends SimpleVertexCollector {
 	public SortingVertexCollector(RenderState renderState, boolean isTerrain, int[] target) {
 		super(renderState, target);
 		swapData = new int[quadStrideInts * 2];
-		distanceFunc = isTerrain ? this::getDistanceSqTerrain : this::getDistanceSq;
+		distanceFunc = isTerrain ? (TerrainEncoder.COMPACT ? this::getDistanceSqCompactTerrain : this::getDistanceSqTerrain) : this::getDistanceSq;
 	}
 
 	@Override
@@ -172,6 +174,30 @@ public class SortingVertexCollector extends SimpleVertexCollector {
 		return dx * dx + dy * dy + dz * dz;
 	}
 
+	private float getDistanceSqCompactTerrain(float x, float y, float z, int quadIndex) {
+		final int integerStride = quadStrideInts / 4;
+
+		// unpack vertex coordinates - only low bits of the first three ints are position
+		int i = quadIndex * quadStrideInts;
+		float sx = CompactTerrainPacking.unpackPosition(vertexData[i]);
+		float sy = CompactTerrainPacking.unpackPosition(vertexData[i + 1]);
+		float sz = CompactTerrainPacking.unpackPosition(vertexData[i + 2]);
+
+		for (int v = 1; v < 4; ++v) {
+			i += integerStride;
+			sx += CompactTerrainPacking.unpackPosition(vertexData[i]);
+			sy += CompactTerrainPacking.unpackPosition(vertexData[i + 1]);
+			sz += CompactTerrainPacking.unpackPosition(vertexData[i + 2]);
+		}
+
+		// compute average distance by component
+		final float dx = sx * 0.25f - x;
+		final float dy = sy * 0.25f - y;
+		final float dz = sz * 0.25f - z;
+
+		return dx * dx + dy * dy + dz * dz;
+	}
+
 	@Override
 	public boolean sorted() {
 		return true;
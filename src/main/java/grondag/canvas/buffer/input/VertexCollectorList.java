@@ -60,7 +60,7 @@ public class VertexCollectorList {
 	public VertexCollectorList(boolean trackFaces, boolean isTerrain) {
 		this.trackFaces = trackFaces;
 		this.isTerrain = isTerrain;
-		target = new int[isTerrain ? TerrainEncoder.TERRAIN_MATERIAL.quadStrideInts : CanvasVertexFormats.STANDARD_MATERIAL_FORMAT.quadStrideInts];
+		target = new int[isTerrain ? TerrainEncoder.TERRAIN_FORMAT.quadStrideInts : CanvasVertexFormats.STANDARD_MATERIAL_FORMAT.quadStrideInts];
 	}
 
 	/**
@@ -105,6 +105,32 @@ public class BufferAllocator<T extends AllocatableBuffer> {
 		BINS[buffer.binIndex().binIndex()].offer(buffer);
 	}
 
+	/**
+	 * Shuts down pooled instances in excess of the given count.
+	 *
+	 * @return number of instances released
+	 */
+	public final int trim(BinIndex binIndex, int retainCount) {
+		assert RenderSystem.isOnRenderThread();
+		final var bin = BINS[binIndex.binIndex()];
+		final int surplus = bin.size() - retainCount;
+		int result = 0;
+
+		while (result < surplus) {
+			final T buffer = bin.poll();
+
+			if (buffer == null) {
+				break;
+			}
+
+			buffer.trace().trace(traceName + " TRIM");
+			buffer.shutdown();
+			++result;
+		}
+
+		return result;
+	}
+
 	/** For the tracking sub-type. */
 	protected void trackClaim(BinIndex binIndex) {
 		// NOOP;
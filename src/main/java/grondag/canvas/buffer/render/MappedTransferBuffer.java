@@ -53,6 +53,6 @@ public class MappedTransferBuffer extends AbstractMappedBuffer<MappedTransferBuf
 		GFX.bindBuffer(GFX.GL_COPY_READ_BUFFER, 0);
 	}
 
-	static final BufferAllocator<MappedTransferBuffer> RENDER_THREAD_ALLOCATOR = new BufferAllocator<>("RENDER THREAD MAPPED", MappedTransferBuffer::new, ArrayDeque::new);
+	static final TrackedBufferAllocator<MappedTransferBuffer> RENDER_THREAD_ALLOCATOR = new TrackedBufferAllocator<>("RENDER THREAD MAPPED", MappedTransferBuffer::new, ArrayDeque::new);
 	static final TrackedBufferAllocator<MappedTransferBuffer> THREAD_SAFE_ALLOCATOR = new TrackedBufferAllocator<>("OFF THREAD MAPPED", b -> null, ConcurrentLinkedQueue::new);
 }
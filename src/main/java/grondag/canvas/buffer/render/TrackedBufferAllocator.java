@@ -24,19 +24,26 @@ import java.util.Queue;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
 
 import grondag.canvas.buffer.util.BinIndex;
+import grondag.canvas.buffer.util.DemandForecast;
 
 /**
  * Tracks allocation demand between updates. Meant for an off-thread allocator
  * that must replenish the queue on-thread. Release is not tracked because it
- * cannot normally occur for such an allocator.
+ * cannot normally occur for such an allocator. Also used for the render-thread
+ * pool so that buffers retained after a burst can be reclaimed.
+ *
+ * <p>Peak demand decays over time when unused - see {@link DemandForecast}.
+ * Pooled buffers beyond the forecast can be released with {@link #reclaimSurplus(ToIntFunction)}.
  */
 public class TrackedBufferAllocator<T extends AllocatableBuffer> extends BufferAllocator<T> {
 	private final AtomicInteger[] demandCounters = new AtomicInteger[BinIndex.BIN_COUNT];
 	private final int[] unmetDemandForecast = new int[BinIndex.BIN_COUNT];
-	private final int[] peakDemandForecast = new int[BinIndex.BIN_COUNT];
+	private final DemandForecast peakDemandForecast = new DemandForecast(BinIndex.BIN_COUNT);
 	private int totalPeakDemandBytes = 0;
+	private long totalReclaimedBytes = 0;
 
 	TrackedBufferAllocator(String traceName, Function<BinIndex, T> allocator, Supplier<Queue<T>> queueFactory) {
 		super(traceName, allocator, queueFactory);
@@ -55,21 +62,26 @@ public class TrackedBufferAllocator<T extends AllocatableBuffer> extends BufferA
 	public void forceReload() {
 		super.forceReload();
 		totalPeakDemandBytes = 0;
+		totalReclaimedBytes = 0;
+		peakDemandForecast.clear();
 
 		for (int i = 0; i < BinIndex.BIN_COUNT; ++i) {
 			demandCounters[i].set(0);
 			unmetDemandForecast[i] = 0;
-			peakDemandForecast[i] = 0;
 		}
 	}
 
-	public void forecastUnmetDemand() {
+	/**
+	 * Updates peak demand from claims since the last call.
+	 *
+	 * @param halfLifeSeconds time for unused peak demand to decay by half, zero to disable decay
+	 */
+	public void forecastUnmetDemand(int halfLifeSeconds) {
+		final float decay = peakDemandForecast.advance(System.nanoTime(), halfLifeSeconds);
 		int totalPeak = 0;
 
 		for (int i = 0; i < BinIndex.BIN_COUNT; ++i) {
-			// PERF: consider reducing peak demand over time if it isn't used
-			final int peak = Math.max(demandCounters[i].getAndSet(0), peakDemandForecast[i]);
-			peakDemandForecast[i] = peak;
+			final int peak = peakDemandForecast.update(i, demandCounters[i].getAndSet(0), decay);
 			totalPeak += peak * BinIndex.fromIndex(i).capacityBytes();
 			unmetDemandForecast[i] = Math.max(0, peak - BINS[i].size());
 		}
@@ -77,12 +89,42 @@ public class TrackedBufferAllocator<T extends AllocatableBuffer> extends BufferA
 		totalPeakDemandBytes = totalPeak;
 	}
 
-	/** Call AFTER {@link #forecastUnmetDemand()}. */
+	/** Call AFTER {@link #forecastUnmetDemand(int)}. */
 	public int unmetDemandForecast(BinIndex bin) {
 		return unmetDemandForecast[bin.binIndex()];
 	}
 
+	/** Call AFTER {@link #forecastUnmetDemand(int)}. */
+	public int peakDemandForecast(BinIndex bin) {
+		return peakDemandForecast.forecast(bin.binIndex());
+	}
+
+	/**
+	 * Releases pooled buffers in excess of forecast peak demand.
+	 * Call AFTER {@link #forecastUnmetDemand(int)}.
+	 *
+	 * @param extraRetained per-bin count retained in addition to forecast demand,
+	 * for pools that also replenish another allocator
+	 * @return bytes released
+	 */
+	public int reclaimSurplus(ToIntFunction<BinIndex> extraRetained) {
+		int result = 0;
+
+		for (int i = 0; i < BinIndex.BIN_COUNT; ++i) {
+			final BinIndex bin = BinIndex.fromIndex(i);
+			result += trim(bin, peakDemandForecast.forecast(i) + extraRetained.applyAsInt(bin)) * bin.capacityBytes();
+		}
+
+		totalReclaimedBytes += result;
+		return result;
+	}
+
 	public int totalPeakDemandBytes() {
 		return totalPeakDemandBytes;
 	}
+
+	/** Total bytes released by {@link #reclaimSurplus(ToIntFunction)} since last reload. */
+	public long totalReclaimedBytes() {
+		return totalReclaimedBytes;
+	}
 }
@@ -47,7 +47,7 @@ public class TransferBuffers {
 				assert RenderSystem.isOnRenderThread();
 
 				if (effectiveConfig == Config.MAPPED) {
-					MappedTransferBuffer.THREAD_SAFE_ALLOCATOR.forecastUnmetDemand();
+					MappedTransferBuffer.THREAD_SAFE_ALLOCATOR.forecastUnmetDemand(Configurator.transferBufferDemandHalfLife);
 
 					for (int i = 0; i < BinIndex.BIN_COUNT; ++i) {
 						final BinIndex bin = BinIndex.fromIndex(i);
@@ -61,6 +61,8 @@ public class TransferBuffers {
 							}
 						}
 					}
+
+					reclaimMapped(true);
 				}
 			}
 		},
@@ -74,6 +76,15 @@ public class TransferBuffers {
 					return OffHeapTransferBuffer.THREAD_SAFE_ALLOCATOR.claim(byteSize);
 				}
 			}
+
+			@Override
+			protected void update() {
+				assert RenderSystem.isOnRenderThread();
+
+				if (effectiveConfig == Config.HYBRID) {
+					reclaimMapped(false);
+				}
+			}
 		},
 
 		AUTO;
@@ -111,7 +122,33 @@ public class TransferBuffers {
 		OffHeapTransferBuffer.THREAD_SAFE_ALLOCATOR.forceReload();
 	}
 
+	/**
+	 * Releases pooled mapped buffers no longer needed to meet forecast demand.
+	 * The render thread pool also replenishes the off-thread pool when that is
+	 * in use, so it retains enough to cover both forecasts.
+	 */
+	private static void reclaimMapped(boolean includeOffThread) {
+		final TrackedBufferAllocator<MappedTransferBuffer> renderAllocator = MappedTransferBuffer.RENDER_THREAD_ALLOCATOR;
+		renderAllocator.forecastUnmetDemand(Configurator.transferBufferDemandHalfLife);
+
+		if (!Configurator.reclaimTransferBuffers) {
+			return;
+		}
+
+		if (includeOffThread) {
+			final TrackedBufferAllocator<MappedTransferBuffer> offThreadAllocator = MappedTransferBuffer.THREAD_SAFE_ALLOCATOR;
+			offThreadAllocator.reclaimSurplus(b -> 0);
+			renderAllocator.reclaimSurplus(offThreadAllocator::peakDemandForecast);
+		} else {
+			renderAllocator.reclaimSurplus(b -> 0);
+		}
+	}
+
 	public static String debugString() {
-		return String.format("Peak mapped xfer buffers:%5.1fMb", (double) MappedTransferBuffer.THREAD_SAFE_ALLOCATOR.totalPeakDemandBytes() / 0x100000);
+		final long reclaimed = MappedTransferBuffer.THREAD_SAFE_ALLOCATOR.totalReclaimedBytes() + MappedTransferBuffer.RENDER_THREAD_ALLOCATOR.totalReclaimedBytes();
+
+		return String.format("Peak mapped xfer buffers:%5.1fMb  Reclaimed:%6.1fMb",
+				(double) (MappedTransferBuffer.THREAD_SAFE_ALLOCATOR.totalPeakDemandBytes() + MappedTransferBuffer.RENDER_THREAD_ALLOCATOR.totalPeakDemandBytes()) / 0x100000,
+				(double) reclaimed / 0x100000);
 	}
 }
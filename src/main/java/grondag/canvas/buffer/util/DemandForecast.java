@@ -0,0 +1,82 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.buffer.util;
+
+import java.util.Arrays;
+
+/**
+ * Per-bin forecast of peak buffer demand that decays over time when it isn't used.
+ *
+ * <p>Each update the observed demand for a bin replaces the forecast if larger.
+ * Otherwise the forecast decays exponentially with the configured half-life, so
+ * a single burst (teleport, dimension change) no longer pins pooled buffers
+ * for the rest of the session.
+ *
+ * <p>Time is supplied by the caller, which keeps forecasting deterministic for tests.
+ */
+public class DemandForecast {
+	private final float[] peak;
+	private long lastUpdateNanos = Long.MIN_VALUE;
+
+	public DemandForecast(int binCount) {
+		peak = new float[binCount];
+	}
+
+	public void clear() {
+		Arrays.fill(peak, 0);
+		lastUpdateNanos = Long.MIN_VALUE;
+	}
+
+	/**
+	 * Computes the decay multiplier to apply for the elapsed time since last update.
+	 * Call once per update before {@link #update(int, int, float)}.
+	 *
+	 * @param halfLifeSeconds zero or less disables decay
+	 */
+	public float advance(long nanoTime, int halfLifeSeconds) {
+		final long last = lastUpdateNanos;
+		lastUpdateNanos = nanoTime;
+
+		if (halfLifeSeconds <= 0 || last == Long.MIN_VALUE || nanoTime <= last) {
+			return 1f;
+		}
+
+		final double elapsedSeconds = (nanoTime - last) / 1e9;
+		return (float) Math.pow(0.5, elapsedSeconds / halfLifeSeconds);
+	}
+
+	/**
+	 * Folds observed demand into the forecast for one bin.
+	 *
+	 * @return forecast peak demand, rounded up
+	 */
+	public int update(int binIndex, int observedDemand, float decay) {
+		final float result = Math.max(observedDemand, peak[binIndex] * decay);
+		peak[binIndex] = result;
+		return forecast(binIndex);
+	}
+
+	/** Forecast peak demand for the bin, rounded up. */
+	public int forecast(int binIndex) {
+		// small epsilon so that float error doesn't retain a buffer indefinitely
+		return (int) Math.ceil(peak[binIndex] - 0.001f);
+	}
+}
@@ -21,6 +21,7 @@
 package grondag.canvas.buffer.util;
 
 import java.nio.IntBuffer;
+import java.util.Arrays;
 
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import org.jetbrains.annotations.Nullable;
@@ -29,8 +30,11 @@ import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.VertexFormat.Mode;
 
 import grondag.canvas.buffer.format.CanvasVertexFormats;
+import grondag.canvas.buffer.input.ArrayVertexCollector;
+import grondag.canvas.buffer.input.CascadeQuadSorter;
 import grondag.canvas.buffer.input.DrawableVertexCollector;
 import grondag.canvas.buffer.input.FaceBucket;
+import grondag.canvas.buffer.input.ShadowVertexCollector;
 import grondag.canvas.buffer.render.StreamBuffer;
 import grondag.canvas.material.state.RenderState;
 import grondag.canvas.varia.GFX;
@@ -40,9 +44,23 @@ public class DrawableStream implements AutoCloseable {
 	private final int limit;
 	private final FaceBucket[] buckets;
 	private final RenderState[] states;
+	private final int cascadeCount;
+
+	/** Vertices to draw for each collector and shadow cascade. Null if not sorted by cascade. */
+	@Nullable private final int[] cascadeVertexCounts;
 
 	public DrawableStream(ObjectArrayList<? extends DrawableVertexCollector> drawList) {
+		this(drawList, null, 0);
+	}
+
+	/**
+	 * @param cascadeSorter if non-null, quads in each unsorted collector are grouped by shadow
+	 * cascade so that {@link #drawShadow(int)} can skip quads outside the cascade
+	 */
+	public DrawableStream(ObjectArrayList<? extends DrawableVertexCollector> drawList, @Nullable CascadeQuadSorter cascadeSorter, int cascadeCount) {
 		limit = drawList.size();
+		this.cascadeCount = cascadeCount;
+		cascadeVertexCounts = cascadeSorter == null ? null : new int[limit * cascadeCount];
 
 		int bytes = 0;
 
@@ -50,6 +68,10 @@ public class DrawableStream implements AutoCloseable {
 			final DrawableVertexCollector collector = drawList.get(i);
 			collector.sortIfNeeded();
 			bytes += collector.byteSize();
+
+			if (cascadeSorter != null) {
+				sortByShadowCascade(collector, cascadeSorter, cascadeVertexCounts, i * cascadeCount, cascadeCount);
+			}
 		}
 
 		buffer = StreamBuffer.claim(bytes, CanvasVertexFormats.STANDARD_MATERIAL_FORMAT);
@@ -73,11 +95,33 @@ public class DrawableStream implements AutoCloseable {
 		buffer.upload();
 	}
 
+	/**
+	 * Groups the shadow-casting quads of the collector by cascade and writes the number of
+	 * leading vertices to draw for each cascade. Collectors that can't be reordered draw
+	 * all their vertices in every cascade.
+	 */
+	static void sortByShadowCascade(DrawableVertexCollector collector, CascadeQuadSorter sorter, int[] vertexCountsOut, int outOffset, int cascadeCount) {
+		if (!collector.sorted()) {
+			// With shadows enabled, unsorted immediate collectors are shadow collectors
+			if (collector instanceof final ShadowVertexCollector shadowCollector) {
+				shadowCollector.sortByShadowCascade(sorter, vertexCountsOut, outOffset);
+				return;
+			} else if (collector instanceof final ArrayVertexCollector arrayCollector) {
+				arrayCollector.sortByShadowCascade(sorter, vertexCountsOut, outOffset);
+				return;
+			}
+		}
+
+		Arrays.fill(vertexCountsOut, outOffset, outOffset + cascadeCount, collector.vertexCount());
+	}
+
 	private DrawableStream() {
 		buffer = null;
 		limit = 0;
 		buckets = null;
 		states = null;
+		cascadeCount = 0;
+		cascadeVertexCounts = null;
 	}
 
 	public void draw(boolean isShadow) {
@@ -85,18 +129,36 @@ public class DrawableStream implements AutoCloseable {
 			buffer.bind();
 
 			for (int i = 0; i < limit; ++i) {
-				final RenderState state = states[i];
 				final FaceBucket bucket = buckets[i];
-
 				final int startIndex = isShadow ? bucket.shadowVertexIndex() : bucket.colorVertexIndex();
 				final int vertexCount = isShadow ? bucket.shadowVertexCount() : bucket.colorVertexCount();
+				drawRange(states[i], startIndex, vertexCount);
+			}
 
-				state.enable();
-				final int elementCount = vertexCount / 4 * 6;
-				final RenderSystem.AutoStorageIndexBuffer indexBuffer = RenderSystem.getSequentialBuffer(Mode.QUADS);
-				indexBuffer.bind(elementCount); // can cause runtime exception?
-				final int elementType = indexBuffer.type().asGLType;
-				GFX.drawElementsBaseVertex(Mode.QUADS.asGLMode, elementCount, elementType, 0L, startIndex);
+			RenderState.disable();
+			GFX.bindVertexArray(0);
+		}
+	}
+
+	/**
+	 * Draws for the given shadow cascade. Only quads that can fall within the cascade
+	 * are drawn if this stream was sorted by cascade, otherwise same as {@code draw(true)}.
+	 */
+	public void drawShadow(int cascade) {
+		final int[] cascadeVertexCounts = this.cascadeVertexCounts;
+
+		if (cascadeVertexCounts == null) {
+			draw(true);
+		} else if (buffer != null) {
+			buffer.bind();
+
+			for (int i = 0; i < limit; ++i) {
+				final FaceBucket bucket = buckets[i];
+				final int vertexCount = Math.min(bucket.shadowVertexCount(), cascadeVertexCounts[i * cascadeCount + cascade]);
+
+				if (vertexCount > 0) {
+					drawRange(states[i], bucket.shadowVertexIndex(), vertexCount);
+				}
 			}
 
 			RenderState.disable();
@@ -104,6 +166,15 @@ public class DrawableStream implements AutoCloseable {
 		}
 	}
 
+	private static void drawRange(RenderState state, int startIndex, int vertexCount) {
+		state.enable();
+		final int elementCount = vertexCount / 4 * 6;
+		final RenderSystem.AutoStorageIndexBuffer indexBuffer = RenderSystem.getSequentialBuffer(Mode.QUADS);
+		indexBuffer.bind(elementCount); // can cause runtime exception?
+		final int elementType = indexBuffer.type().asGLType;
+		GFX.drawElementsBaseVertex(Mode.QUADS.asGLMode, elementCount, elementType, 0L, startIndex);
+	}
+
 	@Override
 	public void close() {
 		if (buffer != null) {
@@ -220,6 +220,28 @@ public class CanvasConfigScreen extends BaseScreen {
 				DEFAULTS.dynamicFrustumPadding,
 				"config.canvas.help.dynamic_frustum_padding").listItem());
 
+		list.addItem(optionSession.intOption("config.canvas.value.lod_chunk_distance",
+				0,
+				64,
+				1,
+				() -> editing.lodChunkDistance,
+				i -> {
+					reload |= Configurator.lodChunkDistance != i;
+					editing.lodChunkDistance = i;
+				},
+				DEFAULTS.lodChunkDistance,
+				"config.canvas.help.lod_chunk_distance").listItem());
+
+		list.addItem(optionSession.booleanOption("config.canvas.value.compact_terrain_vertices",
+				() -> editing.compactTerrainVertices,
+				b -> {
+					requiresRestart |= Configurator.compactTerrainVertices.get() != b;
+					editing.compactTerrainVertices = b;
+				},
+				Configurator.compactTerrainVertices,
+				DEFAULTS.compactTerrainVertices,
+				"config.canvas.help.compact_terrain_vertices").listItem());
+
 		list.addItem(optionSession.booleanOption("config.canvas.value.cull_particles",
 				() -> editing.cullParticles,
 				b -> editing.cullParticles = b,
@@ -252,6 +274,21 @@ public class CanvasConfigScreen extends BaseScreen {
 				TransferBuffers.Config.class,
 				"config.canvas.help.transfer_buffer_mode").listItem());
 
+		list.addItem(optionSession.intOption("config.canvas.value.transfer_buffer_demand_half_life",
+				0,
+				600,
+				1,
+				() -> editing.transferBufferDemandHalfLife,
+				i -> editing.transferBufferDemandHalfLife = i,
+				DEFAULTS.transferBufferDemandHalfLife,
+				"config.canvas.help.transfer_buffer_demand_half_life").listItem());
+
+		list.addItem(optionSession.booleanOption("config.canvas.value.reclaim_transfer_buffers",
+				() -> editing.reclaimTransferBuffers,
+				b -> editing.reclaimTransferBuffers = b,
+				DEFAULTS.reclaimTransferBuffers,
+				"config.canvas.help.reclaim_transfer_buffers").listItem());
+
 		list.addItem(optionSession.booleanOption("config.canvas.value.steady_debug_screen",
 				() -> editing.steadyDebugScreen,
 				b -> editing.steadyDebugScreen = b,
@@ -317,6 +354,15 @@ public class CanvasConfigScreen extends BaseScreen {
 				DEFAULTS.shadowCenterFactor,
 				"config.canvas.help.shadow_center_factor").listItem());
 
+		list.addItem(optionSession.intOption("config.canvas.value.shadow_cascade_refresh_interval",
+				1,
+				8,
+				1,
+				() -> editing.shadowCascadeRefreshInterval,
+				i -> editing.shadowCascadeRefreshInterval = i,
+				DEFAULTS.shadowCascadeRefreshInterval,
+				"config.canvas.help.shadow_cascade_refresh_interval").listItem());
+
 		list.addItem(optionSession.booleanOption("config.canvas.value.disable_shadow_self_occlusion",
 				() -> editing.disableShadowSelfOcclusion,
 				b -> editing.disableShadowSelfOcclusion = b,
@@ -79,6 +79,10 @@ class ConfigData {
 	int staticFrustumPadding = 10;
 	@Comment("Extra padding at edges of screen to reduce missing chunks when view rotates and terrainSetupOffThread is on. In degrees. Values 0 to 30. Zero disables.")
 	int dynamicFrustumPadding = 20;
+	@Comment("Regions farther than this many chunks from the camera are built as simplified meshes without model detail. Values 0 to 64. Zero disables.")
+	int lodChunkDistance = 0;
+	@Comment("Use a smaller terrain vertex format. Tangents are reconstructed from the normal and AO has less precision. Requires restart.")
+	boolean compactTerrainVertices = false;
 	@Comment("Culls particles that are not in view. Should always be faster.")
 	boolean cullParticles = true;
 	@Comment("Use Canvas thread pool for rendering and local server tasks. May reduce lag spikes caused by thread contention.")
@@ -91,6 +95,8 @@ class ConfigData {
 	SkyShadowRenderer.Culling shadowFaceCulling = SkyShadowRenderer.Culling.BACK;
 	@Comment("Interpolate shadow map center to the approximated camera frustum centroid. Increases precision but may cause clipping.")
 	float shadowCenterFactor = 1.0f;
+	@Comment("Frames between updates of the far shadow cascades, which are updated round-robin. The nearest cascade is always updated. 1 updates all cascades every frame. 1-8")
+	int shadowCascadeRefreshInterval = 1;
 	@Comment("Only use target occluder for shadow culling. WIP, temporary workaround for gaps in shadow map.")
 	boolean disableShadowSelfOcclusion = false;
 	@Comment("When enabled, F3 debug screen output is refreshed 20X per second instead of every frame. Improves accuracy and reduces variability of FPS measurement.")
@@ -103,6 +109,10 @@ class ConfigData {
 	boolean enableNearOccluders = false;
 	@Comment("Method used to transfer data to GPU. AUTO is recommended but performance can be specific to your system. Other options are DIRECT, HYBRID, and MAPPED")
 	public TransferBuffers.Config transferBufferMode = TransferBuffers.Config.AUTO;
+	@Comment("Seconds for unused peak transfer buffer demand to decay by half. Zero disables decay. 0-600")
+	int transferBufferDemandHalfLife = 30;
+	@Comment("When true, pooled transfer buffers beyond forecast demand are released. Reduces memory held after bursts of terrain building.")
+	boolean reclaimTransferBuffers = true;
 	@Comment("Uses slower and safer memory allocation method for GL buffers.  Use only if having problems. Requires restart.")
 	boolean safeNativeMemoryAllocation = false;
 
@@ -123,6 +133,8 @@ class ConfigData {
 	boolean debugNativeMemoryAllocation = false;
 	@Comment("Output performance trace data to log. Will have significant performance impact. Requires restart.")
 	boolean enablePerformanceTrace = false;
+	@Comment("Collect terrain pipeline latency histograms and JFR events. Rebuild latency is shown on the debug screen. Export with the metrics key binding. Small performance impact. Requires restart.")
+	boolean enableTerrainMetrics = false;
 	@Comment("Output periodic snapshots of terrain occlusion raster. Will have performance impact.")
 	boolean debugOcclusionRaster = false;
 	@Comment("Render active occlusion boxes of targeted render region. Will have performance impact and looks strange.")
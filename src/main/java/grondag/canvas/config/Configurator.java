@@ -52,6 +52,8 @@ public class Configurator {
 	public static StartupFinalBoolean reduceResolutionOnMac = new StartupFinalBoolean(DEFAULTS.reduceResolutionOnMac);
 	public static int staticFrustumPadding = DEFAULTS.staticFrustumPadding;
 	public static int dynamicFrustumPadding = DEFAULTS.dynamicFrustumPadding;
+	public static int lodChunkDistance = DEFAULTS.lodChunkDistance;
+	public static StartupFinalBoolean compactTerrainVertices = new StartupFinalBoolean(DEFAULTS.compactTerrainVertices);
 	public static boolean cullParticles = DEFAULTS.cullParticles;
 	public static StartupFinalBoolean useCombinedThreadPool = new StartupFinalBoolean(DEFAULTS.useCombinedThreadPool);
 	public static boolean shaderDebug = DEFAULTS.shaderDebug;
@@ -66,6 +68,8 @@ public class Configurator {
 	// NB: Cascade sometimes fail with fully centered shadow because of depth clipping, despite the next cascade seemingly
 	//     having the shadow information. This is possibly fixable by improving the cascade picker during sampling.
 	public static float shadowCenterFactor = DEFAULTS.shadowCenterFactor;
+	// Frames between updates of each far cascade, staggered so cascades don't all refresh on the same frame
+	public static int shadowCascadeRefreshInterval = DEFAULTS.shadowCascadeRefreshInterval;
 	// WIP: Temporary workaround, remove soon
 	public static boolean disableShadowSelfOcclusion = DEFAULTS.disableShadowSelfOcclusion;
 	public static boolean conciseErrors = DEFAULTS.conciseErrors;
@@ -74,6 +78,7 @@ public class Configurator {
 	public static StartupFinalBoolean debugNativeMemoryAllocation = new StartupFinalBoolean(DEFAULTS.debugNativeMemoryAllocation);
 	public static StartupFinalBoolean safeNativeMemoryAllocation = new StartupFinalBoolean(DEFAULTS.safeNativeMemoryAllocation);
 	public static boolean enablePerformanceTrace = DEFAULTS.enablePerformanceTrace;
+	public static boolean enableTerrainMetrics = DEFAULTS.enableTerrainMetrics;
 	public static boolean debugOcclusionRaster = DEFAULTS.debugOcclusionRaster;
 	public static boolean debugOcclusionBoxes = DEFAULTS.debugOcclusionBoxes;
 	public static boolean renderWhiteGlassAsOccluder = DEFAULTS.renderWhiteGlassAsOccluder;
@@ -90,6 +95,8 @@ public class Configurator {
 	public static float profilerOverlayScale = DEFAULTS.profilerOverlayScale;
 	public static boolean enableNearOccluders = DEFAULTS.enableNearOccluders;
 	public static TransferBuffers.Config transferBufferMode = DEFAULTS.transferBufferMode;
+	public static int transferBufferDemandHalfLife = DEFAULTS.transferBufferDemandHalfLife;
+	public static boolean reclaimTransferBuffers = DEFAULTS.reclaimTransferBuffers;
 	public static boolean steadyDebugScreen = DEFAULTS.steadyDebugScreen;
 	public static boolean disableUnseenSpriteAnimation = DEFAULTS.disableUnseenSpriteAnimation;
 	public static boolean cullBackfacingTerrain = DEFAULTS.cullBackfacingTerrain;
@@ -150,9 +157,13 @@ public class Configurator {
 		reduceResolutionOnMac.set(config.reduceResolutionOnMac, isStartup);
 		dynamicFrustumPadding = Mth.clamp(config.dynamicFrustumPadding, 0, 30);
 		staticFrustumPadding = Mth.clamp(config.staticFrustumPadding, 0, 20);
+		lodChunkDistance = Mth.clamp(config.lodChunkDistance, 0, 64);
+		compactTerrainVertices.set(config.compactTerrainVertices, isStartup);
 		cullParticles = config.cullParticles;
 		useCombinedThreadPool.set(config.useCombinedThreadPool, isStartup);
 		transferBufferMode = config.transferBufferMode;
+		transferBufferDemandHalfLife = Mth.clamp(config.transferBufferDemandHalfLife, 0, 600);
+		reclaimTransferBuffers = config.reclaimTransferBuffers;
 		steadyDebugScreen = config.steadyDebugScreen;
 
 		// lightmapDebug = config.lightmapDebug;
@@ -160,12 +171,14 @@ public class Configurator {
 		shadowMaxDistance = config.shadowMaxDistance;
 		shadowFaceCulling = config.shadowFaceCulling;
 		shadowCenterFactor = config.shadowCenterFactor;
+		shadowCascadeRefreshInterval = Mth.clamp(config.shadowCascadeRefreshInterval, 1, 8);
 		disableShadowSelfOcclusion = config.disableShadowSelfOcclusion;
 		conciseErrors = config.conciseErrors;
 		logMachineInfo = config.logMachineInfo;
 		logGlStateChanges = config.logGlStateChanges;
 		debugNativeMemoryAllocation.set(config.debugNativeMemoryAllocation, isStartup);
 		enablePerformanceTrace = config.enablePerformanceTrace;
+		enableTerrainMetrics = config.enableTerrainMetrics;
 		debugOcclusionBoxes = config.debugOcclusionBoxes;
 		debugOcclusionRaster = config.debugOcclusionRaster;
 		renderWhiteGlassAsOccluder = config.renderWhiteGlassAsOccluder;
@@ -215,9 +228,13 @@ public class Configurator {
 		config.reduceResolutionOnMac = reduceResolutionOnMac.current;
 		config.staticFrustumPadding = staticFrustumPadding;
 		config.dynamicFrustumPadding = dynamicFrustumPadding;
+		config.lodChunkDistance = lodChunkDistance;
+		config.compactTerrainVertices = compactTerrainVertices.current;
 		config.cullParticles = cullParticles;
 		config.useCombinedThreadPool = useCombinedThreadPool.current;
 		config.transferBufferMode = transferBufferMode;
+		config.transferBufferDemandHalfLife = transferBufferDemandHalfLife;
+		config.reclaimTransferBuffers = reclaimTransferBuffers;
 		config.steadyDebugScreen = steadyDebugScreen;
 
 		// config.lightmapDebug = lightmapDebug;
@@ -225,12 +242,14 @@ public class Configurator {
 		config.shadowMaxDistance = shadowMaxDistance;
 		config.shadowFaceCulling = shadowFaceCulling;
 		config.shadowCenterFactor = shadowCenterFactor;
+		config.shadowCascadeRefreshInterval = shadowCascadeRefreshInterval;
 		config.disableShadowSelfOcclusion = disableShadowSelfOcclusion;
 		config.conciseErrors = conciseErrors;
 		config.logMachineInfo = logMachineInfo;
 		config.logGlStateChanges = logGlStateChanges;
 		config.debugNativeMemoryAllocation = debugNativeMemoryAllocation.current;
 		config.enablePerformanceTrace = enablePerformanceTrace;
+		config.enableTerrainMetrics = enableTerrainMetrics;
 		config.debugOcclusionBoxes = debugOcclusionBoxes;
 		config.debugOcclusionRaster = debugOcclusionRaster;
 		config.renderWhiteGlassAsOccluder = renderWhiteGlassAsOccluder;
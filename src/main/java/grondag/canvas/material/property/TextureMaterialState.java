@@ -169,7 +169,9 @@ public class TextureMaterialState {
 
 	private static int nextIndex = 1;
 	private static final TextureMaterialState[] STATES = new TextureMaterialState[MaterialConstants.MAX_TEXTURE_STATES];
-	private static final Object2ObjectOpenHashMap<ResourceLocation, TextureMaterialState> MAP = new Object2ObjectOpenHashMap<>(256, Hash.VERY_FAST_LOAD_FACTOR);
+
+	/** Copy-on-write: never modified after publication so that lookups need no lock. */
+	private static volatile Object2ObjectOpenHashMap<ResourceLocation, TextureMaterialState> MAP = new Object2ObjectOpenHashMap<>(256, Hash.VERY_FAST_LOAD_FACTOR);
 
 	public static final TextureMaterialState NO_TEXTURE = new TextureMaterialState(0, TextureManager.INTENTIONAL_MISSING_TEXTURE) {
 		@Override
@@ -203,8 +205,12 @@ public class TextureMaterialState {
 
 	private static boolean shouldWarn = true;
 
-	// PERF: use cow or other method to avoid synch
-	public static synchronized TextureMaterialState fromId(ResourceLocation id) {
+	public static TextureMaterialState fromId(ResourceLocation id) {
+		final TextureMaterialState state = MAP.get(id);
+		return state == NO_TEXTURE ? add(id) : state;
+	}
+
+	private static synchronized TextureMaterialState add(ResourceLocation id) {
 		TextureMaterialState state = MAP.get(id);
 
 		if (state == NO_TEXTURE) {
@@ -225,8 +231,12 @@ public class TextureMaterialState {
 
 			final int index = nextIndex++;
 			state = new TextureMaterialState(index, id);
-			MAP.put(id, state);
 			STATES[index] = state;
+
+			final Object2ObjectOpenHashMap<ResourceLocation, TextureMaterialState> newMap = new Object2ObjectOpenHashMap<>(MAP, Hash.VERY_FAST_LOAD_FACTOR);
+			newMap.defaultReturnValue(NO_TEXTURE);
+			newMap.put(id, state);
+			MAP = newMap;
 		}
 
 		return state;
@@ -20,9 +20,9 @@
 
 package grondag.canvas.material.state;
 
-import it.unimi.dsi.fastutil.Hash;
-import it.unimi.dsi.fastutil.longs.Long2IntFunction;
-import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import java.util.function.LongFunction;
+
+import grondag.canvas.varia.CopyOnWriteLong2ObjectMap;
 
 public class CollectorIndexMap {
 	public static final int MAX_COLLECTOR_COUNT = 4096;
@@ -30,16 +30,19 @@ public class CollectorIndexMap {
 
 	private static final long[] KEYS_BY_INDEX = new long[MAX_COLLECTOR_COUNT];
 	private static final RenderState[] RENDER_STATES = new RenderState[MAX_COLLECTOR_COUNT];
-	static final Long2IntOpenHashMap MAP = new Long2IntOpenHashMap(256, Hash.VERY_FAST_LOAD_FACTOR);
 
-	private static final Long2IntFunction FUNC = key -> {
+	// Read on every terrain worker without locking. Index arrays above are
+	// written before the new entry is published so readers always see them.
+	static final CopyOnWriteLong2ObjectMap<Integer> MAP = new CopyOnWriteLong2ObjectMap<>(256);
+
+	private static final LongFunction<Integer> FUNC = key -> {
 		final int result = nextIndex++;
 		RENDER_STATES[result] = RenderState.fromBits(key);
 		KEYS_BY_INDEX[result] = key;
 		return result;
 	};
 
-	public static synchronized int indexFromKey(long collectorKey) {
+	public static int indexFromKey(long collectorKey) {
 		return MAP.computeIfAbsent(collectorKey, FUNC);
 	}
 
@@ -30,9 +30,9 @@ import static grondag.canvas.material.state.MaterialStateEncoder.R_TEXTURE;
 import static grondag.canvas.material.state.MaterialStateEncoder.R_TRANSPARENCY;
 import static grondag.canvas.material.state.MaterialStateEncoder.R_WRITE_MASK;
 
+import java.util.function.LongFunction;
+
 import com.google.common.base.Strings;
-import it.unimi.dsi.fastutil.Hash;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 
 import com.mojang.blaze3d.systems.RenderSystem;
 
@@ -60,6 +60,7 @@ import grondag.canvas.shader.ProgramType;
 import grondag.canvas.shader.data.MatrixState;
 import grondag.canvas.texture.MaterialIndexTexture;
 import grondag.canvas.texture.TextureData;
+import grondag.canvas.varia.CopyOnWriteLong2ObjectMap;
 import grondag.canvas.varia.GFX;
 
 /**
@@ -341,7 +342,7 @@ public final class RenderState {
 	public static final int MAX_COUNT = 4096;
 	static int nextIndex = 0;
 	static final RenderState[] STATES = new RenderState[MAX_COUNT];
-	static final Long2ObjectOpenHashMap<RenderState> MAP = new Long2ObjectOpenHashMap<>(4096, Hash.VERY_FAST_LOAD_FACTOR);
+	static final CopyOnWriteLong2ObjectMap<RenderState> MAP = new CopyOnWriteLong2ObjectMap<>(256);
 
 	private static RenderState active = null;
 	private static RenderState shadowActive = null;
@@ -367,18 +368,14 @@ public final class RenderState {
 		return STATES[index];
 	}
 
-	public static synchronized RenderState fromBits(long bits) {
-		bits &= MaterialStateEncoder.RENDER_STATE_MASK;
-
-		RenderState result = RenderState.MAP.get(bits);
-
-		if (result == null) {
-			result = new RenderState(bits);
-			RenderState.MAP.put(bits, result);
-			RenderState.STATES[result.index] = result;
-		}
-
+	private static final LongFunction<RenderState> FACTORY = bits -> {
+		final RenderState result = new RenderState(bits);
+		STATES[result.index] = result;
 		return result;
+	};
+
+	public static RenderState fromBits(long bits) {
+		return MAP.computeIfAbsent(bits & MaterialStateEncoder.RENDER_STATE_MASK, FACTORY);
 	}
 
 	//	public static boolean enablePrint = false;
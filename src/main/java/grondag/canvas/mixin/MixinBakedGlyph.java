@@ -34,6 +34,8 @@ import net.minecraft.client.gui.font.glyphs.BakedGlyph;
 
 import io.vram.frex.api.math.FastMatrix4f;
 
+import grondag.canvas.buffer.input.GlyphBatch;
+import grondag.canvas.mixinterface.BakedGlyphEffectExt;
 import grondag.canvas.mixinterface.BufferBuilderExt;
 
 @Mixin(BakedGlyph.class)
@@ -51,8 +53,6 @@ public abstract class MixinBakedGlyph {
 	// NB: size in bytes is size of integer array for whole quad
 	private static final int[] quadData = new int[DefaultVertexFormat.POSITION_COLOR_TEX_LIGHTMAP.getVertexSize()];
 
-	// PERF: consider handling drawRectangle also
-
 	/**
 	 * @author grondag
 	 * @reason performance; calls are too frequent and parameter stack too large for inject to perform well
@@ -68,7 +68,14 @@ public abstract class MixinBakedGlyph {
 		final float obqTop = oblique ? 1.0F - 0.25F * y0 : 0.0F;
 		final float obqBotom = oblique ? 1.0F - 0.25F * y1 : 0.0F;
 
-		if (vertexConsumer instanceof final BufferBuilderExt extBuilder
+		if (GlyphBatch.accept(vertexConsumer)) {
+			final FastMatrix4f matrix = FastMatrix4f.cast(matrix4f);
+			final int color = GlyphBatch.color(red, green, blue, alpha);
+			GlyphBatch.vertex(matrix, x0 + obqTop, top, 0.0F, color, u0, v0, lightmap);
+			GlyphBatch.vertex(matrix, x0 + obqBotom, bottom, 0.0F, color, u0, v1, lightmap);
+			GlyphBatch.vertex(matrix, x1 + obqBotom, bottom, 0.0F, color, u1, v1, lightmap);
+			GlyphBatch.vertex(matrix, x1 + obqTop, top, 0.0F, color, u1, v0, lightmap);
+		} else if (vertexConsumer instanceof final BufferBuilderExt extBuilder
 				&& extBuilder.canvas_canSupportDirect(DefaultVertexFormat.POSITION_COLOR_TEX_LIGHTMAP)
 				&& RenderSystem.isOnRenderThread() // This last is because we are using static vars
 		) {
@@ -125,4 +132,36 @@ public abstract class MixinBakedGlyph {
 			vertexConsumer.vertex(matrix4f, x1 + obqTop, top, 0.0F).color(red, green, blue, alpha).uv(u1, v0).uv2(lightmap).endVertex();
 		}
 	}
+
+	/**
+	 * @author grondag
+	 * @reason performance; background and underline rectangles are batched with glyphs
+	 */
+	@Overwrite
+	public void renderEffect(BakedGlyph.Effect effect, Matrix4f matrix4f, VertexConsumer vertexConsumer, int lightmap) {
+		final BakedGlyphEffectExt ext = (BakedGlyphEffectExt) effect;
+		final float x0 = ext.canvas_x0();
+		final float y0 = ext.canvas_y0();
+		final float x1 = ext.canvas_x1();
+		final float y1 = ext.canvas_y1();
+		final float depth = ext.canvas_depth();
+		final float red = ext.canvas_red();
+		final float green = ext.canvas_green();
+		final float blue = ext.canvas_blue();
+		final float alpha = ext.canvas_alpha();
+
+		if (GlyphBatch.accept(vertexConsumer)) {
+			final FastMatrix4f matrix = FastMatrix4f.cast(matrix4f);
+			final int color = GlyphBatch.color(red, green, blue, alpha);
+			GlyphBatch.vertex(matrix, x0, y0, depth, color, u0, v0, lightmap);
+			GlyphBatch.vertex(matrix, x1, y0, depth, color, u0, v1, lightmap);
+			GlyphBatch.vertex(matrix, x1, y1, depth, color, u1, v1, lightmap);
+			GlyphBatch.vertex(matrix, x0, y1, depth, color, u1, v0, lightmap);
+		} else {
+			vertexConsumer.vertex(matrix4f, x0, y0, depth).color(red, green, blue, alpha).uv(u0, v0).uv2(lightmap).endVertex();
+			vertexConsumer.vertex(matrix4f, x1, y0, depth).color(red, green, blue, alpha).uv(u0, v1).uv2(lightmap).endVertex();
+			vertexConsumer.vertex(matrix4f, x1, y1, depth).color(red, green, blue, alpha).uv(u1, v1).uv2(lightmap).endVertex();
+			vertexConsumer.vertex(matrix4f, x0, y1, depth).color(red, green, blue, alpha).uv(u1, v0).uv2(lightmap).endVertex();
+		}
+	}
 }
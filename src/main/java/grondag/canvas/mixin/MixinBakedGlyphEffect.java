@@ -0,0 +1,87 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.mixin;
+
+import org.spongepowered.asm.mixin.Final;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Shadow;
+
+import net.minecraft.client.gui.font.glyphs.BakedGlyph;
+
+import grondag.canvas.mixinterface.BakedGlyphEffectExt;
+
+@Mixin(BakedGlyph.Effect.class)
+public class MixinBakedGlyphEffect implements BakedGlyphEffectExt {
+	@Shadow @Final protected float x0;
+	@Shadow @Final protected float y0;
+	@Shadow @Final protected float x1;
+	@Shadow @Final protected float y1;
+	@Shadow @Final protected float depth;
+	@Shadow @Final protected float r;
+	@Shadow @Final protected float g;
+	@Shadow @Final protected float b;
+	@Shadow @Final protected float a;
+
+	@Override
+	public float canvas_x0() {
+		return x0;
+	}
+
+	@Override
+	public float canvas_y0() {
+		return y0;
+	}
+
+	@Override
+	public float canvas_x1() {
+		return x1;
+	}
+
+	@Override
+	public float canvas_y1() {
+		return y1;
+	}
+
+	@Override
+	public float canvas_depth() {
+		return depth;
+	}
+
+	@Override
+	public float canvas_red() {
+		return r;
+	}
+
+	@Override
+	public float canvas_green() {
+		return g;
+	}
+
+	@Override
+	public float canvas_blue() {
+		return b;
+	}
+
+	@Override
+	public float canvas_alpha() {
+		return a;
+	}
+}
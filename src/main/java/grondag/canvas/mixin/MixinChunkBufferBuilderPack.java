@@ -0,0 +1,60 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.mixin;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Redirect;
+
+import com.mojang.blaze3d.vertex.BufferBuilder;
+
+import net.minecraft.client.renderer.ChunkBufferBuilderPack;
+import net.minecraft.client.renderer.RenderType;
+
+import grondag.canvas.CanvasMod;
+import grondag.canvas.config.Configurator;
+
+/**
+ * Vanilla sizes chunk layer buffers for chunk compilation, which Canvas never does.
+ * The only remaining pack is the fixed pack in RenderBuffers, whose builders are
+ * shared with a few block sheet render types and so can still see occasional use.
+ * They start small instead and grow on first real use.
+ */
+@Mixin(ChunkBufferBuilderPack.class)
+public abstract class MixinChunkBufferBuilderPack {
+	private static final int INITIAL_BUFFER_SIZE = 256;
+
+	@Redirect(method = "<init>", require = 1, at = @At(value = "INVOKE", target = "Ljava/util/stream/Stream;collect(Ljava/util/stream/Collector;)Ljava/lang/Object;", remap = false))
+	private Object onCollectBuilders(Stream<RenderType> renderTypes, Collector<RenderType, ?, ?> ignored) {
+		if (Configurator.enableLifeCycleDebug) {
+			CanvasMod.LOG.info("Lifecycle Event: ChunkBufferBuilderPack init (minimal buffer size)");
+		}
+
+		final Map<RenderType, BufferBuilder> result = renderTypes.collect(Collectors.toMap(Function.identity(), t -> new BufferBuilder(INITIAL_BUFFER_SIZE)));
+		return result;
+	}
+}
@@ -51,6 +51,8 @@ import grondag.canvas.buffer.input.ArrayVertexCollector;
 import grondag.canvas.buffer.render.TransferBuffers;
 import grondag.canvas.buffer.util.DirectBufferAllocator;
 import grondag.canvas.buffer.util.GlBufferAllocator;
+import grondag.canvas.perf.RegionLatency;
+import grondag.canvas.perf.TerrainMetrics;
 import grondag.canvas.render.terrain.cluster.SlabAllocator;
 import grondag.canvas.render.world.CanvasWorldRenderer;
 import grondag.canvas.terrain.util.TerrainExecutor;
@@ -219,6 +221,10 @@ public class MixinDebugScreenOverlay extends GuiComponent {
 		result.add(worldRenderState.drawlistDebugSummary());
 		result.add(SlabAllocator.debugSummary());
 
+		if (TerrainMetrics.ENABLED) {
+			RegionLatency.debugReport(result);
+		}
+
 		return result;
 	}
 }
@@ -35,7 +35,7 @@ import grondag.canvas.terrain.util.ChunkColorCache;
 public class MixinLevelChunk implements LevelChunkExt {
 	@Shadow private Level level;
 
-	private @Nullable ChunkColorCache colorCache;
+	private volatile @Nullable ChunkColorCache colorCache;
 
 	@Override
 	public ChunkColorCache canvas_colorCache() {
@@ -70,7 +70,7 @@ public class MixinLevelRenderer implements LevelRendererExt {
 	@Shadow private ClientLevel level;
 	@Shadow private boolean generateClouds;
 	@Shadow private EntityRenderDispatcher entityRenderDispatcher;
-	// PERF: prevent wasteful allocation of these - they are not all used with Canvas and take a lot of space
+	// chunk layer buffers in the fixed pack start small - see MixinChunkBufferBuilderPack
 	@Shadow private RenderBuffers renderBuffers;
 	@Shadow private int renderedEntities;
 	@Shadow private int culledEntities;
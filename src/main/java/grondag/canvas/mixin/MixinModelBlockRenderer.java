@@ -45,7 +45,6 @@ public abstract class MixinModelBlockRenderer {
 	 */
 	@Overwrite
 	public void tesselateBlock(BlockAndTintGetter blockView, BakedModel model, BlockState state, BlockPos pos, PoseStack poseStack, VertexConsumer buffer, boolean checkSides, RandomSource randomSource, long seed, int overlay) {
-		// PERF: try to avoid threadlocal lookup here
 		CanvasBlockRenderContext.get().render((ModelBlockRenderer) (Object) this, blockView, model, state, pos, poseStack, buffer, checkSides, seed, overlay);
 	}
 }
@@ -52,6 +52,7 @@ import grondag.canvas.material.state.TerrainRenderStates;
 import grondag.canvas.mixinterface.SpriteExt;
 import grondag.canvas.mixinterface.TextureAtlasExt;
 import grondag.canvas.render.world.CanvasWorldRenderer;
+import grondag.canvas.texture.SpriteUploadBatch;
 
 @Mixin(TextureAtlas.class)
 public abstract class MixinTextureAtlas extends AbstractTexture implements TextureAtlasExt {
@@ -60,6 +61,7 @@ public abstract class MixinTextureAtlas extends AbstractTexture implements Textu
 
 	private final BitSet animationBits = new BitSet();
 	private final BitSet perFrameBits = new BitSet();
+	private final SpriteUploadBatch uploadBatch = new SpriteUploadBatch();
 
 	@Inject(at = @At("HEAD"), method = "reload")
 	private void beforeReload(TextureAtlas.Preparations input, CallbackInfo ci) {
@@ -67,6 +69,8 @@ public abstract class MixinTextureAtlas extends AbstractTexture implements Textu
 			CanvasMod.LOG.info("Start of reload for atlas " + location.toString());
 		}
 
+		uploadBatch.close();
+
 		final var dataExt = (TextureAtlasPreparationExt) input;
 		width = dataExt.frex_atlasWidth();
 		height = dataExt.frex_atlasHeight();
@@ -158,5 +162,14 @@ public abstract class MixinTextureAtlas extends AbstractTexture implements Textu
 
 			animationBits.or(CanvasWorldRenderer.instance().worldRenderState.terrainAnimationBits);
 		}
+
+		uploadBatch.begin();
+	}
+
+	@Inject(at = @At("RETURN"), method = "cycleAnimationFrames")
+	private void afterTick(CallbackInfo ci) {
+		// Tickers may bind other textures, so rebind before the deferred uploads
+		bind();
+		uploadBatch.end();
 	}
 }
@@ -24,6 +24,9 @@ import java.util.function.BooleanSupplier;
 
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 
 import com.mojang.blaze3d.platform.NativeImage;
 
@@ -31,6 +34,7 @@ import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 
 import grondag.canvas.config.Configurator;
 import grondag.canvas.mixinterface.SpriteExt;
+import grondag.canvas.texture.SpriteUploadBatch;
 
 @Mixin(TextureAtlasSprite.class)
 public class MixinTextureAtlasSprite implements SpriteExt {
@@ -40,6 +44,16 @@ public class MixinTextureAtlasSprite implements SpriteExt {
 	private int animationIndex = -1;
 	private BooleanSupplier shouldAnimate = () -> true;
 
+	@Inject(method = "upload(II[Lcom/mojang/blaze3d/platform/NativeImage;)V", at = @At("HEAD"), cancellable = true)
+	private void onUpload(int frameX, int frameY, NativeImage[] images, CallbackInfo ci) {
+		final SpriteUploadBatch batch = SpriteUploadBatch.active();
+
+		if (batch != null) {
+			batch.add((TextureAtlasSprite) (Object) this, frameX, frameY, images);
+			ci.cancel();
+		}
+	}
+
 	@Override
 	public NativeImage[] canvas_images() {
 		return mainImage;
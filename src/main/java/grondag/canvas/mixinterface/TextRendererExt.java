@@ -20,10 +20,13 @@
 
 package grondag.canvas.mixinterface;
 
-import com.mojang.math.Matrix4f;
-
+/**
+ * Implemented by Font. Strings are always batched individually, but callers
+ * drawing many strings in sequence to the same buffer source can wrap them
+ * in a single batch. Batches nest and must be balanced.
+ */
 public interface TextRendererExt {
-	void canvas_beginBatchDraw(Matrix4f fillMatrix4fIn);
+	void canvas_beginBatchDraw();
 
 	void canvas_endBatchDraw();
 }
@@ -0,0 +1,139 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.perf;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe histogram of non-negative values with log-linear buckets, similar
+ * in spirit to HdrHistogram. Each power of two is divided into {@link #SUB_BUCKET_COUNT}
+ * linear buckets, so reported percentiles are within about 3% of the true value.
+ * Values below {@link #SUB_BUCKET_COUNT} are exact and values above {@link #MAX_VALUE}
+ * are clamped.  The exact maximum is tracked separately.
+ */
+public class LogLinearHistogram {
+	private static final int SUB_BUCKET_BITS = 5;
+	static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	/** About 18 minutes when recording nanoseconds. */
+	static final long MAX_VALUE = (1L << 40) - 1;
+	static final int BUCKET_COUNT = bucketIndex(MAX_VALUE) + 1;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final LongAdder count = new LongAdder();
+	private final LongAdder sum = new LongAdder();
+	private final AtomicLong max = new AtomicLong();
+
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+
+		final int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKET_COUNT + (int) ((value >> shift) - SUB_BUCKET_COUNT);
+	}
+
+	/** Smallest value that maps to the given bucket. */
+	static long bucketLowerBound(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+
+		final int shift = index / SUB_BUCKET_COUNT - 1;
+		return (long) (SUB_BUCKET_COUNT + index % SUB_BUCKET_COUNT) << shift;
+	}
+
+	/** Number of distinct values that map to the given bucket. */
+	static long bucketWidth(int index) {
+		return index < SUB_BUCKET_COUNT ? 1 : 1L << (index / SUB_BUCKET_COUNT - 1);
+	}
+
+	public void record(long value) {
+		if (value < 0) {
+			value = 0;
+		} else if (value > MAX_VALUE) {
+			value = MAX_VALUE;
+		}
+
+		counts.incrementAndGet(bucketIndex(value));
+		count.increment();
+		sum.add(value);
+		max.accumulateAndGet(value, Math::max);
+	}
+
+	public long count() {
+		return count.sum();
+	}
+
+	public long max() {
+		return max.get();
+	}
+
+	public long mean() {
+		final long n = count.sum();
+		return n == 0 ? 0 : sum.sum() / n;
+	}
+
+	/**
+	 * Value at or below which the given percentage of recorded values fall,
+	 * reported as the midpoint of the containing bucket and never more than the max.
+	 * The 100th percentile is always the exact max.
+	 *
+	 * @param percentile 0 to 100, inclusive
+	 */
+	public long percentile(double percentile) {
+		final long n = count.sum();
+
+		if (n == 0) {
+			return 0;
+		}
+
+		final long target = Math.max(1, (long) Math.ceil(n * Math.min(100.0, Math.max(0.0, percentile)) / 100.0));
+
+		if (target >= n) {
+			return max.get();
+		}
+
+		long seen = 0;
+
+		for (int i = 0; i < BUCKET_COUNT; ++i) {
+			seen += counts.get(i);
+
+			if (seen >= target) {
+				return Math.min(max.get(), bucketLowerBound(i) + (bucketWidth(i) - 1) / 2);
+			}
+		}
+
+		return max.get();
+	}
+
+	/** Not atomic with respect to concurrent recording, which is acceptable for diagnostics. */
+	public void reset() {
+		for (int i = 0; i < BUCKET_COUNT; ++i) {
+			counts.set(i, 0);
+		}
+
+		count.reset();
+		sum.reset();
+		max.set(0);
+	}
+}
@@ -0,0 +1,157 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.perf;
+
+import java.io.PrintWriter;
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * End-to-end latency of region rebuild requests, from the time a region is marked
+ * for rebuild until the resulting drawables are live. Each request is tracked by a
+ * {@link Sample} created when world data are captured and completed when the
+ * upload is applied on the render thread.  Repeated marks before capture are
+ * coalesced and measured from the earliest.
+ *
+ * <p>Only active when {@link TerrainMetrics#ENABLED} is true.
+ */
+public abstract class RegionLatency {
+	public enum Priority {
+		URGENT("Urgent"),
+		NEAR("Near"),
+		FAR("Far");
+
+		public final String label;
+		/** Mark to capture - time spent waiting for the render thread to schedule the build. */
+		final LogLinearHistogram pending = new LogLinearHistogram();
+		/** Capture to executor start - time spent in the executor queue. */
+		final LogLinearHistogram queued = new LogLinearHistogram();
+		/** Executor start to build complete. */
+		final LogLinearHistogram build = new LogLinearHistogram();
+		/** Build complete to upload applied - time spent in the upload queue. */
+		final LogLinearHistogram upload = new LogLinearHistogram();
+		/** Mark to upload applied. */
+		final LogLinearHistogram total = new LogLinearHistogram();
+
+		Priority(String label) {
+			this.label = label;
+		}
+
+		public static Priority of(boolean isUrgent, boolean isNear) {
+			return isUrgent ? URGENT : isNear ? NEAR : FAR;
+		}
+	}
+
+	/**
+	 * Timestamps for a single rebuild request.  Stages are stamped in order,
+	 * possibly on different threads, but never concurrently.
+	 */
+	public static class Sample {
+		private final Priority priority;
+		private final long markNanos;
+		private final long captureNanos;
+		private volatile long startNanos;
+		private volatile long buildNanos;
+
+		private Sample(Priority priority, long markNanos, long captureNanos) {
+			this.priority = priority;
+			this.markNanos = markNanos;
+			this.captureNanos = captureNanos;
+			startNanos = captureNanos;
+			buildNanos = captureNanos;
+		}
+
+		public long markNanos() {
+			return markNanos;
+		}
+
+		public void onStart() {
+			startNanos = System.nanoTime();
+		}
+
+		public void onBuilt() {
+			buildNanos = System.nanoTime();
+		}
+
+		/** Call when the drawables produced by the build are live. */
+		public void onApplied() {
+			final long now = System.nanoTime();
+			final Priority p = priority;
+			p.pending.record(captureNanos - markNanos);
+			p.queued.record(startNanos - captureNanos);
+			p.build.record(buildNanos - startNanos);
+			p.upload.record(now - buildNanos);
+			p.total.record(now - markNanos);
+		}
+	}
+
+	private RegionLatency() { }
+
+	/**
+	 * Call when world data for the region are captured.
+	 *
+	 * @param markNanos nano time of the earliest unserviced rebuild request, or zero if none
+	 * @return new sample, or null if there was no rebuild request to track
+	 */
+	public static @Nullable Sample capture(long markNanos, boolean isUrgent, boolean isNear) {
+		return markNanos == 0 ? null : new Sample(Priority.of(isUrgent, isNear), markNanos, System.nanoTime());
+	}
+
+	public static void reset() {
+		for (final Priority p : Priority.values()) {
+			p.pending.reset();
+			p.queued.reset();
+			p.build.reset();
+			p.upload.reset();
+			p.total.reset();
+		}
+	}
+
+	/** Adds one line per priority with total latency percentiles in milliseconds. */
+	public static void debugReport(List<String> target) {
+		for (final Priority p : Priority.values()) {
+			final LogLinearHistogram h = p.total;
+			target.add(String.format("%s rebuild ms p50:%.1f p90:%.1f p99:%.1f max:%.1f n:%d", p.label,
+					h.percentile(50) / 1000000.0, h.percentile(90) / 1000000.0,
+					h.percentile(99) / 1000000.0, h.max() / 1000000.0, h.count()));
+		}
+	}
+
+	static void writeSummary(PrintWriter writer) {
+		writer.println("Region rebuild latency in milliseconds");
+		writer.println(String.format("%-20s %10s %10s %10s %10s %10s %10s", "priority/segment", "count", "mean", "p50", "p90", "p99", "max"));
+
+		for (final Priority p : Priority.values()) {
+			writeSegment(writer, p.label + " pending", p.pending);
+			writeSegment(writer, p.label + " queued", p.queued);
+			writeSegment(writer, p.label + " build", p.build);
+			writeSegment(writer, p.label + " upload", p.upload);
+			writeSegment(writer, p.label + " total", p.total);
+		}
+	}
+
+	private static void writeSegment(PrintWriter writer, String label, LogLinearHistogram h) {
+		writer.println(String.format("%-20s %10d %10.2f %10.2f %10.2f %10.2f %10.2f", label, h.count(),
+				h.mean() / 1000000.0, h.percentile(50) / 1000000.0, h.percentile(90) / 1000000.0,
+				h.percentile(99) / 1000000.0, h.max() / 1000000.0));
+	}
+}
@@ -0,0 +1,234 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.perf;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.jetbrains.annotations.Nullable;
+
+import net.minecraft.client.Minecraft;
+
+import grondag.canvas.CanvasMod;
+import grondag.canvas.config.Configurator;
+
+/**
+ * Latency histograms, queue depth gauges and JFR events for terrain pipeline stages.
+ * Unlike {@link ChunkRebuildCounters} nothing is logged periodically. Results accumulate
+ * for the session and are written on demand by {@link #export()}, along with a dump
+ * of the in-progress JFR recording when one is available.
+ *
+ * <p>Usage for timed stages is:
+ * <pre>
+ * final var metrics = TerrainMetrics.begin(Stage.BUILD);
+ * // do work
+ * TerrainMetrics.end(metrics, regionOrigin);
+ * </pre>
+ * When disabled, {@link #begin(Stage)} returns null and end is a no-op.
+ */
+public abstract class TerrainMetrics {
+	public static final boolean ENABLED = Configurator.enableTerrainMetrics;
+
+	public enum Stage {
+		CAPTURE("Region Capture"),
+		BUILD("Region Build"),
+		SORT("Translucent Sort"),
+		UPLOAD("Region Upload"),
+		ITERATION("Terrain Iteration"),
+		DRAW_LIST("Draw List Update"),
+		COMPACTION("Cluster Compaction");
+
+		public final String label;
+		final LogLinearHistogram histogram = new LogLinearHistogram();
+
+		Stage(String label) {
+			this.label = label;
+		}
+	}
+
+	private static final LogLinearHistogram EXECUTOR_QUEUE_DEPTH = new LogLinearHistogram();
+	private static final LogLinearHistogram UPLOAD_QUEUE_DEPTH = new LogLinearHistogram();
+	private static volatile int lastExecutorQueueDepth;
+	private static volatile int lastUploadQueueDepth;
+	private static @Nullable Recording recording;
+	private static long sessionStartNanos = System.nanoTime();
+
+	private TerrainMetrics() { }
+
+	/** Starts the JFR recording if metrics are enabled and JFR is available. */
+	public static void init() {
+		if (!ENABLED) {
+			return;
+		}
+
+		try {
+			if (!FlightRecorder.isAvailable()) {
+				CanvasMod.LOG.warn("Terrain metrics are enabled but Java Flight Recorder is not available. Only histograms will be exported.");
+				return;
+			}
+
+			FlightRecorder.register(TerrainStageEvent.class);
+			FlightRecorder.addPeriodicEvent(TerrainQueueEvent.class, () -> {
+				final TerrainQueueEvent event = new TerrainQueueEvent();
+				event.executorQueueDepth = lastExecutorQueueDepth;
+				event.uploadQueueDepth = lastUploadQueueDepth;
+				event.commit();
+			});
+
+			final Recording recording = new Recording();
+			recording.setName("Canvas Terrain");
+			recording.enable(TerrainStageEvent.class);
+			recording.enable(TerrainQueueEvent.class).withPeriod(Duration.ofSeconds(1));
+			recording.setToDisk(true);
+			recording.setMaxAge(Duration.ofMinutes(10));
+			recording.start();
+			TerrainMetrics.recording = recording;
+		} catch (final Exception e) {
+			CanvasMod.LOG.warn("Unable to start JFR recording for terrain metrics. Only histograms will be exported.", e);
+		}
+	}
+
+	public static @Nullable TerrainStageEvent begin(Stage stage) {
+		if (!ENABLED) {
+			return null;
+		}
+
+		final TerrainStageEvent event = new TerrainStageEvent(stage);
+		event.begin();
+		return event;
+	}
+
+	public static void end(@Nullable TerrainStageEvent event) {
+		if (event != null) {
+			event.end();
+			event.stageEnum.histogram.record(System.nanoTime() - event.startNanos);
+
+			if (event.shouldCommit()) {
+				event.commit();
+			}
+		}
+	}
+
+	public static void end(@Nullable TerrainStageEvent event, long packedRegionOrigin) {
+		if (event != null) {
+			event.setRegion(packedRegionOrigin);
+			end(event);
+		}
+	}
+
+	/** Call once per frame on the render thread when enabled to sample queue depths and handle the export key. */
+	public static void onFrame(int executorQueueDepth, int uploadQueueDepth) {
+		boolean exportRequested = false;
+
+		while (CanvasMod.METRICS_EXPORT.consumeClick()) {
+			exportRequested = true;
+		}
+
+		lastExecutorQueueDepth = executorQueueDepth;
+		lastUploadQueueDepth = uploadQueueDepth;
+		EXECUTOR_QUEUE_DEPTH.record(executorQueueDepth);
+		UPLOAD_QUEUE_DEPTH.record(uploadQueueDepth);
+
+		if (exportRequested) {
+			export();
+		}
+	}
+
+	public static void reset() {
+		for (final Stage stage : Stage.values()) {
+			stage.histogram.reset();
+		}
+
+		EXECUTOR_QUEUE_DEPTH.reset();
+		UPLOAD_QUEUE_DEPTH.reset();
+		RegionLatency.reset();
+		sessionStartNanos = System.nanoTime();
+	}
+
+	/**
+	 * Writes a percentile summary of all stages and queues to the canvas_metrics folder
+	 * within the run folder and dumps the JFR recording to the same location.
+	 * Recording continues afterwards.
+	 */
+	@SuppressWarnings("resource")
+	public static void export() {
+		if (!ENABLED) {
+			return;
+		}
+
+		try {
+			final Path dir = Minecraft.getInstance().gameDirectory.toPath().normalize().resolve("canvas_metrics");
+			Files.createDirectories(dir);
+			final String baseName = "terrain-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+			final Path summaryPath = dir.resolve(baseName + ".txt");
+
+			try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(summaryPath))) {
+				writeSummary(writer);
+			}
+
+			CanvasMod.LOG.info("Terrain metrics summary written to " + summaryPath);
+
+			final Recording recording = TerrainMetrics.recording;
+
+			if (recording != null) {
+				final Path jfrPath = dir.resolve(baseName + ".jfr");
+				recording.dump(jfrPath);
+				CanvasMod.LOG.info("Terrain JFR recording written to " + jfrPath);
+			}
+		} catch (final IOException e) {
+			CanvasMod.LOG.warn("Unable to export terrain metrics due to exception.", e);
+		}
+	}
+
+	static void writeSummary(PrintWriter writer) {
+		writer.println(String.format("Canvas terrain metrics - %,d seconds since start or reset", (System.nanoTime() - sessionStartNanos) / 1000000000L));
+		writer.println();
+		writer.println("Stage latency in microseconds");
+		writer.println(String.format("%-20s %10s %10s %10s %10s %10s %10s %10s", "stage", "count", "mean", "p50", "p90", "p99", "p99.9", "max"));
+
+		for (final Stage stage : Stage.values()) {
+			final LogLinearHistogram h = stage.histogram;
+			writer.println(String.format("%-20s %10d %10.1f %10.1f %10.1f %10.1f %10.1f %10.1f", stage.label, h.count(),
+					h.mean() / 1000.0, h.percentile(50) / 1000.0, h.percentile(90) / 1000.0,
+					h.percentile(99) / 1000.0, h.percentile(99.9) / 1000.0, h.max() / 1000.0));
+		}
+
+		writer.println();
+		writer.println("Queue depth sampled per frame");
+		writer.println(String.format("%-20s %10s %10s %10s %10s %10s %10s", "queue", "samples", "mean", "p50", "p90", "p99", "max"));
+		writeQueue(writer, "Terrain Executor", EXECUTOR_QUEUE_DEPTH);
+		writeQueue(writer, "Upload", UPLOAD_QUEUE_DEPTH);
+		writer.println();
+		RegionLatency.writeSummary(writer);
+	}
+
+	private static void writeQueue(PrintWriter writer, String label, LogLinearHistogram h) {
+		writer.println(String.format("%-20s %10d %10d %10d %10d %10d %10d", label, h.count(), h.mean(),
+				h.percentile(50), h.percentile(90), h.percentile(99), h.max()));
+	}
+}
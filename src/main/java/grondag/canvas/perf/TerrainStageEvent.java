@@ -0,0 +1,70 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.perf;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import net.minecraft.core.BlockPos;
+
+import grondag.canvas.perf.TerrainMetrics.Stage;
+
+/**
+ * JFR event spanning one execution of a terrain pipeline stage.
+ * Region coordinates are zero for stages that are not region-specific.
+ */
+@Name("canvas.TerrainStage")
+@Label("Terrain Stage")
+@Category({"Canvas", "Terrain"})
+@Description("Execution of a single terrain pipeline stage")
+@StackTrace(false)
+public class TerrainStageEvent extends jdk.jfr.Event {
+	@Label("Stage")
+	String stage;
+
+	@Label("Region X")
+	int regionX;
+
+	@Label("Region Y")
+	int regionY;
+
+	@Label("Region Z")
+	int regionZ;
+
+	/** Not recorded by JFR - used for histograms, which are active even when JFR is not. */
+	final transient Stage stageEnum;
+	final transient long startNanos;
+
+	TerrainStageEvent(Stage stage) {
+		stageEnum = stage;
+		this.stage = stage.label;
+		startNanos = System.nanoTime();
+	}
+
+	void setRegion(long packedOrigin) {
+		regionX = BlockPos.getX(packedOrigin);
+		regionY = BlockPos.getY(packedOrigin);
+		regionZ = BlockPos.getZ(packedOrigin);
+	}
+}
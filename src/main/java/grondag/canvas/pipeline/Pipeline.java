@@ -40,6 +40,7 @@ import grondag.canvas.pipeline.config.SkyShadowConfig;
 import grondag.canvas.pipeline.pass.Pass;
 import grondag.canvas.render.PrimaryFrameBuffer;
 import grondag.canvas.shader.ProcessShader;
+import grondag.canvas.shader.data.ShadowMatrixData;
 
 public class Pipeline {
 	private static int lastWidth;
@@ -218,6 +219,7 @@ public class Pipeline {
 			final Image sd = getImage(config.skyShadow.framebuffer.value().depthAttachment.image.name);
 			shadowMapDepth = sd.glId();
 			skyShadowSize = sd.config.width;
+			ShadowMatrixData.invalidateCascades();
 			shadowSlopeFactor = config.skyShadow.offsetSlopeFactor;
 			shadowBiasUnits = config.skyShadow.offsetBiasUnits;
 			advancedTerrainCulling = true;
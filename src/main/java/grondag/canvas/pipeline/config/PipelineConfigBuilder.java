@@ -20,13 +20,8 @@
 
 package grondag.canvas.pipeline.config;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.NoSuchElementException;
-
 import blue.endless.jankson.JsonArray;
 import blue.endless.jankson.JsonObject;
-import blue.endless.jankson.api.SyntaxError;
 import it.unimi.dsi.fastutil.objects.ObjectArrayFIFOQueue;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
@@ -245,35 +240,15 @@ public class PipelineConfigBuilder {
 	}
 
 	private static void readResource(ResourceLocation target, ObjectArrayFIFOQueue<ResourceLocation> queue, ObjectArrayFIFOQueue<JsonObject> loadQueue, ObjectOpenHashSet<ResourceLocation> included, ResourceManager rm) {
-		// Allow flexibility on JSON vs JSON5 extensions
-		if (rm.getResource(target).isEmpty()) {
-			if (target.getPath().endsWith("json5")) {
-				final var candidate = new ResourceLocation(target.getNamespace(), target.getPath().substring(0, target.getPath().length() - 1));
-
-				if (rm.getResource(candidate).isPresent()) {
-					target = candidate;
-				}
-			} else if (target.getPath().endsWith("json")) {
-				final var candidate = new ResourceLocation(target.getNamespace(), target.getPath() + "5");
-
-				if (rm.getResource(candidate).isPresent()) {
-					target = candidate;
-				}
-			}
-		}
+		final JsonObject configJson = PipelineLoader.loadJson(rm, target);
 
-		try (InputStream inputStream = rm.getResource(target).get().open()) {
-			final JsonObject configJson = ConfigManager.JANKSON.load(inputStream);
+		if (configJson != null) {
 			loadQueue.enqueue(configJson);
 			getIncludes(configJson, included, queue);
-		} catch (final IOException | NoSuchElementException e) {
-			CanvasMod.LOG.warn(String.format("Unable to load pipeline config resource %s due to IOException: %s", target.toString(), e.getLocalizedMessage()));
-		} catch (final SyntaxError e) {
-			CanvasMod.LOG.warn(String.format("Unable to load pipeline config resource %s due to Syntax Error: %s", target.toString(), e.getLocalizedMessage()));
 		}
 	}
 
-	private static void getIncludes(JsonObject configJson, ObjectOpenHashSet<ResourceLocation> included, ObjectArrayFIFOQueue<ResourceLocation> queue) {
+	static void getIncludes(JsonObject configJson, ObjectOpenHashSet<ResourceLocation> included, ObjectArrayFIFOQueue<ResourceLocation> queue) {
 		if (configJson == null || !configJson.containsKey("include")) {
 			return;
 		}
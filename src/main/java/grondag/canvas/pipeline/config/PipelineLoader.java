@@ -21,20 +21,38 @@
 package grondag.canvas.pipeline.config;
 
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.function.Function;
 
+import blue.endless.jankson.Jankson;
 import blue.endless.jankson.JsonObject;
+import blue.endless.jankson.api.SyntaxError;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayFIFOQueue;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import org.jetbrains.annotations.Nullable;
 
 import net.minecraft.network.chat.Component;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.Resource;
 import net.minecraft.server.packs.resources.ResourceManager;
 
 import grondag.canvas.CanvasMod;
-import grondag.canvas.config.ConfigManager;
+import grondag.canvas.pipeline.config.util.ParsedContentCache;
 
 public class PipelineLoader {
 	private static boolean hasLoadedOnce = false;
 
+	// Jankson keeps parser state in the instance so each thread needs its own
+	private static final ThreadLocal<Jankson> JANKSON = ThreadLocal.withInitial(() -> Jankson.builder().build());
+
+	/** Parsed pipeline files by content. Unchanged files are not parsed again on reload. */
+	static final ParsedContentCache<JsonObject> JSON_CACHE = new ParsedContentCache<>(bytes -> JANKSON.get().load(new String(bytes, StandardCharsets.UTF_8)));
+
 	private PipelineLoader() { }
 
 	public static boolean areResourcesAvailable() {
@@ -43,20 +61,94 @@ public class PipelineLoader {
 
 	public static void reload(ResourceManager manager) {
 		hasLoadedOnce = true;
-		MAP.clear();
+		JSON_CACHE.beginPass();
 
-		manager.listResources("pipelines", (location) -> {
+		final Map<ResourceLocation, Resource> resources = manager.listResources("pipelines", (location) -> {
 			final String stringx = location.toString();
 			return stringx.endsWith(".json") || stringx.endsWith(".json5");
-		}).forEach((id, resource) -> {
-			try (InputStream inputStream = resource.open()) {
-				final JsonObject configJson = ConfigManager.JANKSON.load(inputStream);
-				final PipelineDescription p = new PipelineDescription(id, configJson);
-				MAP.put(id.toString(), p);
-			} catch (final Exception e) {
-				CanvasMod.LOG.warn(String.format("Unable to load pipeline configuration %s due to unhandled exception.", id), e);
+		});
+
+		final List<JsonObject> pipelineJson = new ObjectArrayList<>();
+
+		MAP.clear();
+
+		resources.entrySet().parallelStream().map(e -> {
+			final ResourceLocation id = e.getKey();
+
+			try (InputStream inputStream = e.getValue().open()) {
+				final JsonObject configJson = JSON_CACHE.get(inputStream.readAllBytes());
+				return new LoadedPipeline(configJson, new PipelineDescription(id, configJson));
+			} catch (final Exception ex) {
+				CanvasMod.LOG.warn(String.format("Unable to load pipeline configuration %s due to unhandled exception.", id), ex);
+				return null;
 			}
+		}).filter(Objects::nonNull).toList().forEach(loaded -> {
+			pipelineJson.add(loaded.json);
+			MAP.put(loaded.description.id.toString(), loaded.description);
 		});
+
+		preloadIncludes(manager, pipelineJson);
+		JSON_CACHE.endPass();
+	}
+
+	private record LoadedPipeline(JsonObject json, PipelineDescription description) { }
+
+	/**
+	 * Parses everything the pipelines include, one include depth at a time in parallel,
+	 * so that building the active pipeline config later only reads cached trees.
+	 */
+	private static void preloadIncludes(ResourceManager manager, List<JsonObject> pipelineJson) {
+		final ObjectOpenHashSet<ResourceLocation> included = new ObjectOpenHashSet<>();
+		final ObjectArrayFIFOQueue<ResourceLocation> queue = new ObjectArrayFIFOQueue<>();
+		List<JsonObject> parsed = pipelineJson;
+
+		while (!parsed.isEmpty()) {
+			for (final JsonObject json : parsed) {
+				PipelineConfigBuilder.getIncludes(json, included, queue);
+			}
+
+			final ObjectArrayList<ResourceLocation> targets = new ObjectArrayList<>(queue.size());
+
+			while (!queue.isEmpty()) {
+				targets.add(queue.dequeue());
+			}
+
+			parsed = targets.parallelStream().map(id -> loadJson(manager, id)).filter(Objects::nonNull).toList();
+		}
+	}
+
+	/**
+	 * Reads and parses a pipeline config resource, using the cached tree if content is unchanged.
+	 * Accepts either JSON or JSON5 extension for the same file. Logs and returns null on failure.
+	 * The result is shared and must not be modified.
+	 */
+	static @Nullable JsonObject loadJson(ResourceManager rm, ResourceLocation target) {
+		// Allow flexibility on JSON vs JSON5 extensions
+		if (rm.getResource(target).isEmpty()) {
+			if (target.getPath().endsWith("json5")) {
+				final var candidate = new ResourceLocation(target.getNamespace(), target.getPath().substring(0, target.getPath().length() - 1));
+
+				if (rm.getResource(candidate).isPresent()) {
+					target = candidate;
+				}
+			} else if (target.getPath().endsWith("json")) {
+				final var candidate = new ResourceLocation(target.getNamespace(), target.getPath() + "5");
+
+				if (rm.getResource(candidate).isPresent()) {
+					target = candidate;
+				}
+			}
+		}
+
+		try (InputStream inputStream = rm.getResource(target).get().open()) {
+			return JSON_CACHE.get(inputStream.readAllBytes());
+		} catch (final SyntaxError e) {
+			CanvasMod.LOG.warn(String.format("Unable to load pipeline config resource %s due to Syntax Error: %s", target.toString(), e.getLocalizedMessage()));
+		} catch (final Exception e) {
+			CanvasMod.LOG.warn(String.format("Unable to load pipeline config resource %s due to %s: %s", target.toString(), e.getClass().getSimpleName(), e.getLocalizedMessage()));
+		}
+
+		return null;
 	}
 
 	private static final Object2ObjectOpenHashMap<String, PipelineDescription> MAP = new Object2ObjectOpenHashMap<>();
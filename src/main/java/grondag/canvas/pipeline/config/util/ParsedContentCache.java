@@ -0,0 +1,118 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.pipeline.config.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caches parse results by file content so that unchanged pipeline files
+ * are not parsed again on resource reload. Safe for concurrent use.
+ *
+ * <p>Entries not used during a reload pass are dropped when the pass ends,
+ * which keeps the cache from growing as resource packs change.
+ */
+public class ParsedContentCache<T> {
+	@FunctionalInterface
+	public interface Parser<T> {
+		T parse(byte[] content) throws Exception;
+	}
+
+	private final Parser<T> parser;
+	private final AtomicInteger parseCount = new AtomicInteger();
+	private volatile ConcurrentHashMap<ContentKey, T> current = new ConcurrentHashMap<>();
+	private volatile ConcurrentHashMap<ContentKey, T> previous = new ConcurrentHashMap<>();
+
+	public ParsedContentCache(Parser<T> parser) {
+		this.parser = parser;
+	}
+
+	/**
+	 * Returns the cached result for identical content, parsing if there is none.
+	 * Parse failures are not cached.
+	 */
+	public T get(byte[] content) throws Exception {
+		final ContentKey key = new ContentKey(content);
+		final ConcurrentHashMap<ContentKey, T> current = this.current;
+		T result = current.get(key);
+
+		if (result == null) {
+			result = previous.get(key);
+
+			if (result == null) {
+				parseCount.incrementAndGet();
+				result = parser.parse(content);
+			}
+
+			final T prior = current.putIfAbsent(key, result);
+
+			if (prior != null) {
+				result = prior;
+			}
+		}
+
+		return result;
+	}
+
+	/**
+	 * Starts a reload pass. Results from the prior pass remain available
+	 * until {@link #endPass()} and are carried forward when used.
+	 */
+	public synchronized void beginPass() {
+		previous = current;
+		current = new ConcurrentHashMap<>();
+	}
+
+	/** Drops cached results that were not used since {@link #beginPass()}. */
+	public synchronized void endPass() {
+		previous = new ConcurrentHashMap<>();
+	}
+
+	/** Total number of parser invocations, for diagnostics and testing. */
+	public int parseCount() {
+		return parseCount.get();
+	}
+
+	public int size() {
+		return current.size();
+	}
+
+	private static class ContentKey {
+		private final byte[] content;
+		private final int hash;
+
+		private ContentKey(byte[] content) {
+			this.content = content;
+			hash = Arrays.hashCode(content);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof ContentKey other && hash == other.hash && Arrays.equals(content, other.content);
+		}
+	}
+}
@@ -0,0 +1,172 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.render.frustum;
+
+/**
+ * Region frustum test with an optional coarse pass over 128-block groups of regions.
+ *
+ * <p>Each group is tested once per view against the same planes used for regions.
+ * A group entirely outside any plane rejects all of its regions. A group entirely
+ * inside a plane clears that plane from the mask passed to region tests, so member
+ * regions only test the planes their group straddles. Group tests use a one-block
+ * margin so that float rounding can never make the result differ from testing
+ * each region against every plane.
+ *
+ * <p>Group results are kept in a small direct-mapped table keyed by group
+ * coordinates and a stamp that changes with planes or camera position. Entries
+ * are single longs, so concurrent updates at worst repeat a group test.
+ */
+public class RegionFrustumCuller {
+	public static final int PLANE_COUNT = 5;
+	public static final int ALL_PLANES = (1 << PLANE_COUNT) - 1;
+	/** Returned by {@link #groupPlaneMask} when no region in the group can be visible. */
+	public static final int REJECTED = -1;
+
+	public static final int GROUP_SHIFT = 7;
+	public static final int GROUP_SIZE = 1 << GROUP_SHIFT;
+	private static final float GROUP_HALF_SIZE = GROUP_SIZE / 2;
+	private static final float REGION_HALF_SIZE = 8;
+	private static final float GROUP_MARGIN = 1;
+
+	// Groups within render distance span at most 9 horizontally and 4 vertically so slots rarely
+	// collide, and entries hold group coordinate bits so a collision only costs a repeat test.
+	private static final int TABLE_XZ_BITS = 4;
+	private static final int TABLE_Y_BITS = 3;
+	private static final int TABLE_XZ_MASK = (1 << TABLE_XZ_BITS) - 1;
+	private static final int TABLE_Y_MASK = (1 << TABLE_Y_BITS) - 1;
+
+	// entry layout, low to high: mask + 1 (6 bits) | group x, y, z low bits (24 bits) | stamp (32 bits)
+	private static final int ENTRY_MASK_BITS = 6;
+	private static final long ENTRY_MASK_MASK = (1L << ENTRY_MASK_BITS) - 1;
+
+	private final long[] groupTable = new long[1 << (TABLE_XZ_BITS * 2 + TABLE_Y_BITS)];
+
+	/** Plane normal and offset, outside when dot(n, p) + w > 0. */
+	private final float[] planeX = new float[PLANE_COUNT];
+	private final float[] planeY = new float[PLANE_COUNT];
+	private final float[] planeZ = new float[PLANE_COUNT];
+	private final float[] planeW = new float[PLANE_COUNT];
+	/** Offset for region centers with region extent and gap baked in, as in {@link TerrainFrustum}. */
+	private final float[] regionExtent = new float[PLANE_COUNT];
+	/** Half-extent of a group box projected on each plane normal. */
+	private final float[] groupExtent = new float[PLANE_COUNT];
+
+	private volatile int stamp = 1;
+	private int positionVersion = Integer.MIN_VALUE;
+
+	/**
+	 * Sets one plane. Planes are normalized with the outside in the positive direction.
+	 * Call {@link #invalidate()} after all planes are set.
+	 *
+	 * @param regionExtent plane offset for region centers, as computed by {@link CanvasFrustum}
+	 */
+	public void setPlane(int plane, float x, float y, float z, float w, float regionExtent) {
+		planeX[plane] = x;
+		planeY[plane] = y;
+		planeZ[plane] = z;
+		planeW[plane] = w;
+		this.regionExtent[plane] = regionExtent;
+		groupExtent[plane] = GROUP_HALF_SIZE * (Math.abs(x) + Math.abs(y) + Math.abs(z));
+	}
+
+	public void invalidate() {
+		++stamp;
+	}
+
+	/**
+	 * Region test against the planes in the mask.
+	 * Coordinates are the camera-relative region center.
+	 */
+	public boolean isRegionVisible(float cx, float cy, float cz, int planeMask) {
+		final float[] px = planeX;
+		final float[] py = planeY;
+		final float[] pz = planeZ;
+		final float[] ext = regionExtent;
+
+		for (int i = 0; i < PLANE_COUNT; ++i) {
+			if ((planeMask & (1 << i)) != 0 && cx * px[i] + cy * py[i] + cz * pz[i] + ext[i] > 0) {
+				return false;
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Planes that regions in the group containing the given region must still test,
+	 * or {@link #REJECTED} if none of them can be visible.
+	 *
+	 * @param blockX any block in the group
+	 * @param blockY any block in the group
+	 * @param blockZ any block in the group
+	 * @param cameraX camera position used for region centers
+	 * @param cameraY camera position used for region centers
+	 * @param cameraZ camera position used for region centers
+	 * @param positionVersion changes whenever the camera position changes
+	 */
+	public int groupPlaneMask(int blockX, int blockY, int blockZ, double cameraX, double cameraY, double cameraZ, int positionVersion) {
+		if (positionVersion != this.positionVersion) {
+			this.positionVersion = positionVersion;
+			++stamp;
+		}
+
+		final int gx = blockX >> GROUP_SHIFT;
+		final int gy = blockY >> GROUP_SHIFT;
+		final int gz = blockZ >> GROUP_SHIFT;
+		final int slot = (gx & TABLE_XZ_MASK) | ((gz & TABLE_XZ_MASK) << TABLE_XZ_BITS) | ((gy & TABLE_Y_MASK) << (TABLE_XZ_BITS * 2));
+		final long check = ((gx & 0xFF) | ((gy & 0xFF) << 8) | ((gz & 0xFF) << 16)) | ((stamp & 0xFFFFFFFFL) << 24);
+
+		final long entry = groupTable[slot];
+
+		if ((entry >>> ENTRY_MASK_BITS) == check) {
+			return (int) (entry & ENTRY_MASK_MASK) - 1;
+		}
+
+		final float gcx = (float) ((gx << GROUP_SHIFT) + GROUP_HALF_SIZE - cameraX);
+		final float gcy = (float) ((gy << GROUP_SHIFT) + GROUP_HALF_SIZE - cameraY);
+		final float gcz = (float) ((gz << GROUP_SHIFT) + GROUP_HALF_SIZE - cameraZ);
+		final int result = testGroup(gcx, gcy, gcz);
+		groupTable[slot] = (check << ENTRY_MASK_BITS) | (result + 1);
+		return result;
+	}
+
+	/**
+	 * Uncached group test. Coordinates are the camera-relative group center.
+	 */
+	public int testGroup(float cx, float cy, float cz) {
+		int mask = 0;
+
+		for (int i = 0; i < PLANE_COUNT; ++i) {
+			final float d = cx * planeX[i] + cy * planeY[i] + cz * planeZ[i] + planeW[i];
+			final float ext = groupExtent[i];
+
+			if (d - ext > GROUP_MARGIN) {
+				return REJECTED;
+			}
+
+			if (d + ext > -GROUP_MARGIN) {
+				mask |= 1 << i;
+			}
+		}
+
+		return mask;
+	}
+}
@@ -35,7 +35,6 @@ import io.vram.frex.api.math.FastMatrix4f;
 
 import grondag.canvas.config.Configurator;
 import grondag.canvas.mixinterface.GameRendererExt;
-import grondag.canvas.terrain.region.RegionPosition;
 
 public class TerrainFrustum extends CanvasFrustum {
 	// These are for maintaining a project matrix used by occluder.
@@ -166,6 +165,7 @@ public class TerrainFrustum extends CanvasFrustum {
 		nearRegionExtent = src.nearRegionExtent;
 
 		fov = src.fov;
+		updateRegionCuller();
 	}
 
 	public void invalidate() {
@@ -239,6 +239,7 @@ public class TerrainFrustum extends CanvasFrustum {
 
 			// depends on mvpMatrix being complete
 			extractPlanes();
+			updateRegionCuller();
 
 			viewDistanceSquared = Minecraft.getInstance().options.renderDistance().get() * 16;
 			viewDistanceSquared *= viewDistanceSquared;
@@ -294,31 +295,16 @@ public class TerrainFrustum extends CanvasFrustum {
 		occlusionProjMat.multiply(Matrix4f.perspective(fov + padding, client.getWindow().getWidth() / (float) client.getWindow().getHeight(), 0.05F, gr.getRenderDistance() * 4.0F));
 	}
 
-	public final RegionVisibilityTest visibilityTest = p -> {
-		final float cx = p.cameraRelativeCenterX();
-		final float cy = p.cameraRelativeCenterY();
-		final float cz = p.cameraRelativeCenterZ();
-
-		if (cx * leftX + cy * leftY + cz * leftZ + leftRegionExtent > 0) {
-			return false;
-		}
-
-		if (cx * rightX + cy * rightY + cz * rightZ + rightRegionExtent > 0) {
-			return false;
-		}
-
-		if (cx * nearX + cy * nearY + cz * nearZ + nearRegionExtent > 0) {
-			return false;
-		}
-
-		if (cx * topX + cy * topY + cz * topZ + topRegionExtent > 0) {
-			return false;
-		}
-
-		return !(cx * bottomX + cy * bottomY + cz * bottomZ + bottomRegionExtent > 0);
-	};
-
-	public interface RegionVisibilityTest {
-		boolean isVisible(RegionPosition pos);
+	/** Region frustum test using the planes above, with a coarse test for groups of regions. */
+	public final RegionFrustumCuller regionCuller = new RegionFrustumCuller();
+
+	private void updateRegionCuller() {
+		final RegionFrustumCuller culler = regionCuller;
+		culler.setPlane(0, leftX, leftY, leftZ, leftW, leftRegionExtent);
+		culler.setPlane(1, rightX, rightY, rightZ, rightW, rightRegionExtent);
+		culler.setPlane(2, nearX, nearY, nearZ, nearW, nearRegionExtent);
+		culler.setPlane(3, topX, topY, topZ, topW, topRegionExtent);
+		culler.setPlane(4, bottomX, bottomY, bottomZ, bottomW, bottomRegionExtent);
+		culler.invalidate();
 	}
 }
@@ -25,28 +25,34 @@ import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import grondag.canvas.material.state.RenderState;
 
 public abstract class AbstractDrawableRegionList implements DrawableRegionList {
-	protected final ObjectArrayList<DrawableRegion> regions;
+	/** Drawables currently retained by this list, in draw order. */
+	protected final ObjectArrayList<DrawableRegion> regions = new ObjectArrayList<>();
 	private boolean isClosed = false;
 	public final RenderState renderState;
 
-	protected AbstractDrawableRegionList(final ObjectArrayList<DrawableRegion> regions, RenderState renderState) {
-		this.regions = regions;
+	protected AbstractDrawableRegionList(RenderState renderState) {
 		this.renderState = renderState;
 	}
 
+	@Override
+	public final void clear() {
+		for (DrawableRegion region : regions) {
+			region.releaseFromDrawList();
+		}
+
+		regions.clear();
+		clearInner();
+	}
+
 	@Override
 	public final void close() {
 		if (!isClosed) {
-			for (DrawableRegion region : regions) {
-				region.releaseFromDrawList();
-			}
-
+			clear();
 			isClosed = true;
-			closeInner();
 		}
 	}
 
-	protected abstract void closeInner();
+	protected abstract void clearInner();
 
 	@Override
 	public boolean isClosed() {
@@ -20,16 +20,23 @@
 
 package grondag.canvas.render.terrain.base;
 
-import it.unimi.dsi.fastutil.objects.ObjectArrayList;
-
-import grondag.canvas.material.state.RenderState;
 import grondag.canvas.material.state.TerrainRenderStates;
 import grondag.canvas.render.terrain.drawlist.RealmDrawList;
 import grondag.canvas.render.world.WorldRenderState;
 import grondag.canvas.terrain.occlusion.VisibleRegionList;
-import grondag.canvas.terrain.region.RenderRegion;
 
 public interface DrawableRegionList {
+	/**
+	 * Brings the list up to date with the given visible regions and their current drawables.
+	 * Only clusters with added, removed, reordered or re-culled regions will have their
+	 * draw specs rebuilt. Drawables new to the list are retained and those no longer
+	 * present are released.
+	 */
+	void update(VisibleRegionList visibleRegions);
+
+	/** Releases all retained drawables and draw specs. List remains usable. */
+	void clear();
+
 	void close();
 
 	boolean isClosed();
@@ -38,56 +45,8 @@ public interface DrawableRegionList {
 
 	int quadCount();
 
-	DrawableRegionList EMPTY = new DrawableRegionList() {
-		@Override
-		public void close() {
-			// NOOP
-		}
-
-		@Override
-		public boolean isClosed() {
-			return false;
-		}
-
-		@Override
-		public void draw(WorldRenderState worldRenderState) {
-			// NOOP
-		}
-
-		@Override
-		public int quadCount() {
-			return 0;
-		}
-	};
-
-	static DrawableRegionList build(
-			final VisibleRegionList visibleRegions,
-			boolean isTranslucent,
-			boolean isShadowMap
-	) {
-		final ObjectArrayList<DrawableRegion> drawables = new ObjectArrayList<>();
-
-		final int count = visibleRegions.size();
-		final int startIndex = isTranslucent ? count - 1 : 0;
-		final int endIndex = isTranslucent ? -1 : count;
-		final int step = isTranslucent ? -1 : 1;
-
-		for (int regionLoopIndex = startIndex; regionLoopIndex != endIndex; regionLoopIndex += step) {
-			final RenderRegion region = visibleRegions.get(regionLoopIndex);
-			final DrawableRegion drawable = isTranslucent ? region.translucentDrawable() : region.solidDrawable();
-
-			if (drawable != null && drawable != DrawableRegion.EMPTY_DRAWABLE) {
-				drawables.add(drawable);
-				drawable.retainFromDrawList();
-			}
-		}
-
+	static DrawableRegionList create(boolean isTranslucent, boolean isShadowMap) {
 		final var renderState = isTranslucent ? TerrainRenderStates.TRANSLUCENT : TerrainRenderStates.SOLID;
-		return drawables.isEmpty() ? DrawableRegionList.EMPTY : RealmDrawList.build(drawables, renderState, isShadowMap);
-	}
-
-	@FunctionalInterface
-	interface DrawableRegionListFunc {
-		DrawableRegionList apply(ObjectArrayList<DrawableRegion> regions, RenderState renderState, boolean isShadowMap);
+		return new RealmDrawList(renderState, isTranslucent, isShadowMap);
 	}
 }
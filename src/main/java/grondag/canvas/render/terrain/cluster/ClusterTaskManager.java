@@ -22,8 +22,12 @@ package grondag.canvas.render.terrain.cluster;
 
 import java.util.ArrayDeque;
 
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
 import io.vram.frex.api.config.FlawlessFrames;
 
+import grondag.canvas.perf.TerrainMetrics;
+
 public class ClusterTaskManager {
 	@FunctionalInterface interface ClusterTask {
 		/** Task should return false if unable to complete and needs more time next frame. */
@@ -32,13 +36,28 @@ public class ClusterTaskManager {
 
 	private static final ArrayDeque<ClusterTask> TASKS = new ArrayDeque<>();
 
+	/**
+	 * Slabs emptied since the last run. Draw lists may still reference them until
+	 * they are next updated, which happens before any draw in the same frame, so
+	 * they are only handed off for release at the start of the following frame.
+	 */
+	private static final ObjectArrayList<Slab> RETIRED_SLABS = new ObjectArrayList<>();
+
 	private ClusterTaskManager() { }
 
 	public static void run(long deadlineNanos) {
+		releaseRetiredSlabs();
+
 		if (FlawlessFrames.isActive()) {
 			deadlineNanos = Long.MAX_VALUE;
 		}
 
+		if (TASKS.isEmpty()) {
+			return;
+		}
+
+		final var metrics = TerrainMetrics.begin(TerrainMetrics.Stage.COMPACTION);
+
 		do {
 			final var task = TASKS.poll();
 
@@ -51,13 +70,27 @@ public class ClusterTaskManager {
 				}
 			}
 		} while (System.nanoTime() < deadlineNanos);
+
+		TerrainMetrics.end(metrics);
 	}
 
 	static void schedule(ClusterTask task) {
 		TASKS.offer(task);
 	}
 
+	static void retireSlab(Slab slab) {
+		RETIRED_SLABS.add(slab);
+	}
+
+	private static void releaseRetiredSlabs() {
+		if (!RETIRED_SLABS.isEmpty()) {
+			RETIRED_SLABS.forEach(Slab::release);
+			RETIRED_SLABS.clear();
+		}
+	}
+
 	static void clear() {
 		TASKS.clear();
+		releaseRetiredSlabs();
 	}
 }
@@ -40,12 +40,12 @@ public class SlabAllocator {
 	}
 
 	public static final int SLAB_QUAD_VERTEX_COUNT_INCREMENT = 0x1000;
-	public static final int BYTES_PER_SLAB_VERTEX = 28;
+	public static final int BYTES_PER_SLAB_VERTEX = TerrainEncoder.COMPACT ? 24 : 28;
 	static final int SLAB_BYTES_INCREMENT = SLAB_QUAD_VERTEX_COUNT_INCREMENT * BYTES_PER_SLAB_VERTEX;
 
 	static {
 		// Want IDE to show actual numbers above, so check here at run time that nothing changed and got missed.
-		assert BYTES_PER_SLAB_VERTEX == TerrainEncoder.TERRAIN_MATERIAL.vertexStrideBytes : "Slab vertex size doesn't match vertex format";
+		assert BYTES_PER_SLAB_VERTEX == TerrainEncoder.TERRAIN_FORMAT.vertexStrideBytes : "Slab vertex size doesn't match vertex format";
 	}
 
 	static Slab claim(int minCapacityBytes) {
@@ -48,6 +48,17 @@ public class VertexCluster implements ClusterTask {
 	private boolean isScheduled = false;
 	private boolean itMe = false;
 
+	/** Allocations to be moved into the hungry slab by the current compaction pass. */
+	private final ObjectArrayList<RegionAllocation> compactionQueue = new ObjectArrayList<>();
+	/** Position in {@link #compactionQueue} of the next allocation to move, retained across frames. */
+	private int compactionCursor = 0;
+
+	/**
+	 * Max number of region allocations moved per task run. Keeps each step short enough
+	 * that large clusters are compacted over several frames instead of in one spike.
+	 */
+	private static final int MAX_COMPACTION_MOVES_PER_RUN = 32;
+
 	public VertexCluster(VertexClusterRealm owner, long clusterPos) {
 		realm = owner;
 		this.clusterPos = clusterPos;
@@ -87,10 +98,13 @@ public class VertexCluster implements ClusterTask {
 			}
 
 			for (final var slab : slabs) {
-				slab.release();
+				ClusterTaskManager.retireSlab(slab);
 			}
 
 			slabs.clear();
+			compactionQueue.clear();
+			compactionCursor = 0;
+			holdingLists.clear();
 
 			realm.notifyClosed(this);
 		}
@@ -131,18 +145,33 @@ public class VertexCluster implements ClusterTask {
 
 	@Override
 	public boolean run(long deadlineNanos) {
-		if (isScheduled) {
+		if (isClosed || !isScheduled) {
 			isScheduled = false;
-			compact();
+			return true;
 		}
 
+		if (compactionQueue.isEmpty() && !startCompaction()) {
+			// nothing to do
+			isScheduled = false;
+			return true;
+		}
+
+		if (!continueCompaction(deadlineNanos)) {
+			// keep our place and resume next time
+			return false;
+		}
+
+		// New uploads during the pass may have forced a new hungry slab,
+		// in which case another pass will be needed to converge.
+		isScheduled = false;
+		scheduleIfNeeded();
 		return true;
 	}
 
-	private void compact() {
+	/** Returns false if there is nothing to compact. */
+	private boolean startCompaction() {
 		if (slabs.size() < 2) {
-			// nothing to do
-			return;
+			return false;
 		}
 
 		// NB: hungry slab can't be null here because we have at least two slabs. But
@@ -155,38 +184,91 @@ public class VertexCluster implements ClusterTask {
 			slabs.add(hungrySlab);
 		}
 
-		final Slab hungrySlab = this.hungrySlab;
+		// Slabs that emptied while they were hungry are not released on empty, so do it here.
+		for (int i = slabs.size() - 1; i >= 0; --i) {
+			final var slab = slabs.get(i);
+
+			if (slab != hungrySlab && slab.isEmpty()) {
+				slabs.remove(i);
+				ClusterTaskManager.retireSlab(slab);
+			}
+		}
 
 		for (final var region : allocatedRegions.values()) {
-			final var oldAllocation = region.getAllocation();
+			final var allocation = region.getAllocation();
 
-			if (oldAllocation.slab != hungrySlab) {
-				final var newAllocation = hungrySlab.transferFromSlabAllocation(region.factory, oldAllocation);
-				region.setAllocation(newAllocation);
-				oldAllocation.release();
+			if (allocation != null && allocation.slab != hungrySlab) {
+				compactionQueue.add(region);
 			}
 		}
 
-		assert slabs.size() == 1;
-		assert slabs.get(0) == hungrySlab;
+		compactionCursor = 0;
+		return !compactionQueue.isEmpty();
+	}
+
+	/**
+	 * Moves a bounded number of allocations to the hungry slab, stopping early if past the deadline.
+	 * Returns true when the pass is complete.
+	 */
+	private boolean continueCompaction(long deadlineNanos) {
+		final int limit = compactionQueue.size();
+		int moveCount = 0;
+
+		while (compactionCursor < limit && moveCount < MAX_COMPACTION_MOVES_PER_RUN) {
+			final var region = compactionQueue.get(compactionCursor++);
+			final var oldAllocation = region.getAllocation();
+
+			// may have been closed since the pass started
+			if (oldAllocation == null) {
+				continue;
+			}
 
-		if (!holdingLists.isEmpty()) {
+			// Uploads since the pass started may have filled the hungry slab, in which
+			// case this will claim a new one sized for everything we have.
+			final Slab hungrySlab = getHungrySlab(region.region.byteCount);
+
+			if (oldAllocation.slab == hungrySlab) {
+				continue;
+			}
+
+			final var newAllocation = hungrySlab.transferFromSlabAllocation(region.factory, oldAllocation);
+			region.setAllocation(newAllocation);
+			// Emptied slabs are retired, not released, so draw lists can switch over first
+			oldAllocation.release();
+			++moveCount;
+
+			if (System.nanoTime() >= deadlineNanos) {
+				break;
+			}
+		}
+
+		if (moveCount > 0 && !holdingLists.isEmpty()) {
 			for (final var list : holdingLists) {
 				list.invalidate();
 			}
 		}
+
+		if (compactionCursor < limit) {
+			return false;
+		}
+
+		compactionQueue.clear();
+		compactionCursor = 0;
+		return true;
 	}
 
-	void addListListener(ClusterDrawList listener) {
+	public void addListListener(ClusterDrawList listener) {
 		assert !holdingLists.contains(listener);
 		assert !isClosed;
 		holdingLists.add(listener);
 	}
 
-	void removeListListener(ClusterDrawList listener) {
-		assert holdingLists.contains(listener);
-		assert !isClosed;
-		holdingLists.remove(listener);
+	public void removeListListener(ClusterDrawList listener) {
+		// Lists may outlive the cluster and listeners are dropped on close
+		if (!isClosed) {
+			assert holdingLists.contains(listener);
+			holdingLists.remove(listener);
+		}
 	}
 
 	public class RegionAllocation {
@@ -280,7 +362,7 @@ public class VertexCluster implements ClusterTask {
 
 					if (slab.isEmpty() && slab != hungrySlab) {
 						if (slabs.remove(slab)) {
-							slab.release();
+							ClusterTaskManager.retireSlab(slab);
 						} else {
 							assert false : "Slab not found on empty";
 						}
@@ -23,41 +23,143 @@ package grondag.canvas.render.terrain.drawlist;
 import java.util.IdentityHashMap;
 
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import org.jetbrains.annotations.Nullable;
 
-import grondag.canvas.config.Configurator;
 import grondag.canvas.render.terrain.cluster.ClusteredDrawableStorage;
 import grondag.canvas.render.terrain.cluster.Slab;
 import grondag.canvas.render.terrain.cluster.VertexCluster;
 import grondag.canvas.render.terrain.cluster.VertexCluster.RegionAllocation.SlabAllocation;
-import grondag.canvas.render.world.SkyShadowRenderer;
 import grondag.canvas.varia.GFX;
 
 public class ClusterDrawList {
-	final ObjectArrayList<ClusteredDrawableStorage> regions = new ObjectArrayList<>();
-	final VertexCluster cluster;
+	final long clusterPos;
 	final RealmDrawList owner;
+	/** Regions represented in the current draw specs. */
+	private ObjectArrayList<ClusteredDrawableStorage> regions = new ObjectArrayList<>();
+	/** Regions collected during an update, swapped with {@link #regions} when they differ. */
+	private ObjectArrayList<ClusteredDrawableStorage> pendingRegions = new ObjectArrayList<>();
+	/** Visible face flags of each region when specs were last packed. Only populated when culling back faces. */
+	private final Reference2IntOpenHashMap<ClusteredDrawableStorage> builtFaceFlags = new Reference2IntOpenHashMap<>();
 	private final ObjectArrayList<DrawSpec> drawSpecs = new ObjectArrayList<>();
+	private @Nullable VertexCluster cluster = null;
+	private boolean isDirty = true;
 	private int quadCount;
 
-	ClusterDrawList(VertexCluster cluster, RealmDrawList owner) {
-		this.cluster = cluster;
+	ClusterDrawList(long clusterPos, RealmDrawList owner) {
+		this.clusterPos = clusterPos;
 		this.owner = owner;
+		builtFaceFlags.defaultReturnValue(-1);
 	}
 
 	public int quadCount() {
 		return quadCount;
 	}
 
-	void build() {
+	void beginUpdate() {
+		pendingRegions.clear();
+	}
+
+	void add(ClusteredDrawableStorage region) {
+		assert region.clusterPos == clusterPos;
+		pendingRegions.add(region);
+	}
+
+	boolean isPendingEmpty() {
+		return pendingRegions.isEmpty();
+	}
+
+	void markDirty() {
+		isDirty = true;
+	}
+
+	/** Adopts the regions collected since {@link #beginUpdate()} and re-packs draw specs if anything changed. */
+	void endUpdate() {
+		if (isDirty || hasChanges()) {
+			final var swap = regions;
+			regions = pendingRegions;
+			pendingRegions = swap;
+			isDirty = true;
+		}
+
+		pendingRegions.clear();
+		rebuildIfDirty();
+	}
+
+	/**
+	 * Membership changes are flagged by the owner, so only need to detect changes
+	 * in order (translucent) or in visible faces (solid with back face culling).
+	 */
+	private boolean hasChanges() {
+		final int limit = pendingRegions.size();
+
+		if (limit != regions.size()) {
+			return true;
+		}
+
+		if (owner.isTranslucent) {
+			for (int i = 0; i < limit; ++i) {
+				if (pendingRegions.get(i) != regions.get(i)) {
+					return true;
+				}
+			}
+		} else if (owner.cullBackFace) {
+			for (int i = 0; i < limit; ++i) {
+				final var region = pendingRegions.get(i);
+
+				if (builtFaceFlags.getInt(region) != faceFlags(region)) {
+					return true;
+				}
+			}
+		}
+
+		return false;
+	}
+
+	private int faceFlags(ClusteredDrawableStorage region) {
+		return owner.isShadowMap ? region.shadowVisibleFaceFlags() : region.visibleFaceFlags();
+	}
+
+	void rebuildIfDirty() {
+		if (isDirty) {
+			isDirty = false;
+			releaseSpecs();
+			build();
+		}
+	}
+
+	private void build() {
 		assert drawSpecs.isEmpty();
+		quadCount = 0;
 
-		if (cluster.realm.isTranslucent) {
+		if (regions.isEmpty()) {
+			return;
+		}
+
+		listenTo(regions.get(0).allocation().cluster());
+
+		if (owner.isTranslucent) {
 			buildTranslucent();
 		} else {
 			buildSolid();
 		}
 	}
 
+	/** Cluster instances at a given position can be replaced if they empty out, so follow the current one. */
+	private void listenTo(@Nullable VertexCluster newCluster) {
+		if (newCluster != cluster) {
+			if (cluster != null) {
+				cluster.removeListListener(this);
+			}
+
+			cluster = newCluster;
+
+			if (newCluster != null) {
+				newCluster.addListListener(this);
+			}
+		}
+	}
+
 	/** Maintains region sort order at the cost of extra binds/calls if needed. */
 	private void buildTranslucent() {
 		Slab lastSlab = null;
@@ -66,6 +168,7 @@ public class ClusterDrawList {
 
 		for (final var region : regions) {
 			final var alloc = region.allocation().getAllocation();
+			assert region.allocation().cluster() == cluster;
 
 			if (alloc.slab != lastSlab) {
 				// NB: builder checks for empty region list (will be true for first region)
@@ -85,10 +188,13 @@ public class ClusterDrawList {
 	/** Minimizes binds/calls. */
 	private void buildSolid() {
 		final IdentityHashMap<Slab, ObjectArrayList<SlabAllocation>> map = new IdentityHashMap<>();
+		final boolean cullBackFace = owner.cullBackFace;
+		builtFaceFlags.clear();
 
 		// first group regions by slab
 		for (final var region : regions) {
 			final var alloc = region.allocation().getAllocation();
+			assert region.allocation().cluster() == cluster;
 			var list = map.get(alloc.slab);
 
 			if (list == null) {
@@ -97,12 +203,16 @@ public class ClusterDrawList {
 			}
 
 			list.add(alloc);
+
+			if (cullBackFace) {
+				builtFaceFlags.put(region, faceFlags(region));
+			}
 		}
 
 		int quadCount = 0;
 
 		for (final var list: map.values()) {
-			quadCount += DrawSpecBuilder.build(list, drawSpecs, owner.isShadowMap, Configurator.cullBackfacingTerrain && (!owner.isShadowMap || Configurator.shadowFaceCulling != SkyShadowRenderer.Culling.NONE));
+			quadCount += DrawSpecBuilder.build(list, drawSpecs, owner.isShadowMap, cullBackFace);
 		}
 
 		this.quadCount = quadCount;
@@ -118,16 +228,23 @@ public class ClusterDrawList {
 		}
 	}
 
-	public void add(ClusteredDrawableStorage region) {
-		assert region.allocation().cluster() == cluster;
-		regions.add(region);
-	}
-
+	/** Called by the cluster when allocations move to a different slab. */
 	public void invalidate() {
+		isDirty = true;
 		owner.invalidate();
 	}
 
-	public void release() {
+	private void releaseSpecs() {
 		drawSpecs.forEach(DrawSpec::release);
+		drawSpecs.clear();
+	}
+
+	void release() {
+		releaseSpecs();
+		listenTo(null);
+		regions.clear();
+		pendingRegions.clear();
+		builtFaceFlags.clear();
+		quadCount = 0;
 	}
 }
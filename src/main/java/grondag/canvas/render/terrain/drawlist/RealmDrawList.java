@@ -22,27 +22,44 @@ package grondag.canvas.render.terrain.drawlist;
 
 import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectIterator;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 
+import grondag.canvas.config.Configurator;
 import grondag.canvas.material.state.RenderState;
 import grondag.canvas.render.terrain.base.AbstractDrawableRegionList;
 import grondag.canvas.render.terrain.base.DrawableRegion;
-import grondag.canvas.render.terrain.base.DrawableRegionList;
 import grondag.canvas.render.terrain.cluster.ClusteredDrawableRegion;
 import grondag.canvas.render.terrain.cluster.ClusteredDrawableStorage;
+import grondag.canvas.render.world.SkyShadowRenderer;
 import grondag.canvas.render.world.WorldRenderState;
+import grondag.canvas.terrain.occlusion.VisibleRegionList;
+import grondag.canvas.terrain.region.RenderRegion;
 import grondag.canvas.varia.GFX;
 
+/**
+ * Persistent draw list for a single realm and pass. Retains per-cluster draw specs
+ * across frames and only re-packs clusters affected by changes in the visible set,
+ * region uploads or slab compaction.
+ */
 public class RealmDrawList extends AbstractDrawableRegionList {
-	final ObjectArrayList<ClusterDrawList> clusterLists = new ObjectArrayList<>();
+	private final Long2ObjectOpenHashMap<ClusterDrawList> clusterMap = new Long2ObjectOpenHashMap<>();
+	/** Cluster lists in draw order. */
+	private final ObjectArrayList<ClusterDrawList> clusterLists = new ObjectArrayList<>();
+	private final ObjectArrayList<DrawableRegion> nextRegions = new ObjectArrayList<>();
+	private ReferenceOpenHashSet<DrawableRegion> members = new ReferenceOpenHashSet<>();
+	private ReferenceOpenHashSet<DrawableRegion> nextMembers = new ReferenceOpenHashSet<>();
+	final boolean isTranslucent;
 	final boolean isShadowMap;
+	boolean cullBackFace = false;
 	private int quadCount;
 
 	boolean isInvalid = false;
 
-	private RealmDrawList(final ObjectArrayList<DrawableRegion> regions, RenderState renderState, boolean isShadowMap) {
-		super(regions, renderState);
+	public RealmDrawList(RenderState renderState, boolean isTranslucent, boolean isShadowMap) {
+		super(renderState);
+		this.isTranslucent = isTranslucent;
 		this.isShadowMap = isShadowMap;
-		build();
 	}
 
 	@Override
@@ -50,53 +67,156 @@ public class RealmDrawList extends AbstractDrawableRegionList {
 		return quadCount;
 	}
 
-	private void build() {
-		final Long2ObjectOpenHashMap<ClusterDrawList> map = new Long2ObjectOpenHashMap<>();
-		final int limit = regions.size();
+	private static ClusteredDrawableStorage storage(DrawableRegion drawable) {
+		return ((ClusteredDrawableRegion) drawable).storage();
+	}
+
+	@Override
+	public void update(VisibleRegionList visibleRegions) {
+		assert !isClosed();
+
+		final boolean cullBackFace = !isTranslucent && Configurator.cullBackfacingTerrain && (!isShadowMap || Configurator.shadowFaceCulling != SkyShadowRenderer.Culling.NONE);
+
+		if (cullBackFace != this.cullBackFace) {
+			this.cullBackFace = cullBackFace;
+			clusterLists.forEach(ClusterDrawList::markDirty);
+		}
+
+		collectDrawables(visibleRegions);
+		releaseRemovedDrawables();
+		distributeToClusters();
+
+		quadCount = 0;
+		final int limit = clusterLists.size();
+
+		for (int i = 0; i < limit; ++i) {
+			final var clusterList = clusterLists.get(i);
+			clusterList.endUpdate();
+			quadCount += clusterList.quadCount();
+		}
+
+		isInvalid = false;
+	}
+
+	/** Gathers current drawables in draw order and retains any not already held. */
+	private void collectDrawables(VisibleRegionList visibleRegions) {
+		final ObjectArrayList<DrawableRegion> nextRegions = this.nextRegions;
+		final ReferenceOpenHashSet<DrawableRegion> nextMembers = this.nextMembers;
+		nextRegions.clear();
+		nextMembers.clear();
+
+		final int count = visibleRegions.size();
+		final int startIndex = isTranslucent ? count - 1 : 0;
+		final int endIndex = isTranslucent ? -1 : count;
+		final int step = isTranslucent ? -1 : 1;
+
+		for (int regionLoopIndex = startIndex; regionLoopIndex != endIndex; regionLoopIndex += step) {
+			final RenderRegion region = visibleRegions.get(regionLoopIndex);
+			final DrawableRegion drawable = isTranslucent ? region.translucentDrawable() : region.solidDrawable();
+
+			if (drawable != null && drawable != DrawableRegion.EMPTY_DRAWABLE && nextMembers.add(drawable)) {
+				nextRegions.add(drawable);
+
+				if (!members.contains(drawable)) {
+					drawable.retainFromDrawList();
+					markClusterDirty(storage(drawable).clusterPos);
+				}
+			}
+		}
+	}
+
+	/** Releases drawables no longer visible or replaced by an upload and makes the collected set current. */
+	private void releaseRemovedDrawables() {
+		for (final DrawableRegion drawable : members) {
+			if (!nextMembers.contains(drawable)) {
+				// capture position before release because storage may be closed
+				markClusterDirty(storage(drawable).clusterPos);
+				drawable.releaseFromDrawList();
+			}
+		}
+
+		final var swap = members;
+		members = nextMembers;
+		nextMembers = swap;
+		nextMembers.clear();
+
+		regions.clear();
+		regions.addAll(nextRegions);
+		nextRegions.clear();
+	}
 
-		for (int regionIndex = 0; regionIndex < limit; ++regionIndex) {
-			final ClusteredDrawableStorage storage = ((ClusteredDrawableRegion) regions.get(regionIndex)).storage();
+	/** Assigns regions to cluster lists, preserving draw order, and drops lists for clusters no longer visible. */
+	private void distributeToClusters() {
+		clusterLists.forEach(ClusterDrawList::beginUpdate);
+		clusterLists.clear();
 
-			ClusterDrawList clusterList = map.get(storage.clusterPos);
+		final int limit = regions.size();
+
+		for (int i = 0; i < limit; ++i) {
+			final ClusteredDrawableStorage storage = storage(regions.get(i));
+			ClusterDrawList clusterList = clusterMap.get(storage.clusterPos);
 
 			if (clusterList == null) {
-				clusterList = new ClusterDrawList(storage.allocation().cluster(), this);
+				clusterList = new ClusterDrawList(storage.clusterPos, this);
+				clusterMap.put(storage.clusterPos, clusterList);
+			}
+
+			if (clusterList.isPendingEmpty()) {
 				clusterLists.add(clusterList);
-				map.put(storage.clusterPos, clusterList);
 			}
 
 			clusterList.add(storage);
 		}
 
-		quadCount = 0;
+		final ObjectIterator<ClusterDrawList> it = clusterMap.values().iterator();
+
+		while (it.hasNext()) {
+			final var clusterList = it.next();
+
+			if (clusterList.isPendingEmpty()) {
+				clusterList.release();
+				it.remove();
+			}
+		}
+	}
 
-		clusterLists.forEach(cl -> {
-			cl.build();
-			quadCount += cl.quadCount();
-		});
+	private void markClusterDirty(long clusterPos) {
+		final var clusterList = clusterMap.get(clusterPos);
+
+		if (clusterList != null) {
+			clusterList.markDirty();
+		}
 	}
 
 	private void rebuildIfInvalid() {
 		if (isInvalid) {
 			// Rarely happens because slab reallocation typically happen
 			// in response to player movement, which will naturally force
-			// a new draw list to be created.
+			// the draw list to be updated. Only clusters marked dirty are re-packed.
 			isInvalid = false;
-			closeInner();
-			build();
-		}
-	}
+			quadCount = 0;
+			final int limit = clusterLists.size();
 
-	public static DrawableRegionList build(final ObjectArrayList<DrawableRegion> regions, RenderState renderState, boolean isShadowMap) {
-		return regions.isEmpty() ? DrawableRegionList.EMPTY : new RealmDrawList(regions, renderState, isShadowMap);
+			for (int i = 0; i < limit; ++i) {
+				final var clusterList = clusterLists.get(i);
+				clusterList.rebuildIfDirty();
+				quadCount += clusterList.quadCount();
+			}
+		}
 	}
 
 	@Override
 	public void draw(WorldRenderState worldRenderState) {
 		rebuildIfInvalid();
+
+		final int limit = clusterLists.size();
+
+		if (limit == 0) {
+			return;
+		}
+
 		final var sectorManager = worldRenderState.sectorManager;
 		renderState.enable(sectorManager.originBlockX(), 0, sectorManager.originBlockZ());
-		final int limit = clusterLists.size();
 		GFX.bindVertexArray(0);
 
 		for (int i = 0; i < limit; ++i) {
@@ -109,9 +229,13 @@ public class RealmDrawList extends AbstractDrawableRegionList {
 	}
 
 	@Override
-	protected void closeInner() {
+	protected void clearInner() {
 		clusterLists.forEach(ClusterDrawList::release);
 		clusterLists.clear();
+		clusterMap.clear();
+		members.clear();
+		quadCount = 0;
+		isInvalid = false;
 	}
 
 	void invalidate() {
@@ -29,12 +29,12 @@ public class TerrainVAO extends BufferVAO {
 	public final int baseQuadVertexIndex;
 
 	public TerrainVAO(IntSupplier arrayIdSupplier, IntSupplier elementIdSupplier, int baseQuadVertexIndex) {
-		super(TerrainEncoder.TERRAIN_MATERIAL, arrayIdSupplier, elementIdSupplier);
+		super(TerrainEncoder.TERRAIN_FORMAT, arrayIdSupplier, elementIdSupplier);
 		this.baseQuadVertexIndex = baseQuadVertexIndex;
 	}
 
 	@Override
 	public void bind() {
-		super.bind(baseQuadVertexIndex * TerrainEncoder.TERRAIN_MATERIAL.vertexStrideBytes);
+		super.bind(baseQuadVertexIndex * TerrainEncoder.TERRAIN_FORMAT.vertexStrideBytes);
 	}
 }
@@ -20,9 +20,13 @@
 
 package grondag.canvas.render.world;
 
-import java.util.Iterator;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.stream.IntStream;
 
-import com.google.common.util.concurrent.Runnables;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2ReferenceOpenHashMap;
+import org.jetbrains.annotations.Nullable;
 
 import com.mojang.blaze3d.systems.RenderSystem;
 import com.mojang.blaze3d.vertex.BufferBuilder;
@@ -40,29 +44,51 @@ import net.minecraft.client.particle.ParticleRenderType;
 import net.minecraft.client.renderer.GameRenderer;
 import net.minecraft.client.renderer.LightTexture;
 import net.minecraft.client.renderer.texture.TextureAtlas;
+import net.minecraft.core.particles.ParticleType;
 import net.minecraft.world.inventory.InventoryMenu;
 
 import io.vram.frex.api.material.MaterialConstants;
 import io.vram.frex.api.material.MaterialFinder;
 import io.vram.frex.api.material.MaterialMap;
 
+import grondag.canvas.buffer.input.DrawableVertexCollector;
 import grondag.canvas.buffer.input.VertexCollectorList;
 import grondag.canvas.material.state.CanvasRenderMaterial;
 import grondag.canvas.mixinterface.ParticleEngineExt;
 import grondag.canvas.mixinterface.ParticleExt;
 import grondag.canvas.render.frustum.RegionCullingFrustum;
 
+/**
+ * Particles in sheets handled by Canvas are all emitted to collectors first and then drawn
+ * together in a single call, after which any sheets Canvas does not handle are drawn using the
+ * vanilla process.  Culling is done up front for each sheet and split across threads when
+ * the sheet is large.
+ */
 public class CanvasParticleRenderer {
+	/** Particles culled per task. Visible indices for each chunk are packed at the start of the chunk's range. */
+	private static final int CULL_CHUNK_SIZE = 1024;
+
+	/** Sheets with fewer particles than this are culled on the render thread. */
+	private static final int PARALLEL_CULL_THRESHOLD = 4096;
+
 	private Tesselator tessellator;
 	private BufferBuilder bufferBuilder;
 	private LightTexture lightmapTextureManager;
 	private ParticleEngineExt ext;
-	private Runnable drawHandler = Runnables.doNothing();
-	private CanvasRenderMaterial baseMat;
-	private CanvasRenderMaterial emissiveMat;
 	private final RegionCullingFrustum cullingFrustum;
 	private final MaterialFinder finder = MaterialFinder.newInstance();
 
+	private final CanvasSheet terrainSheet = new CanvasSheet(RENDER_STATE_TERRAIN, RENDER_STATE_TERRAIN_EMISSIVE);
+	private final CanvasSheet opaqueOrLitSheet = new CanvasSheet(RENDER_STATE_OPAQUE_OR_LIT, RENDER_STATE_OPAQUE_OR_LIT_EMISSIVE);
+	private final CanvasSheet translucentSheet = new CanvasSheet(RENDER_STATE_TRANSLUCENT, RENDER_STATE_TRANSLUCENT_EMISSIVE);
+	private final ObjectArrayList<DrawableVertexCollector> drawList = new ObjectArrayList<>();
+
+	private Particle[] particles = new Particle[CULL_CHUNK_SIZE];
+	private int[] visibleIndices = new int[CULL_CHUNK_SIZE];
+	private int[] chunkVisibleCounts = new int[1];
+	private int particleCount;
+	private int chunkCount;
+
 	public CanvasParticleRenderer(RegionCullingFrustum cullingFrustum) {
 		this.cullingFrustum = cullingFrustum;
 	}
@@ -78,35 +104,134 @@ public class CanvasParticleRenderer {
 		tessellator = Tesselator.getInstance();
 		bufferBuilder = tessellator.getBuilder();
 		ext = (ParticleEngineExt) pm;
-		final Iterator<ParticleRenderType> sheets = ext.canvas_textureSheets().iterator();
 
-		while (sheets.hasNext()) {
-			final ParticleRenderType particleTextureSheet = sheets.next();
-			final Iterable<Particle> iterable = ext.canvas_particles().get(particleTextureSheet);
+		terrainSheet.beginFrame();
+		opaqueOrLitSheet.beginFrame();
+		translucentSheet.beginFrame();
 
-			if (iterable == null) {
-				continue;
+		for (final ParticleRenderType particleTextureSheet : ext.canvas_textureSheets()) {
+			final CanvasSheet sheet = canvasSheet(particleTextureSheet);
+
+			if (sheet != null && cullSheet(particleTextureSheet)) {
+				renderSheet(particleTextureSheet, collectors.emitter.prepare(sheet.baseMat), sheet, collectors, camera, tickDelta);
 			}
+		}
 
-			final Iterator<Particle> particles = iterable.iterator();
+		drawCanvasSheets(collectors);
 
-			if (!particles.hasNext()) continue;
+		for (final ParticleRenderType particleTextureSheet : ext.canvas_textureSheets()) {
+			if (canvasSheet(particleTextureSheet) == null && cullSheet(particleTextureSheet)) {
+				RenderSystem.setShader(GameRenderer::getParticleShader);
+				RenderSystem.setShaderColor(1.0F, 1.0F, 1.0F, 1.0F);
+				setupVanillaParticleRender();
+				particleTextureSheet.begin(bufferBuilder, ext.canvas_textureManager());
+				renderSheet(particleTextureSheet, bufferBuilder, null, collectors, camera, tickDelta);
+				particleTextureSheet.end(tessellator);
+			}
+		}
 
-			final VertexConsumer consumer = beginSheet(particleTextureSheet, collectors);
+		renderMatrix.popPose();
+		RenderSystem.applyModelViewMatrix();
+		teardownVanillaParticleRender();
+	}
 
-			while (particles.hasNext()) {
-				final Particle particle = particles.next();
+	private @Nullable CanvasSheet canvasSheet(ParticleRenderType particleTextureSheet) {
+		if (particleTextureSheet == ParticleRenderType.TERRAIN_SHEET) {
+			return terrainSheet;
+		} else if (particleTextureSheet == ParticleRenderType.PARTICLE_SHEET_LIT || particleTextureSheet == ParticleRenderType.PARTICLE_SHEET_OPAQUE) {
+			return opaqueOrLitSheet;
+		} else if (particleTextureSheet == ParticleRenderType.PARTICLE_SHEET_TRANSLUCENT) {
+			return translucentSheet;
+		} else {
+			return null;
+		}
+	}
 
-				if (!cullingFrustum.isVisible(particle.getBoundingBox())) {
-					continue;
-				}
+	/**
+	 * Copies the particles in the given sheet and culls them, leaving
+	 * indices of visible particles in {@link #visibleIndices}.
+	 *
+	 * @return true if any particles in the sheet are visible
+	 */
+	private boolean cullSheet(ParticleRenderType particleTextureSheet) {
+		final Queue<Particle> queue = ext.canvas_particles().get(particleTextureSheet);
+
+		if (queue == null || queue.isEmpty()) {
+			return false;
+		}
+
+		final int size = queue.size();
+
+		if (particles.length < size) {
+			final int newSize = Math.max(size, particles.length * 2);
+			particles = new Particle[newSize];
+			visibleIndices = new int[newSize];
+		}
+
+		int count = 0;
+
+		for (final Particle particle : queue) {
+			particles[count++] = particle;
+		}
+
+		particleCount = count;
+		chunkCount = (count + CULL_CHUNK_SIZE - 1) / CULL_CHUNK_SIZE;
+
+		if (chunkVisibleCounts.length < chunkCount) {
+			chunkVisibleCounts = new int[chunkCount];
+		}
+
+		if (count < PARALLEL_CULL_THRESHOLD) {
+			for (int chunk = 0; chunk < chunkCount; ++chunk) {
+				cullChunk(chunk);
+			}
+		} else {
+			// Frustum test is read-only when region culling is disabled so it is safe to share
+			IntStream.range(0, chunkCount).parallel().forEach(this::cullChunk);
+		}
+
+		for (int chunk = 0; chunk < chunkCount; ++chunk) {
+			if (chunkVisibleCounts[chunk] != 0) {
+				return true;
+			}
+		}
+
+		Arrays.fill(particles, 0, count, null);
+		return false;
+	}
+
+	private void cullChunk(int chunk) {
+		final int start = chunk * CULL_CHUNK_SIZE;
+		final int end = Math.min(start + CULL_CHUNK_SIZE, particleCount);
+		final Particle[] particles = this.particles;
+		final int[] visibleIndices = this.visibleIndices;
+		int visibleIndex = start;
+
+		for (int i = start; i < end; ++i) {
+			if (cullingFrustum.isVisible(particles[i].getBoundingBox())) {
+				visibleIndices[visibleIndex++] = i;
+			}
+		}
+
+		chunkVisibleCounts[chunk] = visibleIndex - start;
+	}
+
+	/** Renders particles that passed {@link #cullSheet(ParticleRenderType)} and releases the particle references. */
+	private void renderSheet(ParticleRenderType particleTextureSheet, VertexConsumer consumer, @Nullable CanvasSheet sheet, VertexCollectorList collectors, Camera camera, float tickDelta) {
+		final Particle[] particles = this.particles;
+		final int[] visibleIndices = this.visibleIndices;
+
+		for (int chunk = 0; chunk < chunkCount; ++chunk) {
+			final int start = chunk * CULL_CHUNK_SIZE;
+			final int end = start + chunkVisibleCounts[chunk];
+
+			for (int i = start; i < end; ++i) {
+				final Particle particle = particles[visibleIndices[i]];
 
 				try {
-					if (baseMat != null) {
-						finder.copyFrom(baseMat);
-						MaterialMap.getForParticle(((ParticleExt) particle).canvas_particleType()).map(finder, particle);
+					if (sheet != null) {
 						// FEAT: enhanced material maps for particles - shaders for animation in particular
-						collectors.emitter.defaultMaterial(finder.emissive() ? emissiveMat : baseMat);
+						collectors.emitter.defaultMaterial(sheet.materialFor(particle));
 					}
 
 					particle.render(consumer, camera, tickDelta);
@@ -118,13 +243,27 @@ public class CanvasParticleRenderer {
 					throw new ReportedException(crashReport);
 				}
 			}
-
-			drawHandler.run();
 		}
 
-		renderMatrix.popPose();
-		RenderSystem.applyModelViewMatrix();
-		teardownVanillaParticleRender();
+		Arrays.fill(particles, 0, particleCount, null);
+	}
+
+	/** Draws collectors for all Canvas-handled sheets in one pass, in sheet order so translucent is last. */
+	private void drawCanvasSheets(VertexCollectorList collectors) {
+		final ObjectArrayList<DrawableVertexCollector> drawList = this.drawList;
+		terrainSheet.addToDrawList(collectors, drawList);
+		opaqueOrLitSheet.addToDrawList(collectors, drawList);
+		translucentSheet.addToDrawList(collectors, drawList);
+
+		if (!drawList.isEmpty()) {
+			DrawableVertexCollector.draw(drawList);
+
+			for (final DrawableVertexCollector collector : drawList) {
+				collector.clear();
+			}
+
+			drawList.clear();
+		}
 	}
 
 	private void setupVanillaParticleRender() {
@@ -139,34 +278,60 @@ public class CanvasParticleRenderer {
 		lightmapTextureManager.turnOffLightLayer();
 	}
 
-	private VertexConsumer beginSheet(ParticleRenderType particleTextureSheet, VertexCollectorList collectors) {
-		RenderSystem.setShader(GameRenderer::getParticleShader);
-		RenderSystem.setShaderColor(1.0F, 1.0F, 1.0F, 1.0F);
+	/**
+	 * Materials for a Canvas-handled sheet with the result of material maps
+	 * cached by particle type.  The cache is cleared each frame so map
+	 * changes from resource reloads are picked up.
+	 */
+	private class CanvasSheet {
+		private final CanvasRenderMaterial baseMat;
+		private final CanvasRenderMaterial emissiveMat;
+		private final Reference2ReferenceOpenHashMap<ParticleType<?>, CanvasRenderMaterial> materials = new Reference2ReferenceOpenHashMap<>();
+
+		private CanvasSheet(CanvasRenderMaterial baseMat, CanvasRenderMaterial emissiveMat) {
+			this.baseMat = baseMat;
+			this.emissiveMat = emissiveMat;
+		}
 
-		// PERF: consolidate these draws
-		if (particleTextureSheet == ParticleRenderType.TERRAIN_SHEET) {
-			baseMat = RENDER_STATE_TERRAIN;
-			emissiveMat = RENDER_STATE_TERRAIN_EMISSIVE;
-			drawHandler = () -> collectors.get(baseMat).draw(true);
-			return collectors.emitter.prepare(baseMat);
-		} else if (particleTextureSheet == ParticleRenderType.PARTICLE_SHEET_LIT || particleTextureSheet == ParticleRenderType.PARTICLE_SHEET_OPAQUE) {
-			baseMat = RENDER_STATE_OPAQUE_OR_LIT;
-			emissiveMat = RENDER_STATE_OPAQUE_OR_LIT_EMISSIVE;
-			drawHandler = () -> collectors.get(baseMat).draw(true);
-			return collectors.emitter.prepare(baseMat);
-		} else if (particleTextureSheet == ParticleRenderType.PARTICLE_SHEET_TRANSLUCENT) {
-			baseMat = RENDER_STATE_TRANSLUCENT;
-			emissiveMat = RENDER_STATE_TRANSLUCENT_EMISSIVE;
-			drawHandler = () -> collectors.get(baseMat).draw(true);
-			return collectors.emitter.prepare(baseMat);
-		}
-
-		setupVanillaParticleRender();
-		particleTextureSheet.begin(bufferBuilder, ext.canvas_textureManager());
-		drawHandler = () -> particleTextureSheet.end(tessellator);
-		baseMat = null;
-		emissiveMat = null;
-		return bufferBuilder;
+		private void beginFrame() {
+			materials.clear();
+		}
+
+		/**
+		 * Material maps are resolved with the first particle of each type seen in a frame
+		 * and the result is used for all particles of that type for the rest of the frame.
+		 */
+		private CanvasRenderMaterial materialFor(Particle particle) {
+			final ParticleType<?> type = ((ParticleExt) particle).canvas_particleType();
+			CanvasRenderMaterial result = materials.get(type);
+
+			if (result == null) {
+				final var map = MaterialMap.getForParticle(type);
+
+				if (map.isIdentity()) {
+					result = baseMat;
+				} else {
+					finder.copyFrom(baseMat);
+					map.map(finder, particle);
+					result = finder.emissive() ? emissiveMat : baseMat;
+				}
+
+				materials.put(type, result);
+			}
+
+			return result;
+		}
+
+		private void addToDrawList(VertexCollectorList collectors, ObjectArrayList<DrawableVertexCollector> drawList) {
+			addIfNotEmpty(collectors.getIfExists(baseMat), drawList);
+			addIfNotEmpty(collectors.getIfExists(emissiveMat), drawList);
+		}
+	}
+
+	private static void addIfNotEmpty(@Nullable DrawableVertexCollector collector, ObjectArrayList<DrawableVertexCollector> drawList) {
+		if (collector != null && !collector.isEmpty() && !drawList.contains(collector)) {
+			drawList.add(collector);
+		}
 	}
 
 	private static MaterialFinder baseFinder() {
@@ -90,6 +90,7 @@ import grondag.canvas.apiimpl.rendercontext.CanvasBlockRenderContext;
 import grondag.canvas.apiimpl.rendercontext.CanvasEntityBlockRenderContext;
 import grondag.canvas.buffer.input.CanvasImmediate;
 import grondag.canvas.buffer.input.CanvasOutlineImmediate;
+import grondag.canvas.buffer.input.CascadeQuadSorter;
 import grondag.canvas.buffer.render.StreamBufferAllocator;
 import grondag.canvas.buffer.render.TransferBuffers;
 import grondag.canvas.buffer.util.BufferSynchronizer;
@@ -103,6 +104,7 @@ import grondag.canvas.material.state.RenderContextState;
 import grondag.canvas.material.state.RenderState;
 import grondag.canvas.mixinterface.LevelRendererExt;
 import grondag.canvas.mixinterface.RenderBuffersExt;
+import grondag.canvas.perf.TerrainMetrics;
 import grondag.canvas.perf.Timekeeper;
 import grondag.canvas.perf.Timekeeper.ProfilerGroup;
 import grondag.canvas.pipeline.Pipeline;
@@ -116,6 +118,7 @@ import grondag.canvas.shader.data.MatrixData;
 import grondag.canvas.shader.data.MatrixState;
 import grondag.canvas.shader.data.ScreenRenderState;
 import grondag.canvas.shader.data.ShaderDataManager;
+import grondag.canvas.shader.data.ShadowMatrixData;
 import grondag.canvas.terrain.occlusion.SortableVisibleRegionList;
 import grondag.canvas.terrain.occlusion.TerrainIterator;
 import grondag.canvas.terrain.region.RegionRebuildManager;
@@ -253,7 +256,7 @@ public class CanvasWorldRenderer extends LevelRenderer {
 		final var conditionFlags = conditions.conditionFlags;
 
 		for (int i = 0; i < BaseConditionManager.CONDITION_FLAG_ARRAY_LENGTH; ++i) {
-			IntData.INT_DATA.put(IntData.CONDITION_DATA_START + i, conditionFlags[i]);
+			IntData.UINT_DATA.put(IntData.CONDITION_DATA_START + i, conditionFlags[i]);
 		}
 	}
 
@@ -360,9 +363,12 @@ public class CanvasWorldRenderer extends LevelRenderer {
 		worldRenderState.regionBuilder().upload();
 		worldRenderState.regionRebuildManager.processScheduledRegions(frameStartNanos + clampedBudget);
 
+		WorldRenderDraws.profileSwap(profiler, ProfilerGroup.StartWorld, "cluster_compaction");
 		// WIP: need a way to set the deadline appropriately based on steady frame rate and time already elapsed.
 		// Method must ensure we don't have starvation - task queue can't grow indefinitely.
 		ClusterTaskManager.run(System.nanoTime() + 2000000);
+
+		WorldRenderDraws.profileSwap(profiler, ProfilerGroup.StartWorld, "draw_lists");
 		worldRenderState.rebuidDrawListsIfNeeded();
 
 		// Note these don't have an effect when canvas pipeline is active - lighting happens in the shader
@@ -558,9 +564,11 @@ public class CanvasWorldRenderer extends LevelRenderer {
 
 		RenderState.disable();
 
-		try (DrawableStream entityBuffer = immediate.prepareDrawable(TargetRenderState.SOLID);
+		final CascadeQuadSorter cascadeSorter = SkyShadowRenderer.entityCascadeSorter();
+
+		try (DrawableStream entityBuffer = immediate.prepareDrawable(TargetRenderState.SOLID, cascadeSorter, ShadowMatrixData.CASCADE_COUNT);
 			DrawableStream materialExtrasBuffer = materialExtrasImmediate.prepareDrawable(TargetRenderState.SOLID);
-			DrawableStream shadowExtrasBuffer = shadowExtrasImmediate.prepareDrawable(TargetRenderState.SOLID);
+			DrawableStream shadowExtrasBuffer = shadowExtrasImmediate.prepareDrawable(TargetRenderState.SOLID, cascadeSorter, ShadowMatrixData.CASCADE_COUNT);
 		) {
 			WorldRenderDraws.profileSwap(profiler, ProfilerGroup.ShadowMap, "shadow_map");
 			SkyShadowRenderer.render(this, entityBuffer, shadowExtrasBuffer);
@@ -846,6 +854,10 @@ public class CanvasWorldRenderer extends LevelRenderer {
 		CanvasState.recompileIfNeeded(false);
 		FlawlessFramesController.handleToggle();
 
+		if (TerrainMetrics.ENABLED) {
+			TerrainMetrics.onFrame(TerrainExecutor.INSTANCE.queueDepth(), worldRenderState.regionBuilder().uploadQueueDepth());
+		}
+
 		if (wasFabulous != Pipeline.isFabulous()) {
 			vanillaWorldRenderer.canvas_setupFabulousBuffers();
 		}
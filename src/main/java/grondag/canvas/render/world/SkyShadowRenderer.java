@@ -20,13 +20,19 @@
 
 package grondag.canvas.render.world;
 
+import org.jetbrains.annotations.Nullable;
+
 import com.mojang.blaze3d.systems.RenderSystem;
 
 import net.minecraft.client.Minecraft;
 
+import io.vram.frex.api.math.FastMatrix4f;
+
+import grondag.canvas.buffer.input.CascadeQuadSorter;
 import grondag.canvas.buffer.util.DrawableStream;
 import grondag.canvas.pipeline.Pipeline;
 import grondag.canvas.pipeline.PipelineManager;
+import grondag.canvas.shader.data.ShadowCascadeSchedule;
 import grondag.canvas.shader.data.ShadowMatrixData;
 import grondag.canvas.varia.GFX;
 
@@ -40,6 +46,7 @@ public class SkyShadowRenderer {
 	private static boolean active = false;
 	private static boolean renderEntityShadows = false;
 	private static int cascade;
+	private static final CascadeQuadSorter ENTITY_CASCADE_SORTER = new CascadeQuadSorter(ShadowMatrixData.CASCADE_COUNT);
 
 	private static void begin() {
 		assert !active;
@@ -62,10 +69,18 @@ public class SkyShadowRenderer {
 		if (Pipeline.shadowsEnabled()) {
 			begin();
 
+			final ShadowCascadeSchedule schedule = ShadowMatrixData.cascadeSchedule;
+
 			for (cascade = 0; cascade < ShadowMatrixData.CASCADE_COUNT; ++cascade) {
-				Pipeline.skyShadowFbo.bind();
-				GFX.framebufferTextureLayer(GFX.GL_FRAMEBUFFER, GFX.GL_DEPTH_ATTACHMENT, Pipeline.shadowMapDepth, 0, cascade);
-				renderInner(canvasWorldRenderer, entityBuffer, shadowExtrasBuffer);
+				// cascades not due retain content from a prior frame - matrices were adjusted to match
+				if (schedule.isDue(cascade)) {
+					Pipeline.skyShadowFbo.bind();
+					GFX.framebufferTextureLayer(GFX.GL_FRAMEBUFFER, GFX.GL_DEPTH_ATTACHMENT, Pipeline.shadowMapDepth, 0, cascade);
+					renderInner(canvasWorldRenderer, entityBuffer, shadowExtrasBuffer);
+					schedule.markRendered(cascade);
+				} else {
+					schedule.markSkipped(cascade);
+				}
 			}
 
 			Pipeline.defaultFbo.bind();
@@ -80,11 +95,26 @@ public class SkyShadowRenderer {
 		canvasWorldRenderer.worldRenderState.renderShadowLayer(cascade);
 
 		if (Pipeline.config().skyShadow.allowEntities && Minecraft.getInstance().options.entityShadows().get()) {
-			entityBuffer.draw(true);
-			shadowExtrasBuffer.draw(true);
+			entityBuffer.drawShadow(cascade);
+			shadowExtrasBuffer.drawShadow(cascade);
 		}
 	}
 
+	/**
+	 * Sorter for grouping entity quads by shadow cascade, configured for the current
+	 * shadow matrices. Null if entities won't be drawn in the shadow pass this frame.
+	 */
+	public static @Nullable CascadeQuadSorter entityCascadeSorter() {
+		if (!Pipeline.shadowsEnabled() || !Pipeline.config().skyShadow.allowEntities || !Minecraft.getInstance().options.entityShadows().get()) {
+			return null;
+		}
+
+		final FastMatrix4f view = (FastMatrix4f) (Object) ShadowMatrixData.shadowViewMatrix;
+		ENTITY_CASCADE_SORTER.setView(view.f_m00(), view.f_m10(), view.f_m20(), view.f_m30(), view.f_m01(), view.f_m11(), view.f_m21(), view.f_m31());
+		ENTITY_CASCADE_SORTER.setCascades(ShadowMatrixData.cascadeCentersAndRadii);
+		return ENTITY_CASCADE_SORTER;
+	}
+
 	/** Preserves entityShadows option state, overwriting it temporarily if needed to prevent vanilla from rendering shadows. */
 	public static void suppressEntityShadows(Minecraft mc) {
 		if (Pipeline.shadowsEnabled()) {
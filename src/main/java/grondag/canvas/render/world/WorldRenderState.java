@@ -28,6 +28,7 @@ import net.minecraft.client.Minecraft;
 import net.minecraft.client.multiplayer.ClientLevel;
 import net.minecraft.util.profiling.ProfilerFiller;
 
+import grondag.canvas.perf.TerrainMetrics;
 import grondag.canvas.pipeline.Pipeline;
 import grondag.canvas.render.frustum.TerrainFrustum;
 import grondag.canvas.render.terrain.TerrainSectorMap;
@@ -72,8 +73,8 @@ public class WorldRenderState {
 	public final SortableVisibleRegionList cameraVisibleRegions = new SortableVisibleRegionList();
 	public final VisibleRegionList[] shadowVisibleRegions = new VisibleRegionList[ShadowMatrixData.CASCADE_COUNT];
 
-	private DrawableRegionList solidDrawList = DrawableRegionList.EMPTY;
-	private DrawableRegionList translucentDrawList = DrawableRegionList.EMPTY;
+	private final DrawableRegionList solidDrawList = DrawableRegionList.create(false, false);
+	private final DrawableRegionList translucentDrawList = DrawableRegionList.create(true, false);
 	private final DrawableRegionList[] shadowDrawLists = new DrawableRegionList[ShadowMatrixData.CASCADE_COUNT];
 
 	private RenderRegionBuilder regionBuilder;
@@ -96,7 +97,7 @@ public class WorldRenderState {
 
 		for (int i = 0; i < ShadowMatrixData.CASCADE_COUNT; ++i) {
 			shadowVisibleRegions[i] = new VisibleRegionList();
-			shadowDrawLists[i] = DrawableRegionList.EMPTY;
+			shadowDrawLists[i] = DrawableRegionList.create(false, true);
 		}
 	}
 
@@ -177,11 +178,10 @@ public class WorldRenderState {
 		}
 
 		areDrawListsValid = true;
+		final var metrics = TerrainMetrics.begin(TerrainMetrics.Stage.DRAW_LIST);
 
-		solidDrawList.close();
-		solidDrawList = DrawableRegionList.build(cameraVisibleRegions, false, false);
-		translucentDrawList.close();
-		translucentDrawList = DrawableRegionList.build(cameraVisibleRegions, true, false);
+		solidDrawList.update(cameraVisibleRegions);
+		translucentDrawList.update(cameraVisibleRegions);
 
 		terrainAnimationBits.clear();
 		final int cameraLimit = cameraVisibleRegions.size();
@@ -195,8 +195,7 @@ public class WorldRenderState {
 
 			for (int i = 0; i < 4; ++i) {
 				final var shadowList = shadowVisibleRegions[i];
-				shadowDrawLists[i].close();
-				shadowDrawLists[i] = DrawableRegionList.build(shadowList, false, true);
+				shadowDrawLists[i].update(shadowList);
 				shadowQuadCount += shadowDrawLists[i].quadCount();
 
 				final int shadowLimit = shadowList.size();
@@ -210,6 +209,8 @@ public class WorldRenderState {
 		} else {
 			drawlistDebugSummary = String.format("Visible quads: %,ds  %,dt", solidDrawList.quadCount(), translucentDrawList.quadCount());
 		}
+
+		TerrainMetrics.end(metrics);
 	}
 
 	public String drawlistDebugSummary() {
@@ -235,15 +236,11 @@ public class WorldRenderState {
 	}
 
 	void clearDrawSpecs() {
-		solidDrawList.close();
-		solidDrawList = DrawableRegionList.EMPTY;
-
-		translucentDrawList.close();
-		translucentDrawList = DrawableRegionList.EMPTY;
+		solidDrawList.clear();
+		translucentDrawList.clear();
 
 		for (int i = 0; i < 4; ++i) {
-			shadowDrawLists[i].close();
-			shadowDrawLists[i] = DrawableRegionList.EMPTY;
+			shadowDrawLists[i].clear();
 		}
 	}
 
@@ -59,6 +59,7 @@ import io.vram.frex.api.config.ShaderConfig;
 import io.vram.frex.api.material.MaterialConstants;
 
 import grondag.canvas.CanvasMod;
+import grondag.canvas.buffer.format.TerrainEncoder;
 import grondag.canvas.config.Configurator;
 import grondag.canvas.pipeline.Pipeline;
 import grondag.canvas.varia.CanvasGlHelper;
@@ -276,7 +277,7 @@ public class GlShader implements Shader {
 			}
 
 			if (programType.isTerrain) {
-				result = StringUtils.replace(result, "#define _CV_VERTEX_DEFAULT", "#define _CV_VERTEX_TERRAIN");
+				result = StringUtils.replace(result, "#define _CV_VERTEX_DEFAULT", TerrainEncoder.COMPACT ? "#define _CV_VERTEX_TERRAIN_COMPACT" : "#define _CV_VERTEX_TERRAIN");
 			}
 
 			if (programType.hasVertexProgramControl) {
@@ -20,8 +20,7 @@
 
 package grondag.canvas.shader;
 
-import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
-import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import java.util.BitSet;
 
 import grondag.canvas.CanvasMod;
 import grondag.canvas.config.Configurator;
@@ -36,17 +35,15 @@ public final class MaterialShaderIndexer {
 	}
 
 	public synchronized void register(int vertexShaderIndex, int fragmentShaderIndex, ProgramType programType) {
-		final long key = key(vertexShaderIndex, fragmentShaderIndex, programType);
-
-		if (KEYS.add(key)) {
+		if (PAIRS[programType.ordinal()].add(vertexShaderIndex, fragmentShaderIndex)) {
 			boolean isNew;
 
 			if (programType.isDepth) {
-				isNew = DEPTH_VERTEX_INDEXES.add(vertexShaderIndex);
-				isNew |= DEPTH_FRAGMENT_INDEXES.add(fragmentShaderIndex);
+				isNew = add(DEPTH_VERTEX_INDEXES, vertexShaderIndex);
+				isNew |= add(DEPTH_FRAGMENT_INDEXES, fragmentShaderIndex);
 			} else {
-				isNew = VERTEX_INDEXES.add(vertexShaderIndex);
-				isNew |= FRAGMENT_INDEXES.add(fragmentShaderIndex);
+				isNew = add(VERTEX_INDEXES, vertexShaderIndex);
+				isNew |= add(FRAGMENT_INDEXES, fragmentShaderIndex);
 			}
 
 			// ensure shaders are recompiled when new sub-shader source referenced
@@ -57,29 +54,46 @@ public final class MaterialShaderIndexer {
 	}
 
 	/** Tracks which vertex sub-shaders are in use by materials. */
-	private static final IntOpenHashSet VERTEX_INDEXES = new IntOpenHashSet();
+	private static final BitSet VERTEX_INDEXES = new BitSet();
 
 	/** Tracks which fragment sub-shaders are in use by materials. */
-	private static final IntOpenHashSet FRAGMENT_INDEXES = new IntOpenHashSet();
+	private static final BitSet FRAGMENT_INDEXES = new BitSet();
 
 	/** Tracks which vertex depth sub-shaders are in use by materials. */
-	private static final IntOpenHashSet DEPTH_VERTEX_INDEXES = new IntOpenHashSet();
+	private static final BitSet DEPTH_VERTEX_INDEXES = new BitSet();
 
 	/** Tracks which fragment depth sub-shaders are in use by materials. */
-	private static final IntOpenHashSet DEPTH_FRAGMENT_INDEXES = new IntOpenHashSet();
+	private static final BitSet DEPTH_FRAGMENT_INDEXES = new BitSet();
+
+	/** Registered vertex/fragment pairs, one table per program type. */
+	private static final ShaderIndexPairSet[] PAIRS = new ShaderIndexPairSet[ProgramType.values().length];
+
+	static {
+		for (int i = 0; i < PAIRS.length; ++i) {
+			PAIRS[i] = new ShaderIndexPairSet();
+		}
+	}
 
-	private static final LongOpenHashSet KEYS = new LongOpenHashSet();
+	private static boolean add(BitSet indexes, int index) {
+		if (indexes.get(index)) {
+			return false;
+		}
 
-	private static long key(int vertexShaderIndex, int fragmentShaderIndex, ProgramType programType) {
-		// PERF: don't need key space this big
-		return programType.ordinal() | ((long) fragmentShaderIndex << 16) | ((long) vertexShaderIndex << 32);
+		indexes.set(index);
+		return true;
 	}
 
+	/** Ascending, so generated switch statements have ordered case labels. */
 	static int[] vertexIds(ProgramType programType) {
-		return programType.isDepth ? DEPTH_VERTEX_INDEXES.toIntArray() : VERTEX_INDEXES.toIntArray();
+		synchronized (INSTANCE) {
+			return (programType.isDepth ? DEPTH_VERTEX_INDEXES : VERTEX_INDEXES).stream().toArray();
+		}
 	}
 
+	/** Ascending, so generated switch statements have ordered case labels. */
 	static int[] fragmentIds(ProgramType programType) {
-		return programType.isDepth ? DEPTH_FRAGMENT_INDEXES.toIntArray() : FRAGMENT_INDEXES.toIntArray();
+		synchronized (INSTANCE) {
+			return (programType.isDepth ? DEPTH_FRAGMENT_INDEXES : FRAGMENT_INDEXES).stream().toArray();
+		}
 	}
 }
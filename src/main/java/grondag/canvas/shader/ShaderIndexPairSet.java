@@ -0,0 +1,67 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.shader;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Set of vertex/fragment shader index pairs, with a bit set of fragment indices
+ * for each vertex index. Shader indices are list positions in the shader manager
+ * (see {@code vertexIdFromIndex}), so they start at zero and have no gaps.
+ */
+final class ShaderIndexPairSet {
+	private BitSet[] rows = new BitSet[8];
+	private int size = 0;
+
+	/** Returns true if the pair was not already present. */
+	boolean add(int vertexIndex, int fragmentIndex) {
+		if (vertexIndex >= rows.length) {
+			rows = Arrays.copyOf(rows, Math.max(rows.length * 2, vertexIndex + 1));
+		}
+
+		BitSet row = rows[vertexIndex];
+
+		if (row == null) {
+			row = new BitSet();
+			rows[vertexIndex] = row;
+		} else if (row.get(fragmentIndex)) {
+			return false;
+		}
+
+		row.set(fragmentIndex);
+		++size;
+		return true;
+	}
+
+	boolean contains(int vertexIndex, int fragmentIndex) {
+		if (vertexIndex >= rows.length) {
+			return false;
+		}
+
+		final BitSet row = rows[vertexIndex];
+		return row != null && row.get(fragmentIndex);
+	}
+
+	int size() {
+		return size;
+	}
+}
@@ -30,14 +30,15 @@ import io.vram.frex.base.renderer.BaseConditionManager;
 public final class IntData {
 	private IntData() { }
 
-	// PERF: should probably combine these into a single uint array
-
-	public static final int WORLD_DATA_INDEX = 0;
-	public static final int PLAYER_DATA_INDEX = 1;
-	public static final int CONDITION_DATA_START = 2;
-	public static final int INT_LENGTH = CONDITION_DATA_START + BaseConditionManager.CONDITION_FLAG_ARRAY_LENGTH;
+	// All per-frame integer data lives in one uint array so each program does a single upload.
+	// Offsets and length must match _cvu_uint in internal/world.glsl, see IntDataLayoutTest.
+	public static final int RENDER_FRAMES = 0;
+	public static final int WORLD_DATA_INDEX = 1;
+	public static final int PLAYER_DATA_INDEX = 2;
+	public static final int CONDITION_DATA_START = 3;
+	public static final int UINT_LENGTH = CONDITION_DATA_START + BaseConditionManager.CONDITION_FLAG_ARRAY_LENGTH;
 
-	public static final IntBuffer INT_DATA = BufferUtils.createIntBuffer(INT_LENGTH);
+	public static final IntBuffer UINT_DATA = BufferUtils.createIntBuffer(UINT_LENGTH);
 
 	private static final BitPacker32<Void> WORLD_FLAGS = new BitPacker32<>(null, null);
 	static final BitPacker32<Void>.BooleanElement FLAG_HAS_SKYLIGHT = WORLD_FLAGS.createBooleanElement();
@@ -104,8 +105,4 @@ public final class IntData {
 	static final BitPacker32<Void>.BooleanElement FLAG_DOLPHINS_GRACE = PLAYER_FLAGS.createBooleanElement();
 	static final BitPacker32<Void>.BooleanElement FLAG_BAD_OMEN = PLAYER_FLAGS.createBooleanElement();
 	static final BitPacker32<Void>.BooleanElement FLAG_HERO_OF_THE_VILLAGE = PLAYER_FLAGS.createBooleanElement();
-
-	public static final int UINT_COUNT = 1;
-	public static final int RENDER_FRAMES = 0;
-	public static final IntBuffer UINT_DATA = BufferUtils.createIntBuffer(UINT_COUNT);
 }
@@ -128,7 +128,6 @@ import static grondag.canvas.shader.data.IntData.FLAG_WATER_BREATHING;
 import static grondag.canvas.shader.data.IntData.FLAG_WEAKNESS;
 import static grondag.canvas.shader.data.IntData.FLAG_WET;
 import static grondag.canvas.shader.data.IntData.FLAG_WITHER;
-import static grondag.canvas.shader.data.IntData.INT_DATA;
 import static grondag.canvas.shader.data.IntData.PLAYER_DATA_INDEX;
 import static grondag.canvas.shader.data.IntData.RENDER_FRAMES;
 import static grondag.canvas.shader.data.IntData.UINT_DATA;
@@ -625,9 +624,8 @@ public class ShaderDataManager {
 			}
 		}
 
-		INT_DATA.put(WORLD_DATA_INDEX, worldFlags);
-		INT_DATA.put(PLAYER_DATA_INDEX, playerFlags);
-
+		UINT_DATA.put(WORLD_DATA_INDEX, worldFlags);
+		UINT_DATA.put(PLAYER_DATA_INDEX, playerFlags);
 		UINT_DATA.put(RENDER_FRAMES, renderFrames++);
 	}
 
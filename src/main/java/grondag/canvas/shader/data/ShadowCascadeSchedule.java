@@ -0,0 +1,151 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.shader.data;
+
+/**
+ * Decides which shadow cascades are re-rendered each frame.
+ *
+ * <p>The nearest (most detailed) cascade is always updated. With an interval
+ * greater than one, the far cascades are updated round-robin, spread evenly
+ * across the interval, and otherwise keep the content and projection from
+ * when they were last rendered. A retained cascade is only usable while the
+ * shadow view is unchanged and the camera hasn't drifted far from its center,
+ * so callers force an update when either rule is broken.
+ *
+ * <p>A cascade selected for update stays invalid until {@link #markRendered(int)}
+ * is called, so a frame that computes matrices but skips the shadow pass
+ * doesn't leave a cascade whose content and matrix disagree.
+ *
+ * <p>Pure CPU logic so that schedules can be tested without a GPU.
+ */
+public class ShadowCascadeSchedule {
+	/**
+	 * Largest movement of a retained cascade's projection, as a fraction of its radius,
+	 * relative to where a fresh projection would be centered.
+	 */
+	public static final float MAX_DRIFT_FRACTION = 0.125f;
+
+	private final int cascadeCount;
+	private final boolean[] valid;
+	private final boolean[] due;
+	private final long[] renderCount;
+	private final long[] skipCount;
+	private int frame;
+
+	public ShadowCascadeSchedule(int cascadeCount) {
+		this.cascadeCount = cascadeCount;
+		valid = new boolean[cascadeCount];
+		due = new boolean[cascadeCount];
+		renderCount = new long[cascadeCount];
+		skipCount = new long[cascadeCount];
+	}
+
+	/** Forces all cascades to update on the next frame. */
+	public void invalidateAll() {
+		for (int i = 0; i < cascadeCount; ++i) {
+			valid[i] = false;
+		}
+	}
+
+	/**
+	 * Call once per frame before cascade matrices are computed.
+	 *
+	 * @param interval     frames between updates of each far cascade, 1 or less updates every cascade every frame
+	 * @param viewChanged  true if the shadow view matrix differs from the prior frame
+	 */
+	public void beginFrame(int interval, boolean viewChanged) {
+		++frame;
+
+		if (viewChanged) {
+			invalidateAll();
+		}
+
+		for (int i = 0; i < cascadeCount; ++i) {
+			due[i] = !valid[i] || isScheduled(i, interval, frame);
+
+			if (due[i]) {
+				valid[i] = false;
+			}
+		}
+	}
+
+	/** Forces an update of the given cascade this frame. Call after {@link #beginFrame(int, boolean)}. */
+	public void forceUpdate(int cascade) {
+		due[cascade] = true;
+		valid[cascade] = false;
+	}
+
+	/** True if the cascade projection should be recomputed and the cascade rendered this frame. */
+	public boolean isDue(int cascade) {
+		return due[cascade];
+	}
+
+	public void markRendered(int cascade) {
+		assert due[cascade];
+		valid[cascade] = true;
+		++renderCount[cascade];
+	}
+
+	/** Call once per frame for each cascade not rendered. */
+	public void markSkipped(int cascade) {
+		++skipCount[cascade];
+	}
+
+	/**
+	 * Round-robin schedule. The nearest cascade (highest index) updates every frame
+	 * and far cascades are assigned evenly spaced phases within the interval.
+	 */
+	public boolean isScheduled(int cascade, int interval, int frame) {
+		if (interval <= 1 || cascade == cascadeCount - 1) {
+			return true;
+		}
+
+		final int phase = cascade * interval / (cascadeCount - 1);
+		return Math.floorMod(frame - phase, interval) == 0;
+	}
+
+	/**
+	 * True if a retained projection offset from the ideal center by the given
+	 * light-space distances still adequately covers the view.
+	 */
+	public static boolean isWithinDrift(float dx, float dy, float dz, float radius, float depthRadius) {
+		final float maxXy = radius * MAX_DRIFT_FRACTION;
+		return Math.abs(dx) <= maxXy && Math.abs(dy) <= maxXy && Math.abs(dz) <= depthRadius * MAX_DRIFT_FRACTION;
+	}
+
+	/**
+	 * Quantizes a celestial angle so the shadow view only changes in discrete steps,
+	 * which allows retained cascades to remain valid between steps.
+	 */
+	public static float snapAngle(float degrees, float stepDegrees) {
+		return stepDegrees <= 0 ? degrees : Math.round(degrees / stepDegrees) * stepDegrees;
+	}
+
+	/** Number of times the cascade has been rendered. */
+	public long renderCount(int cascade) {
+		return renderCount[cascade];
+	}
+
+	/** Number of frames the cascade was retained instead of rendered. */
+	public long skipCount(int cascade) {
+		return skipCount[cascade];
+	}
+}
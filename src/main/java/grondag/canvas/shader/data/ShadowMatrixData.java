@@ -62,6 +62,12 @@ public final class ShadowMatrixData {
 
 	public static final float[] cascadeCentersAndRadii = new float[16];
 
+	/** Controls which cascades are re-rendered each frame. See {@link ShadowCascadeSchedule}. */
+	public static final ShadowCascadeSchedule cascadeSchedule = new ShadowCascadeSchedule(CASCADE_COUNT);
+
+	/** Celestial angle quantization used when cascades are retained across frames. */
+	private static final float STAGGERED_ANGLE_STEP_DEGREES = 0.05f;
+
 	public static Matrix4f maxCascadeProjMatrix() {
 		return shadowProjMatrix[0];
 	}
@@ -80,6 +86,10 @@ public final class ShadowMatrixData {
 	private static float[] lastDx = new float[CASCADE_COUNT];
 	private static float[] lastDy = new float[CASCADE_COUNT];
 	private static double lastCameraX, lastCameraY, lastCameraZ;
+	private static float lastZenithAngle = Float.NaN;
+	private static float lastHourAngle = Float.NaN;
+	private static int lastSkyShadowSize;
+	private static final float[] lastDepthRadius = new float[CASCADE_COUNT];
 
 	private static float regionMaxExtent;
 
@@ -124,12 +134,23 @@ public final class ShadowMatrixData {
 
 		final int radius = (int) Math.ceil(Math.sqrt(viewDist * viewDist - halfDist * halfDist));
 
+		// When far cascades are retained across frames the light direction moves in
+		// small discrete steps so that retained cascades remain valid in between.
+		final int cascadeInterval = Configurator.shadowCascadeRefreshInterval;
+		final float angleStep = cascadeInterval > 1 ? STAGGERED_ANGLE_STEP_DEGREES : 0;
+		final float zenithAngle = ShadowCascadeSchedule.snapAngle(skyOutput.zenithAngle, angleStep);
+		final float hourAngle = ShadowCascadeSchedule.snapAngle(skyOutput.hourAngle, angleStep);
+		final boolean viewChanged = zenithAngle != lastZenithAngle || hourAngle != lastHourAngle || Pipeline.skyShadowSize != lastSkyShadowSize;
+		lastZenithAngle = zenithAngle;
+		lastHourAngle = hourAngle;
+		lastSkyShadowSize = Pipeline.skyShadowSize;
+
 		// Compute sky light vector transform - points towards the sun
 		shadowViewMatrix.setIdentity();
 		// FEAT: allow this to be configured by dimension - default value has north-south axis of rotation
 		shadowViewMatrix.multiply(Vector3f.YP.rotationDegrees(-90));
-		shadowViewMatrix.multiply(Vector3f.ZP.rotationDegrees(skyOutput.zenithAngle));
-		shadowViewMatrix.multiply(Vector3f.XP.rotationDegrees(skyOutput.hourAngle));
+		shadowViewMatrix.multiply(Vector3f.ZP.rotationDegrees(zenithAngle));
+		shadowViewMatrix.multiply(Vector3f.XP.rotationDegrees(hourAngle));
 		testVec.set(0, 1, 0, 0);
 		testVec.transform(shadowViewMatrix);
 		skyLightVector.set(testVec.x(), testVec.y(), testVec.z());
@@ -153,13 +174,15 @@ public final class ShadowMatrixData {
 
 			final float cdx = testVec.x();
 			final float cdy = testVec.y();
+			final float cdz = testVec.z();
 
 			final int[] radii = Pipeline.config().skyShadow.cascadeRadii;
 
-			updateCascadeInfo(0, radius, halfDist, radius, cdx, cdy);
-			updateCascadeInfo(1, radii[0], radii[0] * Configurator.shadowCenterFactor, radius, cdx, cdy);
-			updateCascadeInfo(2, radii[1], radii[1] * Configurator.shadowCenterFactor, radius, cdx, cdy);
-			updateCascadeInfo(3, radii[2], radii[2] * Configurator.shadowCenterFactor, radius, cdx, cdy);
+			cascadeSchedule.beginFrame(cascadeInterval, viewChanged);
+			updateCascadeInfo(0, radius, halfDist, radius, cdx, cdy, cdz);
+			updateCascadeInfo(1, radii[0], radii[0] * Configurator.shadowCenterFactor, radius, cdx, cdy, cdz);
+			updateCascadeInfo(2, radii[1], radii[1] * Configurator.shadowCenterFactor, radius, cdx, cdy, cdz);
+			updateCascadeInfo(3, radii[2], radii[2] * Configurator.shadowCenterFactor, radius, cdx, cdy, cdz);
 		}
 
 		lastCameraX = cameraXd;
@@ -193,8 +216,9 @@ public final class ShadowMatrixData {
 	 * @param depthRadius depth radius to use for depth projection - must always encompass entire scene depth
 	 * @param cdx	   movement of camera on X axis of light view since last frame
 	 * @param cdy	   movement of camera on Y axis of light view since last frame
+	 * @param cdz	   movement of camera on Z axis of light view since last frame
 	 */
-	private static void updateCascadeInfo(int cascade, int radius, float halfDist, int depthRadius, float cdx, float cdy) {
+	private static void updateCascadeInfo(int cascade, int radius, float halfDist, int depthRadius, float cdx, float cdy, float cdz) {
 		// Accumulate camera adjustment
 		float dx = lastDx[cascade] + cdx;
 		float dy = lastDy[cascade] + cdy;
@@ -228,6 +252,27 @@ public final class ShadowMatrixData {
 		cy = (float) (Math.floor(cy / worldPerPixel) * worldPerPixel) - dy;
 		cz = (float) (Math.ceil(cz / worldPerPixel) * worldPerPixel);
 
+		final int localOffset = cascade * 4;
+
+		if (!cascadeSchedule.isDue(cascade)) {
+			// Retained cascades keep the same world-space projection, which is
+			// shifted opposite to camera movement because coordinates are camera-relative.
+			final float rx = cascadeCentersAndRadii[localOffset] - cdx;
+			final float ry = cascadeCentersAndRadii[localOffset + 1] - cdy;
+			final float rz = cascadeCentersAndRadii[localOffset + 2] - cdz;
+
+			if (cascadeCentersAndRadii[localOffset + 3] == radius && lastDepthRadius[cascade] == depthRadius
+					&& ShadowCascadeSchedule.isWithinDrift(rx - cx, ry - cy, rz - cz, radius, depthRadius)) {
+				cx = rx;
+				cy = ry;
+				cz = rz;
+			} else {
+				cascadeSchedule.forceUpdate(cascade);
+			}
+		}
+
+		lastDepthRadius[cascade] = depthRadius;
+
 		// We previously use actual geometry depth to give better precision on Z.
 		// However, scenes are so variable that this causes problems for optimizing polygonOffset
 		// Z axis bounds are inverted because Z axis points towards negative end in OpenGL
@@ -240,7 +285,6 @@ public final class ShadowMatrixData {
 			cy - radius, cy + radius,
 			-(cz + depthRadius), -(cz - depthRadius));
 
-		final int localOffset = cascade * 4;
 		final int offset = SHADOW_CENTER + localOffset;
 
 		cascadeCentersAndRadii[localOffset] = cx;
@@ -277,6 +321,11 @@ public final class ShadowMatrixData {
 		}
 	}
 
+	/** Call when shadow map content is lost, for example when pipeline images are recreated. */
+	public static void invalidateCascades() {
+		cascadeSchedule.invalidateAll();
+	}
+
 	public static float regionMaxExtent() {
 		return regionMaxExtent;
 	}
@@ -25,33 +25,26 @@ import net.minecraft.core.BlockPos;
 import net.minecraft.world.phys.Vec3;
 
 public final class SortableVisibleRegionList extends VisibleRegionList {
-	private int sortPositionVersion;
-	private int lastSortPositionVersion;
-	private long lastCameraBlockPos = Long.MAX_VALUE;
-	private Vec3 lastSortPos = new Vec3(Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE);
+	private final TieredResortScheduler resortScheduler = new TieredResortScheduler();
 
 	@Override
 	public void clear() {
 		super.clear();
-		lastSortPos = new Vec3(Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE);
-		lastCameraBlockPos = Long.MAX_VALUE;
+		resortScheduler.reset();
 	}
 
-	/**
-	 * Incremented when player moves enough to trigger translucency resort.
-	 */
-	public int sortPositionVersion() {
-		return sortPositionVersion;
-	}
-
-	public Vec3 lastSortPos() {
-		return lastSortPos;
+	/** Exposes per-tier resort counters. */
+	public TieredResortScheduler resortScheduler() {
+		return resortScheduler;
 	}
 
 	/**
 	 * Checks build regions for translucent resort need and schedules
 	 * up to 16 of them per pass. Nearer regions are checked first and
-	 * the sort position version isn't updated until all regions are handled.
+	 * pending work isn't cleared until all regions are handled.
+	 *
+	 * <p>Distant regions are resorted only after larger camera movement.
+	 * See {@link TieredResortScheduler}.
 	 *
 	 * <p>Regions that are non-translucent, already scheduled or already current
 	 * won't count against the limit.  Resorts are fast and happen off thread -
@@ -63,46 +56,12 @@ public final class SortableVisibleRegionList extends VisibleRegionList {
 		final double z = cameraPos.z;
 
 		final long cameraBlockPos = BlockPos.asLong((int) Math.floor(x), (int) Math.floor(y), (int) Math.floor(z));
-		boolean movedEnoughToInvalidateSort = false;
-
-		if (cameraBlockPos != lastCameraBlockPos) {
-			lastCameraBlockPos = cameraBlockPos;
-			movedEnoughToInvalidateSort = true;
-		} else {
-			// can move 1.0 or more diagonally within same block pos
-			final double sdx = x - lastSortPos.x;
-			final double sdy = y - lastSortPos.y;
-			final double sdz = z - lastSortPos.z;
-			movedEnoughToInvalidateSort = sdx * sdx + sdy * sdy + sdz * sdz >= 1.0D;
-		}
+		resortScheduler.updateCamera(x, y, z, cameraBlockPos);
 
-		if (movedEnoughToInvalidateSort) {
-			++sortPositionVersion;
-			lastSortPos = cameraPos;
-		}
-
-		final int positionVersion = sortPositionVersion;
-
-		if (positionVersion != lastSortPositionVersion) {
+		if (resortScheduler.hasPendingWork()) {
 			final Minecraft mc = Minecraft.getInstance();
 			mc.getProfiler().push("translucent_sort");
-			final int limit = visibleRegionCount;
-			int count = 0;
-			int i;
-
-			// PERF: probably a way to sort more distant regions less frequently
-			for (i = 0; i < limit; i++) {
-				if (visibleRegions[i].scheduleSort(positionVersion)) {
-					if (++count > 16) {
-						break;
-					}
-				}
-			}
-
-			if (i == limit) {
-				lastSortPositionVersion = positionVersion;
-			}
-
+			resortScheduler.schedule(visibleRegions, visibleRegionCount);
 			mc.getProfiler().pop();
 		}
 	}
@@ -38,6 +38,7 @@ import grondag.bitraster.PackedBox;
 import grondag.canvas.CanvasMod;
 import grondag.canvas.apiimpl.rendercontext.CanvasTerrainRenderContext;
 import grondag.canvas.config.Configurator;
+import grondag.canvas.perf.TerrainMetrics;
 import grondag.canvas.pipeline.Pipeline;
 import grondag.canvas.render.frustum.TerrainFrustum;
 import grondag.canvas.render.world.WorldRenderState;
@@ -217,6 +218,7 @@ public class TerrainIterator implements TerrainExecutorTask {
 	public void run(CanvasTerrainRenderContext ignored) {
 		assert state.get() == READY;
 		state.set(RUNNING);
+		final var metrics = TerrainMetrics.begin(TerrainMetrics.Stage.ITERATION);
 
 		try {
 			worldRenderState.renderRegionStorage.updateRegionPositionAndVisibility();
@@ -264,6 +266,8 @@ public class TerrainIterator implements TerrainExecutorTask {
 			cancelled = true;
 			state.set(IDLE);
 		}
+
+		TerrainMetrics.end(metrics);
 	}
 
 	private void primeCameraRegions() {
@@ -0,0 +1,193 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.terrain.occlusion;
+
+/**
+ * Decides which visible regions need a translucent resort as the camera moves.
+ *
+ * <p>Regions are grouped into tiers by squared chunk distance from the camera.
+ * Each tier has its own movement threshold and sort position version, so nearby
+ * regions are resorted whenever the camera enters a new block or moves one block,
+ * while distant regions - whose quad ordering barely changes - wait for larger moves.
+ * Tier versions are drawn from a single counter so that a region moving between
+ * tiers always sees a changed version and is resorted once.
+ *
+ * <p>Has no dependency on GL or game state so that camera paths can be scripted in tests.
+ */
+public class TieredResortScheduler {
+	public interface Region {
+		int squaredCameraChunkDistance();
+
+		/**
+		 * Should return true only if a resort was actually scheduled, meaning
+		 * the region is translucent, the version was stale, and it wasn't already queued.
+		 */
+		boolean scheduleSort(int sortPositionVersion);
+	}
+
+	public static final int TIER_COUNT = 4;
+
+	/** Regions with squared chunk distance at or below these values fall in the matching tier. */
+	private static final int[] TIER_MAX_SQ_CHUNK_DIST = {4 * 4, 8 * 8, 16 * 16};
+
+	/** Squared camera movement (blocks) that invalidates sorting for each tier. */
+	private static final double[] TIER_SQ_THRESHOLD = {1.0 * 1.0, 2.0 * 2.0, 4.0 * 4.0, 8.0 * 8.0};
+
+	/** Maximum resorts scheduled per pass, to avoid overloading buffer uploads. */
+	public static final int MAX_SCHEDULED_PER_PASS = 16;
+
+	private final int[] tierVersion = new int[TIER_COUNT];
+	private final double[] tierX = new double[TIER_COUNT];
+	private final double[] tierY = new double[TIER_COUNT];
+	private final double[] tierZ = new double[TIER_COUNT];
+
+	private final long[] checkedCount = new long[TIER_COUNT];
+	private final long[] scheduledCount = new long[TIER_COUNT];
+	private final long[] invalidationCount = new long[TIER_COUNT];
+
+	private int versionCounter;
+	private int lastCompletedVersion;
+	private long lastCameraBlockPos;
+
+	public TieredResortScheduler() {
+		reset();
+	}
+
+	/** Forces all tiers to be invalidated on the next camera update. */
+	public void reset() {
+		for (int i = 0; i < TIER_COUNT; ++i) {
+			tierX[i] = Double.MAX_VALUE;
+			tierY[i] = Double.MAX_VALUE;
+			tierZ[i] = Double.MAX_VALUE;
+		}
+
+		lastCameraBlockPos = Long.MAX_VALUE;
+	}
+
+	public static int tier(int squaredChunkDistance) {
+		if (squaredChunkDistance <= TIER_MAX_SQ_CHUNK_DIST[0]) {
+			return 0;
+		} else if (squaredChunkDistance <= TIER_MAX_SQ_CHUNK_DIST[1]) {
+			return 1;
+		} else if (squaredChunkDistance <= TIER_MAX_SQ_CHUNK_DIST[2]) {
+			return 2;
+		} else {
+			return 3;
+		}
+	}
+
+	/**
+	 * Advances the version of every tier whose movement threshold has been exceeded.
+	 *
+	 * @param cameraBlockPos packed block position of the camera, used only by the nearest tier
+	 * @return true if any tier was invalidated
+	 */
+	public boolean updateCamera(double x, double y, double z, long cameraBlockPos) {
+		boolean result = false;
+
+		for (int i = 0; i < TIER_COUNT; ++i) {
+			final double dx = x - tierX[i];
+			final double dy = y - tierY[i];
+			final double dz = z - tierZ[i];
+
+			// nearest tier also resorts on block change - can move 1.0 or more diagonally within same block pos
+			boolean invalidate = dx * dx + dy * dy + dz * dz >= TIER_SQ_THRESHOLD[i];
+
+			if (i == 0 && cameraBlockPos != lastCameraBlockPos) {
+				lastCameraBlockPos = cameraBlockPos;
+				invalidate = true;
+			}
+
+			if (invalidate) {
+				tierVersion[i] = ++versionCounter;
+				tierX[i] = x;
+				tierY[i] = y;
+				tierZ[i] = z;
+				++invalidationCount[i];
+				result = true;
+			}
+		}
+
+		return result;
+	}
+
+	/** True when at least one tier has been invalidated since the last complete pass. */
+	public boolean hasPendingWork() {
+		return versionCounter != lastCompletedVersion;
+	}
+
+	/**
+	 * Checks regions in order (nearer regions are expected first) and schedules
+	 * up to {@link #MAX_SCHEDULED_PER_PASS} resorts. Work remains pending until
+	 * a pass reaches the end of the list.
+	 *
+	 * @return number of resorts scheduled
+	 */
+	public int schedule(Region[] regions, int count) {
+		if (!hasPendingWork()) {
+			return 0;
+		}
+
+		final int targetVersion = versionCounter;
+		int scheduled = 0;
+		int i;
+
+		for (i = 0; i < count; ++i) {
+			final Region region = regions[i];
+			final int tier = tier(region.squaredCameraChunkDistance());
+			++checkedCount[tier];
+
+			if (region.scheduleSort(tierVersion[tier])) {
+				++scheduledCount[tier];
+
+				if (++scheduled > MAX_SCHEDULED_PER_PASS) {
+					break;
+				}
+			}
+		}
+
+		if (i == count) {
+			lastCompletedVersion = targetVersion;
+		}
+
+		return scheduled;
+	}
+
+	/** Current sort position version for the given tier. */
+	public int tierVersion(int tier) {
+		return tierVersion[tier];
+	}
+
+	/** Number of regions checked for each tier since startup. */
+	public long checkedCount(int tier) {
+		return checkedCount[tier];
+	}
+
+	/** Number of resorts scheduled for each tier since startup. */
+	public long scheduledCount(int tier) {
+		return scheduledCount[tier];
+	}
+
+	/** Number of times each tier's sort position version has advanced since startup. */
+	public long invalidationCount(int tier) {
+		return invalidationCount[tier];
+	}
+}
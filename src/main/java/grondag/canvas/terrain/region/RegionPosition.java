@@ -24,8 +24,9 @@ import net.minecraft.core.BlockPos;
 import net.minecraft.world.phys.Vec3;
 
 import grondag.bitraster.PackedBox;
+import grondag.canvas.config.Configurator;
 import grondag.canvas.pipeline.Pipeline;
-import grondag.canvas.render.frustum.TerrainFrustum.RegionVisibilityTest;
+import grondag.canvas.render.frustum.RegionFrustumCuller;
 import grondag.canvas.render.terrain.drawlist.DrawListCullingHelper;
 import grondag.canvas.render.world.WorldRenderState;
 import grondag.canvas.terrain.occlusion.TerrainIterator;
@@ -37,7 +38,7 @@ public class RegionPosition extends BlockPos {
 	private final WorldRenderState worldRenderState;
 	private final TerrainIterator terrainIterator;
 	private final DrawListCullingHelper cullingHelper;
-	private final RegionVisibilityTest cameraFrustumTest;
+	private final RegionFrustumCuller cameraFrustumCuller;
 
 	private final long packed;
 
@@ -70,6 +71,9 @@ public class RegionPosition extends BlockPos {
 	/** See {@link #isNear()}. */
 	private boolean isNear;
 
+	/** See {@link #isLod()}. */
+	private boolean isLod;
+
 	/** See {@link #fuzz()}. */
 	private int fuzz;
 
@@ -99,7 +103,7 @@ public class RegionPosition extends BlockPos {
 		worldRenderState = owner.worldRenderState;
 		terrainIterator = worldRenderState.terrainIterator;
 		cullingHelper = worldRenderState.drawListCullingHlper;
-		cameraFrustumTest = worldRenderState.terrainFrustum.visibilityTest;
+		cameraFrustumCuller = worldRenderState.terrainFrustum.regionCuller;
 
 		chunkY = getY() >> 4;
 		packed = packedPos;
@@ -137,12 +141,30 @@ public class RegionPosition extends BlockPos {
 			squaredCameraChunkDistance = owner.renderChunk.horizontalSquaredDistance + cy * cy;
 			isInsideRenderDistance = squaredCameraChunkDistance <= worldRenderState.maxSquaredChunkRenderDistance();
 			isNear = squaredCameraChunkDistance <= 3;
+			updateLod();
 			// Based on trial-and-error
 			fuzz = squaredCameraChunkDistance >= 7 * 7 ? 1 : 0;
 			occlusionRange = PackedBox.rangeFromSquareChunkDist(squaredCameraChunkDistance);
 		}
 	}
 
+	private void updateLod() {
+		final int lodDistance = Configurator.lodChunkDistance;
+		final boolean wasLod = isLod;
+
+		if (lodDistance == 0 || isNear) {
+			isLod = false;
+		} else {
+			// One chunk of hysteresis so regions at the boundary don't flip on every camera move
+			final int threshold = wasLod ? lodDistance : lodDistance + 1;
+			isLod = squaredCameraChunkDistance > threshold * threshold;
+		}
+
+		if (isLod != wasLod) {
+			owner.markForBuild(false);
+		}
+	}
+
 	private void computeViewDependentValues() {
 		final CameraVisibility cameraPVS = terrainIterator.cameraVisibility;
 		final int frustumViewVersion = cameraPVS.frustumViewVersion();
@@ -168,9 +190,24 @@ public class RegionPosition extends BlockPos {
 				}
 			}
 
-			//  PERF: implement hierarchical tests with propagation of per-plane inside test results
-			isPotentiallyVisibleFromCamera = isInsideRenderDistance && cameraFrustumTest.isVisible(this);
+			isPotentiallyVisibleFromCamera = isInsideRenderDistance && isInCameraFrustum();
+		}
+	}
+
+	/**
+	 * Tests the 128-block group holding this region first. The group result is shared
+	 * by all regions in the group, so most regions skip some or all plane tests.
+	 */
+	private boolean isInCameraFrustum() {
+		final RegionFrustumCuller culler = cameraFrustumCuller;
+		final Vec3 cameraPos = terrainIterator.cameraVisibility.frustumCameraPos();
+		final int planeMask = culler.groupPlaneMask(getX(), getY(), getZ(), cameraPos.x, cameraPos.y, cameraPos.z, cameraFrustumPositionVersion);
+
+		if (planeMask == RegionFrustumCuller.REJECTED) {
+			return false;
 		}
+
+		return planeMask == 0 || culler.isRegionVisible(cameraRelativeCenterX, cameraRelativeCenterY, cameraRelativeCenterZ, planeMask);
 	}
 
 	/** Flag 6 (unassigned) will always be set. */
@@ -210,6 +247,14 @@ public class RegionPosition extends BlockPos {
 		return isNear;
 	}
 
+	/**
+	 * True when the region is far enough from the camera to be built as a simplified
+	 * mesh instead of full block models. Changes mark the region for rebuild.
+	 */
+	public boolean isLod() {
+		return isLod;
+	}
+
 	/**
 	 * Means what the name suggests.  Note that retention distance is longer.
 	 * Does not mean region is visible or within the view frustum.
@@ -29,6 +29,7 @@ import java.util.concurrent.atomic.AtomicReference;
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import it.unimi.dsi.fastutil.objects.ObjectIterator;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import org.jetbrains.annotations.Nullable;
 
 import com.mojang.blaze3d.systems.RenderSystem;
 
@@ -44,9 +45,7 @@ import net.minecraft.world.level.block.state.BlockState;
 import net.minecraft.world.level.material.FluidState;
 import net.minecraft.world.phys.Vec3;
 
-import io.vram.frex.api.math.FastMatrix3f;
 import io.vram.frex.api.math.FastMatrix4f;
-import io.vram.frex.api.math.MatrixStack;
 import io.vram.frex.api.model.fluid.FluidModel;
 
 import grondag.canvas.apiimpl.rendercontext.CanvasTerrainRenderContext;
@@ -54,11 +53,14 @@ import grondag.canvas.buffer.input.DrawableVertexCollector;
 import grondag.canvas.buffer.input.VertexCollectorList;
 import grondag.canvas.material.state.TerrainRenderStates;
 import grondag.canvas.perf.ChunkRebuildCounters;
+import grondag.canvas.perf.RegionLatency;
+import grondag.canvas.perf.TerrainMetrics;
 import grondag.canvas.pipeline.Pipeline;
 import grondag.canvas.render.terrain.TerrainSectorMap.RegionRenderSector;
 import grondag.canvas.render.terrain.base.DrawableRegion;
 import grondag.canvas.render.terrain.base.UploadableRegion;
 import grondag.canvas.render.world.WorldRenderState;
+import grondag.canvas.terrain.occlusion.TieredResortScheduler;
 import grondag.canvas.terrain.occlusion.camera.CameraRegionVisibility;
 import grondag.canvas.terrain.occlusion.geometry.RegionOcclusionCalculator;
 import grondag.canvas.terrain.occlusion.shadow.ShadowRegionVisibility;
@@ -69,7 +71,7 @@ import grondag.canvas.terrain.util.RenderRegionStateIndexer;
 import grondag.canvas.terrain.util.TerrainExecutor;
 import grondag.canvas.terrain.util.TerrainExecutorTask;
 
-public class RenderRegion implements TerrainExecutorTask {
+public class RenderRegion implements TerrainExecutorTask, TieredResortScheduler.Region {
 	private final RenderRegionBuilder renderRegionBuilder;
 
 	final WorldRenderState worldRenderState;
@@ -108,6 +110,21 @@ public class RenderRegion implements TerrainExecutorTask {
 	 */
 	private boolean needsRebuild;
 	private boolean needsImportantRebuild;
+
+	/**
+	 * Nano time of the earliest rebuild request not yet captured, or zero if none.
+	 * Only maintained when terrain metrics are enabled.
+	 */
+	private long markNanos;
+
+	/**
+	 * Latency sample for the build scheduled off thread, if any. Set by main thread
+	 * during schedule and retrieved by worker right before building. Left in place,
+	 * or put back, if the build is aborted so that a later schedule keeps the original
+	 * mark time. Cleared by {@link #cancel()}, which only happens when the region closes.
+	 */
+	private final AtomicReference<RegionLatency.Sample> pendingLatency = new AtomicReference<>();
+
 	private DrawableRegion translucentDrawable = DrawableRegion.EMPTY_DRAWABLE;
 	private DrawableRegion solidDrawable = DrawableRegion.EMPTY_DRAWABLE;
 	public final BitSet animationBits = new BitSet();
@@ -182,6 +199,10 @@ public class RenderRegion implements TerrainExecutorTask {
 		final boolean neededRebuild = needsRebuild;
 		needsRebuild = true;
 		needsImportantRebuild = isImportant | (neededRebuild && needsImportantRebuild);
+
+		if (TerrainMetrics.ENABLED && markNanos == 0) {
+			markNanos = System.nanoTime();
+		}
 	}
 
 	/**
@@ -190,6 +211,16 @@ public class RenderRegion implements TerrainExecutorTask {
 	private void markBuilt() {
 		needsRebuild = false;
 		needsImportantRebuild = false;
+		markNanos = 0;
+	}
+
+	/**
+	 * Call when world data are captured, before {@link #markBuilt()}.
+	 * Consumes any sample for a build that was scheduled but never started.
+	 */
+	private @Nullable RegionLatency.Sample captureLatency() {
+		final RegionLatency.Sample prior = pendingLatency.getAndSet(null);
+		return RegionLatency.capture(prior == null ? markNanos : prior.markNanos(), needsImportantRebuild(), origin.isNear());
 	}
 
 	public boolean needsRebuild() {
@@ -203,6 +234,10 @@ public class RenderRegion implements TerrainExecutorTask {
 	public void prepareAndExecuteRebuildTask() {
 		final PackedInputRegion region = PackedInputRegion.claim(worldRenderState.getWorld(), origin);
 
+		if (TerrainMetrics.ENABLED) {
+			pendingLatency.set(captureLatency());
+		}
+
 		// Idle region is signal to reschedule
 		// If region is something other than idle, we are already in the queue
 		// and we only need to update the input protoRegion (which we do here.)
@@ -225,6 +260,7 @@ public class RenderRegion implements TerrainExecutorTask {
 	 * @param sortPositionVersion The most recent position version counter - for comparision.
 	 * @return true if a resort was scheduled
 	 */
+	@Override
 	public boolean scheduleSort(int sortPositionVersion) {
 		final RegionBuildState regionData = buildState.get();
 
@@ -245,6 +281,7 @@ public class RenderRegion implements TerrainExecutorTask {
 	protected void cancel() {
 		inputState.set(SignalInputRegion.INVALID);
 		inputState = new AtomicReference<>(SignalInputRegion.IDLE);
+		pendingLatency.set(null);
 	}
 
 	@Override
@@ -252,6 +289,11 @@ public class RenderRegion implements TerrainExecutorTask {
 		return origin.squaredCameraChunkDistance();
 	}
 
+	@Override
+	public int squaredCameraChunkDistance() {
+		return origin.squaredCameraChunkDistance();
+	}
+
 	private void notifyOcclusionChange() {
 		cameraVisibility.notifyOfOcclusionChange();
 		shadowVisibility.notifyOfOcclusionChange();
@@ -267,6 +309,12 @@ public class RenderRegion implements TerrainExecutorTask {
 		}
 
 		if (protoRegion == SignalInputRegion.EMPTY) {
+			final RegionLatency.Sample latency = pendingLatency.getAndSet(null);
+
+			if (latency != null) {
+				latency.onStart();
+			}
+
 			final RegionBuildState chunkData = new RegionBuildState();
 			chunkData.setOcclusionResult(RegionOcclusionCalculator.EMPTY_OCCLUSION_RESULT);
 
@@ -278,6 +326,11 @@ public class RenderRegion implements TerrainExecutorTask {
 				notifyOcclusionChange();
 			}
 
+			if (latency != null) {
+				latency.onBuilt();
+				latency.onApplied();
+			}
+
 			return;
 		}
 
@@ -309,8 +362,11 @@ public class RenderRegion implements TerrainExecutorTask {
 				final VertexCollectorList collectors = context.encoder.collectors;
 				final DrawableVertexCollector collector = collectors.get(TerrainRenderStates.TRANSLUCENT_TERRAIN);
 				collector.loadState(state);
+				final var sortMetrics = TerrainMetrics.begin(TerrainMetrics.Stage.SORT);
+				final boolean didSort = collector.sortTerrainQuads(worldRenderState.sectorManager.cameraPos(), renderSector);
+				TerrainMetrics.end(sortMetrics, origin.asLong());
 
-				if (collector.sortTerrainQuads(worldRenderState.sectorManager.cameraPos(), renderSector)) {
+				if (didSort) {
 					regionData.translucentState = collector.saveState(state);
 
 					if (runningState.get() != SignalInputRegion.INVALID) {
@@ -322,10 +378,14 @@ public class RenderRegion implements TerrainExecutorTask {
 									ChunkRebuildCounters.startUpload();
 								}
 
+								final var metrics = TerrainMetrics.begin(TerrainMetrics.Stage.UPLOAD);
+
 								translucentDrawable.releaseFromRegion();
 								translucentDrawable = upload.produceDrawable();
 								worldRenderState.invalidateDrawLists();
 
+								TerrainMetrics.end(metrics, origin.asLong());
+
 								if (ChunkRebuildCounters.ENABLED) {
 									ChunkRebuildCounters.completeUpload();
 								}
@@ -337,12 +397,19 @@ public class RenderRegion implements TerrainExecutorTask {
 				collectors.clear();
 			}
 		} else {
+			final RegionLatency.Sample latency = pendingLatency.getAndSet(null);
+
+			if (latency != null) {
+				latency.onStart();
+			}
+
 			context.prepareForRegion(protoRegion);
 			final RegionBuildState newBuildState = captureAndSetBuildState(context, origin.isNear());
 			context.encoder.updateSector(renderSector, origin);
 			final VertexCollectorList collectors = context.encoder.collectors;
 
 			if (runningState.get() == SignalInputRegion.INVALID) {
+				restoreLatency(latency);
 				collectors.clear();
 				protoRegion.release();
 				return;
@@ -350,6 +417,10 @@ public class RenderRegion implements TerrainExecutorTask {
 
 			buildTerrain(context, newBuildState);
 
+			if (latency != null) {
+				latency.onBuilt();
+			}
+
 			if (runningState.get() != SignalInputRegion.INVALID) {
 				final UploadableRegion solidUpload = collectors.toUploadableChunk(false, origin, worldRenderState);
 				final UploadableRegion translucentUpload = collectors.toUploadableChunk(true, origin, worldRenderState);
@@ -359,6 +430,8 @@ public class RenderRegion implements TerrainExecutorTask {
 						ChunkRebuildCounters.startUpload();
 					}
 
+					final var metrics = TerrainMetrics.begin(TerrainMetrics.Stage.UPLOAD);
+
 					releaseDrawables();
 					solidDrawable = solidUpload.produceDrawable();
 					translucentDrawable = translucentUpload.produceDrawable();
@@ -366,10 +439,18 @@ public class RenderRegion implements TerrainExecutorTask {
 					animationBits.or(context.encoder.animationBits);
 					worldRenderState.invalidateDrawLists();
 
+					TerrainMetrics.end(metrics, origin.asLong());
+
+					if (latency != null) {
+						latency.onApplied();
+					}
+
 					if (ChunkRebuildCounters.ENABLED) {
 						ChunkRebuildCounters.completeUpload();
 					}
 				});
+			} else {
+				restoreLatency(latency);
 			}
 
 			collectors.clear();
@@ -377,6 +458,13 @@ public class RenderRegion implements TerrainExecutorTask {
 		}
 	}
 
+	/** Puts back the sample of an aborted build unless a newer schedule has already replaced it. */
+	private void restoreLatency(@Nullable RegionLatency.Sample latency) {
+		if (latency != null) {
+			pendingLatency.compareAndSet(null, latency);
+		}
+	}
+
 	private RegionBuildState captureAndSetBuildState(CanvasTerrainRenderContext context, boolean isNear) {
 		final RegionBuildState newBuildState = new RegionBuildState();
 		newBuildState.setOcclusionResult(context.region.occlusion.build(isNear));
@@ -403,24 +491,42 @@ public class RenderRegion implements TerrainExecutorTask {
 			ChunkRebuildCounters.startChunk();
 		}
 
+		final var metrics = TerrainMetrics.begin(TerrainMetrics.Stage.BUILD);
+
 		context.renderBakeListeners();
 
 		final VertexCollectorList collectors = context.encoder.collectors;
 
+		context.matrixStack.normalMatrix().f_setIdentity();
+
+		if (origin.isLod()) {
+			context.renderLod();
+		} else {
+			buildBlocks(context);
+		}
+
+		buildState.prepareTranslucentIfNeeded(worldRenderState.sectorManager.cameraPos(), renderSector, collectors);
+
+		TerrainMetrics.end(metrics, origin.asLong());
+
+		if (ChunkRebuildCounters.ENABLED) {
+			ChunkRebuildCounters.completeChunk();
+		}
+	}
+
+	private void buildBlocks(CanvasTerrainRenderContext context) {
 		final BlockPos.MutableBlockPos searchPos = context.searchPos;
 		final int xOrigin = origin.getX();
 		final int yOrigin = origin.getY();
 		final int zOrigin = origin.getZ();
 
 		final InputRegion region = context.region;
-		final MatrixStack matrixStack = context.matrixStack;
-		final FastMatrix4f modelMatrix = matrixStack.modelMatrix();
-		final FastMatrix3f normalMatrix = matrixStack.normalMatrix();
-		normalMatrix.f_setIdentity();
-
+		final FastMatrix4f modelMatrix = context.matrixStack.modelMatrix();
 		final BlockRenderDispatcher blockRenderManager = Minecraft.getInstance().getBlockRenderer();
 		final RegionOcclusionCalculator occlusionRegion = region.occlusion;
 
+		region.prefillBrightness();
+
 		for (int i = 0; i < RenderRegionStateIndexer.INTERIOR_STATE_COUNT; i++) {
 			if (occlusionRegion.shouldRender(i)) {
 				final BlockState blockState = region.getLocalBlockState(i);
@@ -458,12 +564,6 @@ public class RenderRegion implements TerrainExecutorTask {
 				}
 			}
 		}
-
-		buildState.prepareTranslucentIfNeeded(worldRenderState.sectorManager.cameraPos(), renderSector, collectors);
-
-		if (ChunkRebuildCounters.ENABLED) {
-			ChunkRebuildCounters.completeChunk();
-		}
 	}
 
 	private void handleBlockEntities(RegionBuildState regionData, CanvasTerrainRenderContext context) {
@@ -510,6 +610,7 @@ public class RenderRegion implements TerrainExecutorTask {
 
 	public void rebuildOnMainThread() {
 		final PackedInputRegion inputRegion = PackedInputRegion.claim(worldRenderState.getWorld(), origin);
+		final RegionLatency.Sample latency = TerrainMetrics.ENABLED ? captureLatency() : null;
 
 		if (inputRegion == SignalInputRegion.EMPTY) {
 			final RegionBuildState newBuildState = new RegionBuildState();
@@ -529,10 +630,16 @@ public class RenderRegion implements TerrainExecutorTask {
 
 			buildTerrain(context, newBuildState);
 
+			if (latency != null) {
+				latency.onBuilt();
+			}
+
 			if (ChunkRebuildCounters.ENABLED) {
 				ChunkRebuildCounters.startUpload();
 			}
 
+			final var metrics = TerrainMetrics.begin(TerrainMetrics.Stage.UPLOAD);
+
 			final VertexCollectorList collectors = context.encoder.collectors;
 			final UploadableRegion solidUpload = collectors.toUploadableChunk(false, origin, worldRenderState);
 			final UploadableRegion translucentUpload = collectors.toUploadableChunk(true, origin, worldRenderState);
@@ -545,6 +652,8 @@ public class RenderRegion implements TerrainExecutorTask {
 
 			worldRenderState.invalidateDrawLists();
 
+			TerrainMetrics.end(metrics, origin.asLong());
+
 			if (ChunkRebuildCounters.ENABLED) {
 				ChunkRebuildCounters.completeUpload();
 			}
@@ -553,6 +662,10 @@ public class RenderRegion implements TerrainExecutorTask {
 			inputRegion.release();
 		}
 
+		if (latency != null) {
+			latency.onApplied();
+		}
+
 		markBuilt();
 	}
 
@@ -62,6 +62,11 @@ public class RenderRegionBuilder {
 		uploadQueue.offer(task);
 	}
 
+	/** For diagnostics only - size is not constant-time. */
+	public int uploadQueueDepth() {
+		return uploadQueue.size();
+	}
+
 	public boolean isEmpty() {
 		return TerrainExecutor.INSTANCE.isEmpty() && uploadQueue.isEmpty();
 	}
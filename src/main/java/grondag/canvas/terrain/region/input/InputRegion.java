@@ -65,9 +65,10 @@ import static grondag.canvas.terrain.util.RenderRegionStateIndexer.SIDE_INDEX_Z0
 import static grondag.canvas.terrain.util.RenderRegionStateIndexer.SIDE_INDEX_Z2;
 import static grondag.canvas.terrain.util.RenderRegionStateIndexer.TOTAL_STATE_COUNT;
 import static grondag.canvas.terrain.util.RenderRegionStateIndexer.interiorIndex;
+import static grondag.canvas.terrain.util.RenderRegionStateIndexer.regionIndex;
 import static grondag.canvas.terrain.util.RenderRegionStateIndexer.regionIndexToPackedSectionPos;
 
-import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
 
 import it.unimi.dsi.fastutil.objects.ObjectArrayList;
 import it.unimi.dsi.fastutil.shorts.ShortArrayList;
@@ -95,14 +96,21 @@ import grondag.canvas.terrain.util.ChunkColorCache;
 
 // FIX: should not allow direct world access, esp from non-main threads
 public class InputRegion extends AbstractInputRegion implements BlockAndTintGetter {
-	private static final int[] EMPTY_AO_CACHE = new int[TOTAL_STATE_COUNT];
-	private static final int[] EMPTY_LIGHT_CACHE = new int[TOTAL_STATE_COUNT];
 	private static final Object[] EMPTY_RENDER_DATA = new Object[INTERIOR_STATE_COUNT];
 	private static final BlockEntity[] EMPTY_BLOCK_ENTITIES = new BlockEntity[INTERIOR_STATE_COUNT];
 
+	private static final int[] PREFILL_INDEX = new int[LightAoCache.PREFILL_COUNT];
+
 	static {
-		Arrays.fill(EMPTY_AO_CACHE, Integer.MAX_VALUE);
-		Arrays.fill(EMPTY_LIGHT_CACHE, Integer.MAX_VALUE);
+		int i = 0;
+
+		for (int z = -1; z <= 16; ++z) {
+			for (int y = -1; y <= 16; ++y) {
+				for (int x = -1; x <= 16; ++x) {
+					PREFILL_INDEX[i++] = regionIndex(x, y, z);
+				}
+			}
+		}
 	}
 
 	public final BlockEntity[] blockEntities = new BlockEntity[INTERIOR_STATE_COUNT];
@@ -128,9 +136,8 @@ public class InputRegion extends AbstractInputRegion implements BlockAndTintGett
 		}
 	};
 
-	// PERF: pack for reduced memory, better LOC
-	private final int[] aoCache = new int[TOTAL_STATE_COUNT];
-	private final int[] lightCache = new int[TOTAL_STATE_COUNT];
+	private final LightAoCache lightAoCache = new LightAoCache(TOTAL_STATE_COUNT, PREFILL_INDEX);
+	private final IntUnaryOperator brightnessFunction = this::computeBrightness;
 
 	public InputRegion(CanvasTerrainRenderContext terrainContext) {
 		this.terrainContext = terrainContext;
@@ -143,8 +150,7 @@ public class InputRegion extends AbstractInputRegion implements BlockAndTintGett
 		System.arraycopy(packedRegion.chunks, 0, chunks, 0, 16);
 		System.arraycopy(EMPTY_BLOCK_ENTITIES, 0, blockEntities, 0, INTERIOR_STATE_COUNT);
 		System.arraycopy(EMPTY_RENDER_DATA, 0, renderData, 0, INTERIOR_STATE_COUNT);
-		System.arraycopy(EMPTY_AO_CACHE, 0, aoCache, 0, TOTAL_STATE_COUNT);
-		System.arraycopy(EMPTY_LIGHT_CACHE, 0, lightCache, 0, TOTAL_STATE_COUNT);
+		lightAoCache.clear();
 
 		world = packedRegion.world;
 
@@ -365,26 +371,48 @@ public class InputRegion extends AbstractInputRegion implements BlockAndTintGett
 	}
 
 	public int cachedBrightness(int cacheIndex) {
-		int result = lightCache[cacheIndex];
+		final LightAoCache cache = lightAoCache;
 
-		if (result == Integer.MAX_VALUE) {
-			final BlockState state = states[cacheIndex];
-			final int packedXyz5 = regionIndexToPackedSectionPos(cacheIndex);
-			final int x = (packedXyz5 & 31) - 2 + originX;
-			final int y = ((packedXyz5 >> 5) & 31) - 2 + originY;
-			final int z = (packedXyz5 >> 10) - 2 + originZ;
-			result = LevelRenderer.getLightColor(world, state, searchPos.set(x, y, z));
-			lightCache[cacheIndex] = result;
+		if (cache.hasLight(cacheIndex)) {
+			return cache.light(cacheIndex);
 		}
 
+		final int result = computeBrightness(cacheIndex);
+		cache.setLight(cacheIndex, result);
 		return result;
 	}
 
+	private int computeBrightness(int cacheIndex) {
+		final BlockState state = states[cacheIndex];
+		final int packedXyz5 = regionIndexToPackedSectionPos(cacheIndex);
+		final int x = (packedXyz5 & 31) - 2 + originX;
+		final int y = ((packedXyz5 >> 5) & 31) - 2 + originY;
+		final int z = (packedXyz5 >> 10) - 2 + originZ;
+		return LevelRenderer.getLightColor(world, state, searchPos.set(x, y, z));
+	}
+
+	/**
+	 * Computes light in one sweep for all renderable positions and their neighbors
+	 * instead of on demand during AO. Must be called after occlusion is built.
+	 * Positions that already have light, for example from smoothing, are kept.
+	 */
+	public void prefillBrightness() {
+		final LightAoCache cache = lightAoCache;
+
+		for (int i = 0; i < INTERIOR_STATE_COUNT; i++) {
+			if (occlusion.shouldRender(i)) {
+				cache.markForPrefill(i & 0xF, (i >> 4) & 0xF, (i >> 8) & 0xF);
+			}
+		}
+
+		cache.prefillLight(brightnessFunction);
+	}
+
 	/**
 	 * For light smoothing.
 	 */
 	public void setLightCache(int x, int y, int z, int val) {
-		lightCache[blockIndex(x, y, z)] = val;
+		lightAoCache.setLight(blockIndex(x, y, z), val);
 	}
 
 	public int directBrightness(BlockPos pos) {
@@ -399,9 +427,12 @@ public class InputRegion extends AbstractInputRegion implements BlockAndTintGett
 	}
 
 	public int cachedAoLevel(int cacheIndex) {
-		int result = aoCache[cacheIndex];
+		final LightAoCache cache = lightAoCache;
+		int result;
 
-		if (result == Integer.MAX_VALUE) {
+		if (cache.hasAo(cacheIndex)) {
+			result = cache.ao(cacheIndex);
+		} else {
 			final BlockState state = states[cacheIndex];
 
 			if (state.getLightEmission() == 0) {
@@ -414,7 +445,7 @@ public class InputRegion extends AbstractInputRegion implements BlockAndTintGett
 				result = 255;
 			}
 
-			aoCache[cacheIndex] = result;
+			cache.setAo(cacheIndex, result);
 		}
 
 		return result;
@@ -0,0 +1,166 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.terrain.region.input;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Lazily-filled light and AO values for a padded render region.
+ *
+ * <p>Both values for a position share one long so that AO lookups, which
+ * read light and AO for the same neighbors, touch a single array. Validity
+ * is tracked in a separate bitset with two bits per position, which is
+ * much cheaper to reset between regions than refilling the value array.
+ *
+ * <p>Light can also be computed in bulk for the positions around renderable
+ * blocks. Positions are marked with {@link #markForPrefill(int, int, int)}
+ * and then filled in a single ordered sweep by {@link #prefillLight(IntUnaryOperator)}.
+ * Results are identical to on-demand lookup - values already present are kept
+ * and positions not marked are still computed when first requested.
+ */
+final class LightAoCache {
+	/** Positions -1 to 16 on each axis - the interior plus the neighbors AO can sample. */
+	static final int PREFILL_DIAMETER = 18;
+	static final int PREFILL_COUNT = PREFILL_DIAMETER * PREFILL_DIAMETER * PREFILL_DIAMETER;
+	private static final int PREFILL_ROW_MASK = (1 << PREFILL_DIAMETER) - 1;
+
+	private static final long LIGHT_MASK = 0xFFFFFFFFL;
+
+	private final long[] values;
+	private final long[] valid;
+	private final int[] prefillIndex;
+
+	/** One bit per x position for each y, z row of the prefill volume. */
+	private final int[] prefillRows = new int[PREFILL_DIAMETER * PREFILL_DIAMETER];
+	private final int[] dilatedRows = new int[PREFILL_DIAMETER * PREFILL_DIAMETER];
+
+	/**
+	 * @param size number of cache positions
+	 * @param prefillIndex maps linear prefill positions (x fastest, then y, then z) to cache positions
+	 */
+	LightAoCache(int size, int[] prefillIndex) {
+		assert prefillIndex.length == PREFILL_COUNT;
+		values = new long[size];
+		valid = new long[(size * 2 + 63) >> 6];
+		this.prefillIndex = prefillIndex;
+	}
+
+	void clear() {
+		Arrays.fill(valid, 0);
+		Arrays.fill(prefillRows, 0);
+	}
+
+	boolean hasLight(int index) {
+		return (valid[index >> 5] & (1L << ((index & 31) << 1))) != 0;
+	}
+
+	boolean hasAo(int index) {
+		return (valid[index >> 5] & (2L << ((index & 31) << 1))) != 0;
+	}
+
+	int light(int index) {
+		assert hasLight(index);
+		return (int) values[index];
+	}
+
+	int ao(int index) {
+		assert hasAo(index);
+		return (int) (values[index] >>> 32);
+	}
+
+	void setLight(int index, int light) {
+		values[index] = (values[index] & ~LIGHT_MASK) | (light & LIGHT_MASK);
+		valid[index >> 5] |= 1L << ((index & 31) << 1);
+	}
+
+	void setAo(int index, int ao) {
+		values[index] = (values[index] & LIGHT_MASK) | ((long) ao << 32);
+		valid[index >> 5] |= 2L << ((index & 31) << 1);
+	}
+
+	/**
+	 * Marks an interior position as renderable.
+	 * Light will be prefilled for it and all neighbors.
+	 *
+	 * @param x 0 to 15
+	 * @param y 0 to 15
+	 * @param z 0 to 15
+	 */
+	void markForPrefill(int x, int y, int z) {
+		prefillRows[(y + 1) + (z + 1) * PREFILL_DIAMETER] |= 1 << (x + 1);
+	}
+
+	/**
+	 * Computes light for every marked position and its neighbors that does
+	 * not already have a value, then clears the marks.
+	 *
+	 * @param lightFunction computes light for a cache position
+	 */
+	void prefillLight(IntUnaryOperator lightFunction) {
+		final int[] rows = prefillRows;
+		final int[] dilated = dilatedRows;
+
+		// grow marks by one position on x
+		for (int i = 0; i < rows.length; ++i) {
+			final int r = rows[i];
+			rows[i] = (r | (r << 1) | (r >> 1)) & PREFILL_ROW_MASK;
+		}
+
+		// then on y
+		for (int z = 0; z < PREFILL_DIAMETER; ++z) {
+			final int base = z * PREFILL_DIAMETER;
+
+			for (int y = 0; y < PREFILL_DIAMETER; ++y) {
+				int r = rows[base + y];
+				if (y > 0) r |= rows[base + y - 1];
+				if (y < PREFILL_DIAMETER - 1) r |= rows[base + y + 1];
+				dilated[base + y] = r;
+			}
+		}
+
+		// then on z, and sweep
+		for (int z = 0; z < PREFILL_DIAMETER; ++z) {
+			final int base = z * PREFILL_DIAMETER;
+
+			for (int y = 0; y < PREFILL_DIAMETER; ++y) {
+				int r = dilated[base + y];
+				if (z > 0) r |= dilated[base - PREFILL_DIAMETER + y];
+				if (z < PREFILL_DIAMETER - 1) r |= dilated[base + PREFILL_DIAMETER + y];
+
+				final int linearBase = (base + y) * PREFILL_DIAMETER;
+
+				while (r != 0) {
+					final int x = Integer.numberOfTrailingZeros(r);
+					r &= r - 1;
+
+					final int index = prefillIndex[linearBase + x];
+
+					if (!hasLight(index)) {
+						setLight(index, lightFunction.applyAsInt(index));
+					}
+				}
+			}
+		}
+
+		Arrays.fill(rows, 0);
+	}
+}
@@ -40,6 +40,7 @@ import io.vram.frex.api.world.RenderRegionBakeListener;
 import io.vram.frex.impl.world.ChunkRenderConditionContext;
 
 import grondag.canvas.perf.ChunkRebuildCounters;
+import grondag.canvas.perf.TerrainMetrics;
 
 /**
  * Serves as a container to capture world state data on the main thread as quickly as possible
@@ -77,6 +78,8 @@ public class PackedInputRegion extends AbstractInputRegion {
 			ChunkRebuildCounters.startCopy();
 		}
 
+		final var metrics = TerrainMetrics.begin(TerrainMetrics.Stage.CAPTURE);
+
 		this.world = world;
 
 		final int originX = origin.getX();
@@ -124,6 +127,8 @@ public class PackedInputRegion extends AbstractInputRegion {
 			ChunkRebuildCounters.completeCopy();
 		}
 
+		TerrainMetrics.end(metrics, origin.asLong());
+
 		return result;
 	}
 
@@ -20,6 +20,7 @@
 
 package grondag.canvas.terrain.util;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.Function;
 
 import net.minecraft.client.Minecraft;
@@ -36,27 +37,43 @@ import net.minecraft.world.level.chunk.LevelChunk;
 
 import grondag.canvas.mixinterface.LevelChunkExt;
 
+/**
+ * Biome colors for a chunk, cached per chunk section and computed in bulk
+ * for all 256 columns of a section the first time any column is requested.
+ * Colors are sampled at the vertical center of each section.
+ *
+ * <p>Safe for concurrent use by terrain workers. Sections computed at the same
+ * time on different threads are computed redundantly and only the first result
+ * is retained.
+ */
 //FEAT: per-vertex blending (quality)
 public class ChunkColorCache implements BiomeManager.NoiseBiomeSource {
 	private static final Minecraft mc = Minecraft.getInstance();
-	private static int VERSION = 0;
+	private static final ThreadLocal<MutableBlockPos> SEARCH_POS = ThreadLocal.withInitial(MutableBlockPos::new);
+	private static volatile int currentVersion = 0;
 	private final LevelChunk chunk;
 	private final ClientLevel world;
 	private final int chunkX;
 	private final int chunkZ;
+	private final int minSectionY;
+	private final int sectionCount;
 	private final int version;
-	private final BiomeColorCache grassCache = new BiomeColorCache(BiomeColors.GRASS_COLOR_RESOLVER, c -> c.grassCache);
-	private final BiomeColorCache foliageCache = new BiomeColorCache(BiomeColors.FOLIAGE_COLOR_RESOLVER, c -> c.foliageCache);
-	private final BiomeColorCache waterCache = new BiomeColorCache(BiomeColors.WATER_COLOR_RESOLVER, c -> c.waterCache);
-	private final MutableBlockPos searchPos = new MutableBlockPos();
+	private final BiomeColorCache grassCache;
+	private final BiomeColorCache foliageCache;
+	private final BiomeColorCache waterCache;
 
 	public ChunkColorCache(ClientLevel world, LevelChunk chunk) {
 		this.world = world;
 		this.chunk = chunk;
-		version = VERSION;
+		version = currentVersion;
 		final ChunkPos pos = chunk.getPos();
 		chunkX = pos.x;
 		chunkZ = pos.z;
+		minSectionY = chunk.getMinSection();
+		sectionCount = chunk.getSectionsCount();
+		grassCache = new BiomeColorCache(BiomeColors.GRASS_COLOR_RESOLVER, c -> c.grassCache);
+		foliageCache = new BiomeColorCache(BiomeColors.FOLIAGE_COLOR_RESOLVER, c -> c.foliageCache);
+		waterCache = new BiomeColorCache(BiomeColors.WATER_COLOR_RESOLVER, c -> c.waterCache);
 	}
 
 	public static ChunkColorCache get(LevelChunk chunk) {
@@ -64,15 +81,15 @@ public class ChunkColorCache implements BiomeManager.NoiseBiomeSource {
 	}
 
 	public static void invalidate() {
-		VERSION++;
+		currentVersion++;
 	}
 
 	public boolean isInvalid() {
-		return version < VERSION;
+		return version != currentVersion;
 	}
 
 	public Biome getBiome(int x, int y, int z) {
-		return world.getBiomeManager().getBiome(searchPos.set(x, y, z)).value();
+		return world.getBiomeManager().getBiome(SEARCH_POS.get().set(x, y, z)).value();
 	}
 
 	private LevelChunk getChunk(int cx, int cz) {
@@ -94,6 +111,17 @@ public class ChunkColorCache implements BiomeManager.NoiseBiomeSource {
 		return world.getUncachedNoiseBiome(x, y, z);
 	}
 
+	/** Positions outside the world height range use the nearest section. */
+	private int sectionIndex(int y) {
+		final int index = (y >> 4) - minSectionY;
+		return index < 0 ? 0 : index >= sectionCount ? sectionCount - 1 : index;
+	}
+
+	/** Keeps the first result when the same section is computed concurrently. */
+	private static int[] retain(AtomicReferenceArray<int[]> cache, int sectionIndex, int[] colors) {
+		return cache.compareAndSet(sectionIndex, null, colors) ? colors : cache.get(sectionIndex);
+	}
+
 	public int getColor(int x, int y, int z, ColorResolver colorResolver) {
 		if (colorResolver == BiomeColors.GRASS_COLOR_RESOLVER) {
 			return grassCache.getColor(x, y, z);
@@ -107,100 +135,94 @@ public class ChunkColorCache implements BiomeManager.NoiseBiomeSource {
 	}
 
 	private class BiomeColorCache {
-		private static final int BASE_INDEX = 0;
-		private static final int BASE_CONTROL = BASE_INDEX + 256;
-		private static final int BLENDED_INDEX = BASE_CONTROL + 8;
-		private static final int BLENDED_CONTROL = BLENDED_INDEX + 256;
 		private final ColorResolver colorResolver;
 		private final Function<ChunkColorCache, BiomeColorCache> cacheFunc;
-		private final int[] data = new int[512 + 16];
+		/** Unblended colors for each section, indexed x | z << 4. */
+		private final AtomicReferenceArray<int[]> baseColors = new AtomicReferenceArray<>(sectionCount);
+		/** Blended colors for each section, indexed x | z << 4. */
+		private final AtomicReferenceArray<int[]> blendedColors = new AtomicReferenceArray<>(sectionCount);
 
 		private BiomeColorCache(ColorResolver colorResolver, Function<ChunkColorCache, BiomeColorCache> cacheFunc) {
 			this.colorResolver = colorResolver;
 			this.cacheFunc = cacheFunc;
 		}
 
-		private int getBaseColor(int x, int y, int z) {
+		private int getColor(int x, int y, int z) {
 			final int cx = x >> 4;
 			final int cz = z >> 4;
 
 			if (cx == chunkX && cz == chunkZ) {
-				return getLocalBaseColor(x, y, z);
+				return blendedColors(sectionIndex(y))[(x & 0xF) | ((z & 0xF) << 4)];
 			} else {
-				return cacheFunc.apply(get(world.getChunk(cx, cz))).getLocalBaseColor(x, y, z);
+				return cacheFunc.apply(get(world.getChunk(cx, cz))).getColor(x, y, z);
 			}
 		}
 
-		private int getLocalBaseColor(int x, int y, int z) {
-			final int index = (x & 0xF) | ((z & 0xF) << 4);
-			final int controlIndex = BASE_CONTROL + (index >> 5);
-			final int controlMask = 1 << (index & 31);
-
-			if ((data[controlIndex] & controlMask) == 0) {
-				final int result = computeLocalBaseColor(x, y, z);
-				data[controlIndex] |= controlMask;
-				data[index] = result;
-				return result;
-			} else {
-				return data[index];
-			}
+		private int[] baseColors(int sectionIndex) {
+			final int[] result = baseColors.get(sectionIndex);
+			return result == null ? retain(baseColors, sectionIndex, computeBaseColors(sectionIndex)) : result;
 		}
 
-		private int computeLocalBaseColor(int x, int y, int z) {
-			return colorResolver.getColor(getBiome(x, y, z), x, z);
+		private int[] blendedColors(int sectionIndex) {
+			final int[] result = blendedColors.get(sectionIndex);
+			return result == null ? retain(blendedColors, sectionIndex, computeBlendedColors(sectionIndex)) : result;
 		}
 
-		private int getColor(int x, int y, int z) {
-			final int cx = x >> 4;
-			final int cz = z >> 4;
+		private int[] computeBaseColors(int sectionIndex) {
+			final int[] result = new int[256];
+			final int x0 = chunkX << 4;
+			final int z0 = chunkZ << 4;
+			final int y = ((minSectionY + sectionIndex) << 4) + 8;
 
-			if (cx == chunkX && cz == chunkZ) {
-				return getLocalBlendedColor(x, y, z);
-			} else {
-				return cacheFunc.apply(get(world.getChunk(cx, cz))).getLocalBlendedColor(x, y, z);
+			for (int i = 0; i < 256; ++i) {
+				final int x = x0 + (i & 0xF);
+				final int z = z0 + (i >> 4);
+				result[i] = colorResolver.getColor(getBiome(x, y, z), x, z);
 			}
-		}
 
-		private int getLocalBlendedColor(int x, int y, int z) {
-			final int index = (x & 0xF) | ((z & 0xF) << 4);
-			final int controlIndex = BLENDED_CONTROL + (index >> 5);
-			final int controlMask = 1 << (index & 31);
-
-			if ((data[controlIndex] & controlMask) == 0) {
-				final int result = computeLocalBlendedColor(x, y, z);
-				data[controlIndex] |= controlMask;
-				data[index + BLENDED_INDEX] = result;
-				return result;
-			} else {
-				return data[index + BLENDED_INDEX];
-			}
+			return result;
 		}
 
-		private int computeLocalBlendedColor(int xIn, int yIn, int zIn) {
+		private int[] computeBlendedColors(int sectionIndex) {
 			final int radius = mc.options.biomeBlendRadius().get();
 
 			if (radius == 0) {
-				return getLocalBaseColor(xIn, yIn, zIn);
-			} else {
-				final int sampleCount = (radius * 2 + 1) * (radius * 2 + 1);
-				int r = 0;
-				int g = 0;
-				int b = 0;
-
-				final int xMax = xIn + radius;
-				final int zMax = zIn + radius;
-
-				for (int x = xIn - radius; x <= xMax; x++) {
-					for (int z = zIn - radius; z <= zMax; z++) {
-						final int color = getBaseColor(x, yIn, z);
-						g += (color >> 8) & 255;
-						r += (color >> 16) & 255;
-						b += color & 255;
+				return baseColors(sectionIndex);
+			}
+
+			// Vanilla limits blend radius to 7 so only adjacent chunks can be sampled
+			assert radius <= 16;
+
+			// Gather unblended colors from this and neighboring chunks, indexed by chunk offset
+			final int width = ColorBlender.sourceWidth(radius);
+			final int[] source = new int[width * width];
+			final int[][] neighbors = new int[9][];
+			final int x0 = (chunkX << 4) - radius;
+			final int z0 = (chunkZ << 4) - radius;
+
+			for (int gz = 0; gz < width; ++gz) {
+				final int z = z0 + gz;
+				final int dz = (z >> 4) - chunkZ;
+
+				for (int gx = 0; gx < width; ++gx) {
+					final int x = x0 + gx;
+					final int dx = (x >> 4) - chunkX;
+					final int neighborIndex = (dx + 1) + (dz + 1) * 3;
+					int[] colors = neighbors[neighborIndex];
+
+					if (colors == null) {
+						final BiomeColorCache cache = dx == 0 && dz == 0 ? this : cacheFunc.apply(get(world.getChunk(chunkX + dx, chunkZ + dz)));
+						colors = cache.baseColors(sectionIndex);
+						neighbors[neighborIndex] = colors;
 					}
-				}
 
-				return (r / sampleCount & 255) << 16 | (g / sampleCount & 255) << 8 | b / sampleCount & 255;
+					source[gx + gz * width] = colors[(x & 0xF) | ((z & 0xF) << 4)];
+				}
 			}
+
+			final int[] result = new int[256];
+			ColorBlender.blend(source, radius, result);
+			return result;
 		}
 	}
 }
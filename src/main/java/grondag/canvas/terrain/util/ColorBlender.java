@@ -0,0 +1,113 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.terrain.util;
+
+/**
+ * Separable sliding-window box filter for 16x16 columns of packed RGB colors.
+ * Output is identical to averaging each channel over the (2r + 1)^2 samples
+ * around each column with integer division, but each column costs the same
+ * regardless of radius.
+ */
+final class ColorBlender {
+	static final int SIZE = 16;
+
+	private ColorBlender() { }
+
+	/** Width and height of the source grid for the given blend radius. */
+	static int sourceWidth(int radius) {
+		return SIZE + radius * 2;
+	}
+
+	/**
+	 * Blends colors from a square source grid into a 16x16 target.
+	 *
+	 * @param source packed RGB colors, {@link #sourceWidth(int)} squared, indexed x + z * width,
+	 * where source (radius, radius) is target (0, 0)
+	 * @param radius blend radius in blocks, must be > 0
+	 * @param target receives blended colors, indexed x | z << 4
+	 */
+	static void blend(int[] source, int radius, int[] target) {
+		final int width = sourceWidth(radius);
+		final int window = radius * 2 + 1;
+
+		// Horizontal pass: per-channel sums over the window for each source row
+		final int[] rowR = new int[SIZE * width];
+		final int[] rowG = new int[SIZE * width];
+		final int[] rowB = new int[SIZE * width];
+
+		for (int z = 0; z < width; ++z) {
+			final int rowStart = z * width;
+			int r = 0;
+			int g = 0;
+			int b = 0;
+
+			for (int x = 0; x < window; ++x) {
+				final int color = source[rowStart + x];
+				r += (color >> 16) & 255;
+				g += (color >> 8) & 255;
+				b += color & 255;
+			}
+
+			for (int x = 0; x < SIZE; ++x) {
+				final int index = x * width + z;
+				rowR[index] = r;
+				rowG[index] = g;
+				rowB[index] = b;
+
+				if (x < SIZE - 1) {
+					final int removed = source[rowStart + x];
+					final int added = source[rowStart + x + window];
+					r += ((added >> 16) & 255) - ((removed >> 16) & 255);
+					g += ((added >> 8) & 255) - ((removed >> 8) & 255);
+					b += (added & 255) - (removed & 255);
+				}
+			}
+		}
+
+		// Vertical pass over the row sums, which are stored transposed so this pass is sequential
+		final int sampleCount = window * window;
+
+		for (int x = 0; x < SIZE; ++x) {
+			final int columnStart = x * width;
+			int r = 0;
+			int g = 0;
+			int b = 0;
+
+			for (int z = 0; z < window; ++z) {
+				r += rowR[columnStart + z];
+				g += rowG[columnStart + z];
+				b += rowB[columnStart + z];
+			}
+
+			for (int z = 0; z < SIZE; ++z) {
+				target[x | (z << 4)] = (r / sampleCount & 255) << 16 | (g / sampleCount & 255) << 8 | b / sampleCount & 255;
+
+				if (z < SIZE - 1) {
+					final int removed = columnStart + z;
+					final int added = removed + window;
+					r += rowR[added] - rowR[removed];
+					g += rowG[added] - rowG[removed];
+					b += rowB[added] - rowB[removed];
+				}
+			}
+		}
+	}
+}
@@ -96,6 +96,11 @@ public class DedicatedTerrainExecutor extends AbstractExecutorService implements
 		return queue.isEmpty();
 	}
 
+	@Override
+	public int queueDepth() {
+		return queue.size();
+	}
+
 	private class Worker implements Runnable {
 		private CanvasTerrainRenderContext context = new CanvasTerrainRenderContext();
 
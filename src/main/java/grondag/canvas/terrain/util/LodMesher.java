@@ -0,0 +1,222 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.terrain.util;
+
+/**
+ * Greedy mesher for simplified, far-distance region meshes.
+ *
+ * <p>Input is one int key per voxel for an 18x18x18 grid: the 16x16x16 region interior
+ * plus a one-block border of neighbor voxels. Zero means empty. Non-zero keys identify an
+ * appearance and voxels with the same key may be merged. Keys with {@link #TRANSLUCENT}
+ * set do not hide the faces of other voxels behind them.
+ *
+ * <p>Only interior voxels produce quads, and only for faces exposed to an empty or
+ * translucent voxel of a different key. Coplanar exposed faces with the same key are
+ * merged into rectangles. Face ordinals and vertex winding match vanilla {@code Direction}
+ * and {@code FaceInfo}, so output can be encoded like any other block quad.
+ */
+public final class LodMesher {
+	private LodMesher() { }
+
+	public static final int PADDED_SIZE = 18;
+	public static final int PADDED_COUNT = PADDED_SIZE * PADDED_SIZE * PADDED_SIZE;
+
+	/** Flag bit for keys of voxels that can be seen through. */
+	public static final int TRANSLUCENT = 1 << 30;
+
+	private static final int SIZE = 16;
+
+	/** Index step in padded grid for each face, in Direction ordinal order. */
+	private static final int[] FACE_STEP = {
+		-PADDED_SIZE, PADDED_SIZE,
+		-PADDED_SIZE * PADDED_SIZE, PADDED_SIZE * PADDED_SIZE,
+		-1, 1
+	};
+
+	/**
+	 * For each face and vertex, whether x, y, z of the vertex come from the max (1)
+	 * or min (0) corner of the quad bounds. Same order as vanilla FaceInfo.
+	 */
+	private static final int[][] FACE_VERTEX_CORNERS = {
+		// DOWN
+		{0, 0, 1, 0, 0, 0, 1, 0, 0, 1, 0, 1},
+		// UP
+		{0, 1, 0, 0, 1, 1, 1, 1, 1, 1, 1, 0},
+		// NORTH
+		{1, 1, 0, 1, 0, 0, 0, 0, 0, 0, 1, 0},
+		// SOUTH
+		{0, 1, 1, 0, 0, 1, 1, 0, 1, 1, 1, 1},
+		// WEST
+		{0, 1, 0, 0, 0, 0, 0, 0, 1, 0, 1, 1},
+		// EAST
+		{1, 1, 1, 1, 0, 1, 1, 0, 0, 1, 1, 0},
+	};
+
+	@FunctionalInterface
+	public interface QuadSink {
+		/**
+		 * Receives one merged quad. Bounds are in blocks relative to the region origin
+		 * and are flat along the face axis. Use {@link #vertex(int, int, int, int, int, int, int, int, float[])}
+		 * to obtain vertex positions.
+		 *
+		 * @param face Direction ordinal of the face
+		 * @param key appearance key of the merged voxels
+		 */
+		void accept(int face, int key, int minX, int minY, int minZ, int maxX, int maxY, int maxZ);
+	}
+
+	/** Index in the padded grid of the voxel at region-relative coordinates, each -1 to 16. */
+	public static int paddedIndex(int x, int y, int z) {
+		return (x + 1) + (y + 1) * PADDED_SIZE + (z + 1) * PADDED_SIZE * PADDED_SIZE;
+	}
+
+	/**
+	 * Writes the position of one vertex of a quad produced by {@link #mesh(int[], QuadSink)}.
+	 *
+	 * @param vertex 0-3, counter-clockwise when viewed from outside the face
+	 * @param out receives x, y, z
+	 */
+	public static void vertex(int face, int vertex, int minX, int minY, int minZ, int maxX, int maxY, int maxZ, float[] out) {
+		final int[] corners = FACE_VERTEX_CORNERS[face];
+		final int i = vertex * 3;
+		out[0] = corners[i] == 0 ? minX : maxX;
+		out[1] = corners[i + 1] == 0 ? minY : maxY;
+		out[2] = corners[i + 2] == 0 ? minZ : maxZ;
+	}
+
+	/**
+	 * True if a voxel with the given key shows a face toward a voxel with the neighbor key.
+	 */
+	static boolean isExposed(int key, int neighborKey) {
+		return key != 0 && (neighborKey == 0 || (neighborKey != key && (neighborKey & TRANSLUCENT) != 0));
+	}
+
+	/**
+	 * Emits merged quads for all exposed faces of interior voxels.
+	 *
+	 * @param keys voxel keys indexed by {@link #paddedIndex(int, int, int)}
+	 * @return number of quads emitted
+	 */
+	public static int mesh(int[] keys, QuadSink sink) {
+		assert keys.length == PADDED_COUNT;
+
+		final int[] mask = new int[SIZE * SIZE];
+		int quadCount = 0;
+
+		for (int face = 0; face < 6; ++face) {
+			final int step = FACE_STEP[face];
+			final int axis = face >> 1;
+			final boolean positive = (face & 1) == 1;
+
+			for (int depth = 0; depth < SIZE; ++depth) {
+				boolean any = false;
+
+				for (int v = 0; v < SIZE; ++v) {
+					for (int u = 0; u < SIZE; ++u) {
+						final int index = slicedIndex(axis, depth, u, v);
+						final int key = keys[index];
+						final int visibleKey = isExposed(key, keys[index + step]) ? key : 0;
+						mask[u + v * SIZE] = visibleKey;
+						any |= visibleKey != 0;
+					}
+				}
+
+				if (any) {
+					quadCount += mergeSlice(mask, face, axis, positive ? depth + 1 : depth, sink);
+				}
+			}
+		}
+
+		return quadCount;
+	}
+
+	/**
+	 * Greedy rectangle merge of one slice. Clears the mask as it goes.
+	 */
+	private static int mergeSlice(int[] mask, int face, int axis, int plane, QuadSink sink) {
+		int quadCount = 0;
+
+		for (int v = 0; v < SIZE; ++v) {
+			for (int u = 0; u < SIZE;) {
+				final int key = mask[u + v * SIZE];
+
+				if (key == 0) {
+					++u;
+					continue;
+				}
+
+				int width = 1;
+
+				while (u + width < SIZE && mask[u + width + v * SIZE] == key) {
+					++width;
+				}
+
+				int height = 1;
+
+				grow:
+				while (v + height < SIZE) {
+					final int rowStart = (v + height) * SIZE;
+
+					for (int k = 0; k < width; ++k) {
+						if (mask[rowStart + u + k] != key) {
+							break grow;
+						}
+					}
+
+					++height;
+				}
+
+				for (int j = 0; j < height; ++j) {
+					final int rowStart = (v + j) * SIZE + u;
+
+					for (int k = 0; k < width; ++k) {
+						mask[rowStart + k] = 0;
+					}
+				}
+
+				emit(sink, face, key, axis, plane, u, v, u + width, v + height);
+				++quadCount;
+				u += width;
+			}
+		}
+
+		return quadCount;
+	}
+
+	/**
+	 * Slice coordinates by axis: Y uses u = x, v = z; Z uses u = x, v = y; X uses u = z, v = y.
+	 */
+	private static int slicedIndex(int axis, int depth, int u, int v) {
+		return switch (axis) {
+			case 0 -> paddedIndex(u, depth, v);
+			case 1 -> paddedIndex(u, v, depth);
+			default -> paddedIndex(depth, v, u);
+		};
+	}
+
+	private static void emit(QuadSink sink, int face, int key, int axis, int plane, int u0, int v0, int u1, int v1) {
+		switch (axis) {
+			case 0 -> sink.accept(face, key, u0, plane, v0, u1, plane, v1);
+			case 1 -> sink.accept(face, key, u0, v0, plane, u1, v1, plane);
+			default -> sink.accept(face, key, plane, v0, u0, plane, v1, u1);
+		}
+	}
+}
@@ -123,6 +123,11 @@ public class SharedTerrainExecutor extends AbstractExecutorService implements Te
 		return renderQueue.isEmpty();
 	}
 
+	@Override
+	public int queueDepth() {
+		return renderQueue.size();
+	}
+
 	private class RenderWorker implements Runnable {
 		protected CanvasTerrainRenderContext context = new CanvasTerrainRenderContext();
 
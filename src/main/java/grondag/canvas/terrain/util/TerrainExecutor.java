@@ -34,5 +34,8 @@ public interface TerrainExecutor extends ExecutorService {
 
 	boolean isEmpty();
 
+	/** Number of terrain tasks waiting to run. */
+	int queueDepth();
+
 	void debugReport(List<String> target);
 }
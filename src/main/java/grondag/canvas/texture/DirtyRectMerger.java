@@ -0,0 +1,241 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.texture;
+
+import java.util.Arrays;
+
+/**
+ * Groups axis-aligned rectangles so that each group covers exactly one larger
+ * rectangle with no gaps. Rectangles that touch edge-to-edge with matching
+ * extent are first merged into rows, then rows are stacked into columns.
+ *
+ * <p>Used to coalesce atlas sub-image uploads. Because a group never covers pixels
+ * outside its members, a group can be uploaded in one call from a staging image
+ * that holds only member pixels.
+ *
+ * <p>Coordinates and sizes must be less than 32768 and there can be no more than
+ * 65536 rectangles per merge. Reusable, not thread-safe.
+ */
+public final class DirtyRectMerger {
+	private static final int COORD_BITS = 15;
+	private static final int INDEX_BITS = 16;
+	private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+	private static final int MAX_COORD = (1 << COORD_BITS) - 1;
+
+	private int rectCount;
+	private int[] rects = new int[64];
+
+	/** Rect indices ordered by row, then grouped. */
+	private int[] members = new int[16];
+
+	private int rowCount;
+	private int[] rows = new int[64];
+	private int[] rowStart = new int[16];
+	private int[] rowLength = new int[16];
+
+	private int groupCount;
+	private int[] groups = new int[64];
+	private int[] groupStart = new int[16];
+	private int[] groupLength = new int[16];
+
+	private long[] keys = new long[16];
+	private int[] scratch = new int[16];
+
+	public void clear() {
+		rectCount = 0;
+		rowCount = 0;
+		groupCount = 0;
+	}
+
+	/**
+	 * @return index of the added rectangle, for use with {@link #groupMember(int, int)}
+	 */
+	public int add(int x, int y, int width, int height) {
+		assert x >= 0 && y >= 0 && width > 0 && height > 0;
+		assert x <= MAX_COORD && y <= MAX_COORD && width <= MAX_COORD && height <= MAX_COORD;
+		assert rectCount <= INDEX_MASK;
+
+		final int i = rectCount++;
+		rects = ensure(rects, rectCount * 4);
+		rects[i * 4] = x;
+		rects[i * 4 + 1] = y;
+		rects[i * 4 + 2] = width;
+		rects[i * 4 + 3] = height;
+		return i;
+	}
+
+	public int size() {
+		return rectCount;
+	}
+
+	/**
+	 * Groups all rectangles added since the last clear.
+	 * @return number of groups
+	 */
+	public int merge() {
+		final int n = rectCount;
+		rowCount = 0;
+		groupCount = 0;
+
+		if (n == 0) {
+			return 0;
+		}
+
+		keys = ensure(keys, n);
+		members = ensure(members, n);
+
+		// Rows: same y and height, sorted by x
+		for (int i = 0; i < n; ++i) {
+			keys[i] = key(rects[i * 4 + 1], rects[i * 4 + 3], rects[i * 4], i);
+		}
+
+		Arrays.sort(keys, 0, n);
+		rows = ensure(rows, n * 4);
+		rowStart = ensure(rowStart, n);
+		rowLength = ensure(rowLength, n);
+
+		for (int k = 0; k < n; ++k) {
+			final int i = (int) (keys[k] & INDEX_MASK);
+			final int x = rects[i * 4];
+			final int y = rects[i * 4 + 1];
+			final int w = rects[i * 4 + 2];
+			final int h = rects[i * 4 + 3];
+			members[k] = i;
+
+			if (rowCount > 0) {
+				final int r = (rowCount - 1) * 4;
+
+				if (rows[r + 1] == y && rows[r + 3] == h && rows[r] + rows[r + 2] == x) {
+					rows[r + 2] += w;
+					++rowLength[rowCount - 1];
+					continue;
+				}
+			}
+
+			final int r = rowCount * 4;
+			rows[r] = x;
+			rows[r + 1] = y;
+			rows[r + 2] = w;
+			rows[r + 3] = h;
+			rowStart[rowCount] = k;
+			rowLength[rowCount] = 1;
+			++rowCount;
+		}
+
+		// Groups: rows with same x and width, sorted by y
+		for (int r = 0; r < rowCount; ++r) {
+			keys[r] = key(rows[r * 4], rows[r * 4 + 2], rows[r * 4 + 1], r);
+		}
+
+		Arrays.sort(keys, 0, rowCount);
+		groups = ensure(groups, rowCount * 4);
+		groupStart = ensure(groupStart, rowCount);
+		groupLength = ensure(groupLength, rowCount);
+		scratch = ensure(scratch, n);
+		int memberCount = 0;
+
+		for (int k = 0; k < rowCount; ++k) {
+			final int r = (int) (keys[k] & INDEX_MASK);
+			final int x = rows[r * 4];
+			final int y = rows[r * 4 + 1];
+			final int w = rows[r * 4 + 2];
+			final int h = rows[r * 4 + 3];
+
+			boolean extend = false;
+
+			if (groupCount > 0) {
+				final int g = (groupCount - 1) * 4;
+				extend = groups[g] == x && groups[g + 2] == w && groups[g + 1] + groups[g + 3] == y;
+
+				if (extend) {
+					groups[g + 3] += h;
+				}
+			}
+
+			if (!extend) {
+				final int g = groupCount * 4;
+				groups[g] = x;
+				groups[g + 1] = y;
+				groups[g + 2] = w;
+				groups[g + 3] = h;
+				groupStart[groupCount] = memberCount;
+				groupLength[groupCount] = 0;
+				++groupCount;
+			}
+
+			final int start = rowStart[r];
+			final int length = rowLength[r];
+			System.arraycopy(members, start, scratch, memberCount, length);
+			memberCount += length;
+			groupLength[groupCount - 1] += length;
+		}
+
+		final int[] swap = members;
+		members = scratch;
+		scratch = swap;
+
+		return groupCount;
+	}
+
+	public int groupCount() {
+		return groupCount;
+	}
+
+	public int groupX(int group) {
+		return groups[group * 4];
+	}
+
+	public int groupY(int group) {
+		return groups[group * 4 + 1];
+	}
+
+	public int groupWidth(int group) {
+		return groups[group * 4 + 2];
+	}
+
+	public int groupHeight(int group) {
+		return groups[group * 4 + 3];
+	}
+
+	public int groupMemberCount(int group) {
+		return groupLength[group];
+	}
+
+	/**
+	 * @return index of a rectangle in the group, as returned by {@link #add(int, int, int, int)}
+	 */
+	public int groupMember(int group, int member) {
+		assert member < groupLength[group];
+		return members[groupStart[group] + member];
+	}
+
+	private static long key(int primary, int secondary, int tertiary, int index) {
+		return ((long) primary << (COORD_BITS * 2 + INDEX_BITS)) | ((long) secondary << (COORD_BITS + INDEX_BITS)) | ((long) tertiary << INDEX_BITS) | index;
+	}
+
+	private static int[] ensure(int[] array, int size) {
+		return array.length >= size ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+	}
+
+	private static long[] ensure(long[] array, int size) {
+		return array.length >= size ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+	}
+}
@@ -20,7 +20,9 @@
 
 package grondag.canvas.texture;
 
-import it.unimi.dsi.fastutil.ints.IntArrayList;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.mojang.blaze3d.systems.RenderSystem;
 
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
 
@@ -42,16 +44,24 @@ import grondag.canvas.varia.GFX;
  * G: fragment program ID<br>
  * B: program flags - currently only GUI<br>
  * A: reserved B
+ *
+ * <p>Texels can be set from any thread. Writes are queued without locking
+ * and drained into a render-thread copy of the buffer on upload. Because
+ * indices can be written out of order, upload covers the range of indices
+ * changed since the last upload.
  */
 public final class MaterialIndexImage {
 	private int bufferId;
-	private final IntArrayList data = new IntArrayList();
-	private int head = 0;
-	private int tail = 0;
+	private final ConcurrentLinkedQueue<int[]> pending = new ConcurrentLinkedQueue<>();
 	private final boolean isAtlas;
+	private final int intsPerMaterial;
+
+	/** Render thread only. Mirrors buffer content so that changed ranges can be uploaded contiguously. */
+	private int[] data = new int[1024];
 
 	public MaterialIndexImage(boolean isAtlas) {
 		this.isAtlas = isAtlas;
+		intsPerMaterial = isAtlas ? MaterialIndexTexture.ATLAS_INTS_PER_MATERIAL : MaterialIndexTexture.INTS_PER_MATERIAL;
 
 		if (Configurator.enableLifeCycleDebug) {
 			CanvasMod.LOG.info("Lifecycle Event: MaterialInfoImage init");
@@ -65,42 +75,56 @@ public final class MaterialIndexImage {
 		}
 	}
 
-	synchronized void set(int materialIndex, int vertexId, int fragmentId, int programFlags, int conditionId) {
+	void set(int materialIndex, int vertexId, int fragmentId, int programFlags, int conditionId) {
 		assert !isAtlas;
 
-		data.add(vertexId | (fragmentId << 16));
-		data.add(programFlags | (conditionId << 16));
-
-		final int bufferIndex = materialIndex * MaterialIndexTexture.BYTES_PER_MATERIAL;
-		assert bufferIndex >= head;
-		assert bufferIndex == tail;
-		tail = bufferIndex + MaterialIndexTexture.BYTES_PER_MATERIAL;
+		pending.offer(new int[] {
+			materialIndex,
+			vertexId | (fragmentId << 16),
+			programFlags | (conditionId << 16)
+		});
 	}
 
-	synchronized void set(int materialIndex, int vertexId, int fragmentId, int programFlags, int conditionId, TextureAtlasSprite sprite) {
+	void set(int materialIndex, int vertexId, int fragmentId, int programFlags, int conditionId, TextureAtlasSprite sprite) {
 		assert isAtlas;
 
-		data.add(vertexId | (fragmentId << 16));
-		data.add(programFlags | (conditionId << 16));
-		data.add(Math.round(sprite.getU0() * 0x8000) | (Math.round(sprite.getV0() * 0x8000) << 16));
-		data.add(Math.round((sprite.getU1() - sprite.getU0()) * 0x8000) | (Math.round((sprite.getV1() - sprite.getV0()) * 0x8000) << 16));
-
-		final int bufferIndex = materialIndex * MaterialIndexTexture.ATLAS_BYTES_PER_MATERIAL;
-		assert bufferIndex >= head;
-		assert bufferIndex == tail;
-		tail = bufferIndex + MaterialIndexTexture.ATLAS_BYTES_PER_MATERIAL;
+		pending.offer(new int[] {
+			materialIndex,
+			vertexId | (fragmentId << 16),
+			programFlags | (conditionId << 16),
+			Math.round(sprite.getU0() * 0x8000) | (Math.round(sprite.getV0() * 0x8000) << 16),
+			Math.round((sprite.getU1() - sprite.getU0()) * 0x8000) | (Math.round((sprite.getV1() - sprite.getV0()) * 0x8000) << 16)
+		});
 	}
 
-	// PERF: Should only be called on render thread but data updates can occur on other threads
-	// so we currently sync here and in the set methods, even though set calls are also synchronized by caller.
-	public synchronized void upload() {
-		final int len = tail - head;
-		assert len / 4 == data.size();
+	public void upload() {
+		assert RenderSystem.isOnRenderThread();
+
+		final int intsPerMaterial = this.intsPerMaterial;
+		int minIndex = Integer.MAX_VALUE;
+		int maxIndex = -1;
+		int[] texel;
+
+		while ((texel = pending.poll()) != null) {
+			final int materialIndex = texel[0];
+			final int start = materialIndex * intsPerMaterial;
+
+			if (start + intsPerMaterial > data.length) {
+				final int[] newData = new int[Math.max(data.length * 2, start + intsPerMaterial)];
+				System.arraycopy(data, 0, newData, 0, data.length);
+				data = newData;
+			}
+
+			System.arraycopy(texel, 1, data, start, intsPerMaterial);
+			minIndex = Math.min(minIndex, materialIndex);
+			maxIndex = Math.max(maxIndex, materialIndex);
+		}
 
-		if (len != 0) {
-			final TransferBuffer xferBuff = TransferBuffers.claim(len);
-			xferBuff.put(data.elements(), 0, 0, len / 4);
-			data.clear();
+		if (maxIndex >= 0) {
+			final int startInts = minIndex * intsPerMaterial;
+			final int lenInts = (maxIndex + 1) * intsPerMaterial - startInts;
+			final TransferBuffer xferBuff = TransferBuffers.claim(lenInts * 4);
+			xferBuff.put(data, startInts, 0, lenInts);
 
 			if (bufferId == 0) {
 				final int size = isAtlas ? MaterialIndexTexture.ATLAS_BUFFER_SIZE_BYTES : MaterialIndexTexture.BUFFER_SIZE_BYTES;
@@ -112,9 +136,8 @@ public final class MaterialIndexImage {
 				GFX.bindBuffer(GFX.GL_TEXTURE_BUFFER, bufferId);
 			}
 
-			xferBuff.releaseToBoundBuffer(GFX.GL_TEXTURE_BUFFER, head);
+			xferBuff.releaseToBoundBuffer(GFX.GL_TEXTURE_BUFFER, startInts * 4);
 			GFX.bindBuffer(GFX.GL_TEXTURE_BUFFER, 0);
-			head = tail;
 		}
 	}
 }
@@ -20,10 +20,10 @@
 
 package grondag.canvas.texture;
 
+import java.util.concurrent.atomic.AtomicInteger;
+
 import it.unimi.dsi.fastutil.Hash;
-import it.unimi.dsi.fastutil.ints.Int2IntOpenHashMap;
 import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
-import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 
 import net.minecraft.client.renderer.texture.TextureAtlasSprite;
@@ -32,6 +32,7 @@ import net.minecraft.resources.ResourceLocation;
 import grondag.canvas.CanvasMod;
 import grondag.canvas.config.Configurator;
 import grondag.canvas.material.state.CanvasRenderMaterial;
+import grondag.canvas.varia.CopyOnWriteLong2ObjectMap;
 
 public abstract class MaterialIndexProvider {
 	public abstract MaterialIndexer getIndexer(CanvasRenderMaterial mat);
@@ -80,43 +81,31 @@ public abstract class MaterialIndexProvider {
 			this.atlasId = atlasId;
 		}
 
-		private int nextIndex = 0;
-		private final Long2ObjectOpenHashMap<Indexer> materialMap = new Long2ObjectOpenHashMap<>(64, Hash.VERY_FAST_LOAD_FACTOR);
+		/** Shared by all indexers so that indices are unique and dense across the atlas. */
+		private final AtomicInteger nextIndex = new AtomicInteger();
+		private final CopyOnWriteLong2ObjectMap<Indexer> materialMap = new CopyOnWriteLong2ObjectMap<>(64);
 		private final MaterialIndexTexture tex = new MaterialIndexTexture(true);
 
-		// PERF: find ways to reduce/avoid locking here and in MaterialIndexImage
-		private final Object sync = new Object();
-
 		private class Indexer implements MaterialIndexer {
 			private Indexer(CanvasRenderMaterial mat) {
-				this.mat = mat;
+				spriteMap = new SpriteIndexTable(nextIndex, (spriteId, i) -> {
+					final TextureAtlasSprite sprite = mat.texture().spriteIndex().fromIndex(spriteId);
+					tex.set(i, mat.vertexShaderIndex(), mat.fragmentShaderIndex(), mat.shaderFlags(), mat.condition().index(), sprite);
+				});
 			}
 
-			private final CanvasRenderMaterial mat;
-			private final Int2IntOpenHashMap spriteMap = new Int2IntOpenHashMap(64, Hash.VERY_FAST_LOAD_FACTOR);
+			private final SpriteIndexTable spriteMap;
 
 			@Override
 			public int index(int spriteId) {
-				synchronized (sync) {
-					return spriteMap.computeIfAbsent(spriteId, k -> {
-						final int i = nextIndex++;
-						final TextureAtlasSprite sprite = mat.texture().spriteIndex().fromIndex(k);
-						tex.set(i, mat.vertexShaderIndex(), mat.fragmentShaderIndex(), mat.shaderFlags(), mat.condition().index(), sprite);
-						return i;
-					});
-				}
+				return spriteMap.index(spriteId);
 			}
 		}
 
 		@Override
 		public MaterialIndexer getIndexer(CanvasRenderMaterial mat) {
 			final long key = mat.vertexShaderIndex() | (mat.fragmentShaderIndex() << 16) | (((long) mat.shaderFlags()) << 32) | (((long) mat.condition().index()) << 48);
-
-			synchronized (sync) {
-				return materialMap.computeIfAbsent(key, k -> {
-					return new Indexer(mat);
-				});
-			}
+			return materialMap.computeIfAbsent(key, k -> new Indexer(mat));
 		}
 
 		@Override
@@ -128,7 +117,7 @@ public abstract class MaterialIndexProvider {
 		protected void clear() {
 			materialMap.clear();
 			tex.reset();
-			nextIndex = 0;
+			nextIndex.set(0);
 		}
 	}
 
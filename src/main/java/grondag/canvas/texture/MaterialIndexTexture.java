@@ -38,7 +38,7 @@ public class MaterialIndexTexture {
 	public static final int ATLAS_BUFFER_SIZE_BYTES = ATLAS_BYTES_PER_MATERIAL * MAX_INDEX_COUNT;
 
 	private int glId = 0;
-	private MaterialIndexImage image = null;
+	private volatile MaterialIndexImage image = null;
 	private final boolean isAtlas;
 
 	private static MaterialIndexTexture active = null;
@@ -66,27 +66,32 @@ public class MaterialIndexTexture {
 		}
 	}
 
-	public synchronized void set(int materialIndex, int vertexId, int fragmentId, int programFlags, int conditionId) {
+	public void set(int materialIndex, int vertexId, int fragmentId, int programFlags, int conditionId) {
 		assert !isAtlas;
 
-		createImageIfNeeded();
+		final MaterialIndexImage image = createImageIfNeeded();
 
 		if (image != null) {
 			image.set(materialIndex, vertexId, fragmentId, programFlags, conditionId);
 		}
 	}
 
-	public synchronized void set(int materialIndex, int vertexId, int fragmentId, int programFlags, int conditionId, TextureAtlasSprite sprite) {
+	public void set(int materialIndex, int vertexId, int fragmentId, int programFlags, int conditionId, TextureAtlasSprite sprite) {
 		assert isAtlas;
 
-		createImageIfNeeded();
+		final MaterialIndexImage image = createImageIfNeeded();
 
 		if (image != null) {
 			image.set(materialIndex, vertexId, fragmentId, programFlags, conditionId, sprite);
 		}
 	}
 
-	private void createImageIfNeeded() {
+	private MaterialIndexImage createImageIfNeeded() {
+		final MaterialIndexImage result = image;
+		return result == null ? createImage() : result;
+	}
+
+	private synchronized MaterialIndexImage createImage() {
 		if (image == null) {
 			try {
 				image = new MaterialIndexImage(isAtlas);
@@ -95,6 +100,8 @@ public class MaterialIndexTexture {
 				image = null;
 			}
 		}
+
+		return image;
 	}
 
 	public static void disable() {
@@ -0,0 +1,99 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.texture;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Maps small non-negative keys (sprite IDs) to indices drawn from a counter
+ * that may be shared with other tables, so indices stay unique and dense
+ * across all materials of an atlas.
+ *
+ * <p>Lookups of existing keys take no lock. The first lookup of a key
+ * synchronizes on this table only, allocates the index, notifies the listener
+ * and then publishes the index. Listeners therefore see each key exactly once
+ * and before any caller can obtain the index.
+ */
+class SpriteIndexTable {
+	@FunctionalInterface
+	interface Listener {
+		void onAssign(int key, int index);
+	}
+
+	private final AtomicInteger nextIndex;
+	private final Listener listener;
+
+	/** Holds index + 1 so that zero means unassigned. */
+	private volatile AtomicIntegerArray values;
+
+	SpriteIndexTable(AtomicInteger nextIndex, Listener listener) {
+		this.nextIndex = nextIndex;
+		this.listener = listener;
+		values = new AtomicIntegerArray(64);
+	}
+
+	int index(int key) {
+		final AtomicIntegerArray values = this.values;
+
+		if (key < values.length()) {
+			final int result = values.get(key);
+
+			if (result != 0) {
+				return result - 1;
+			}
+		}
+
+		return assign(key);
+	}
+
+	private synchronized int assign(int key) {
+		AtomicIntegerArray values = this.values;
+
+		if (key < values.length()) {
+			final int result = values.get(key);
+
+			if (result != 0) {
+				return result - 1;
+			}
+		} else {
+			int newLength = values.length() * 2;
+
+			while (newLength <= key) {
+				newLength *= 2;
+			}
+
+			final AtomicIntegerArray newValues = new AtomicIntegerArray(newLength);
+
+			for (int i = 0; i < values.length(); ++i) {
+				newValues.set(i, values.get(i));
+			}
+
+			values = newValues;
+			this.values = newValues;
+		}
+
+		final int result = nextIndex.getAndIncrement();
+		listener.onAssign(key, result);
+		values.set(key, result + 1);
+		return result;
+	}
+}
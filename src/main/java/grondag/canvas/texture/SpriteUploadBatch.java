@@ -0,0 +1,180 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.texture;
+
+import java.util.Arrays;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import org.jetbrains.annotations.Nullable;
+import org.lwjgl.system.MemoryUtil;
+
+import com.mojang.blaze3d.platform.NativeImage;
+import com.mojang.blaze3d.systems.RenderSystem;
+
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+
+import grondag.canvas.mixinterface.NativeImageExt;
+import grondag.canvas.mixinterface.SpriteExt;
+
+/**
+ * Collects animated sprite uploads for one atlas during an animation tick and
+ * uploads them at the end of the tick. Sprites that are adjacent in the atlas with
+ * matching extent are copied into a staging image and uploaded with one
+ * sub-image call per mip level instead of one per sprite.
+ *
+ * <p>Render thread only.
+ */
+public class SpriteUploadBatch {
+	private static @Nullable SpriteUploadBatch active = null;
+
+	private final DirtyRectMerger merger = new DirtyRectMerger();
+	private final ObjectArrayList<TextureAtlasSprite> sprites = new ObjectArrayList<>();
+	private final ObjectArrayList<NativeImage[]> images = new ObjectArrayList<>();
+	private int[] frameOrigins = new int[64];
+	private @Nullable NativeImage staging = null;
+
+	/** The batch collecting uploads, or null if uploads should happen immediately. */
+	public static @Nullable SpriteUploadBatch active() {
+		return active;
+	}
+
+	public void begin() {
+		assert RenderSystem.isOnRenderThread();
+		assert active == null;
+		active = this;
+	}
+
+	/**
+	 * Records an upload that would otherwise be done by {@code TextureAtlasSprite.upload}.
+	 * Images are read at {@link #end()} so they must not change until then.
+	 */
+	public void add(TextureAtlasSprite sprite, int frameX, int frameY, NativeImage[] frameImages) {
+		final int i = merger.add(sprite.getX(), sprite.getY(), sprite.getWidth(), sprite.getHeight());
+		sprites.add(sprite);
+		images.add(frameImages);
+
+		if (frameOrigins.length < (i + 1) * 2) {
+			frameOrigins = Arrays.copyOf(frameOrigins, frameOrigins.length * 2);
+		}
+
+		frameOrigins[i * 2] = frameX;
+		frameOrigins[i * 2 + 1] = frameY;
+	}
+
+	/**
+	 * Uploads everything collected since {@link #begin()}. The atlas texture must be bound.
+	 */
+	public void end() {
+		assert active == this;
+		active = null;
+
+		if (merger.size() > 0) {
+			final int groupCount = merger.merge();
+
+			for (int g = 0; g < groupCount; ++g) {
+				if (merger.groupMemberCount(g) == 1) {
+					final int i = merger.groupMember(g, 0);
+					// Nothing to coalesce - upload directly as vanilla would
+					((SpriteExt) sprites.get(i)).canvas_upload(frameOrigins[i * 2], frameOrigins[i * 2 + 1], images.get(i));
+				} else {
+					uploadGroup(g);
+				}
+			}
+		}
+
+		merger.clear();
+		sprites.clear();
+		images.clear();
+	}
+
+	private void uploadGroup(int group) {
+		final int levels = images.get(merger.groupMember(group, 0)).length;
+		final int memberCount = merger.groupMemberCount(group);
+
+		for (int level = 0; level < levels; ++level) {
+			final int x = merger.groupX(group) >> level;
+			final int y = merger.groupY(group) >> level;
+			final int width = merger.groupWidth(group) >> level;
+			final int height = merger.groupHeight(group) >> level;
+
+			if (width == 0 || height == 0) {
+				continue;
+			}
+
+			final NativeImage target = staging(width, height);
+			final int targetWidth = target.getWidth();
+			final long targetAddress = ((NativeImageExt) (Object) target).canvas_pointer();
+
+			for (int m = 0; m < memberCount; ++m) {
+				final int i = merger.groupMember(group, m);
+				final TextureAtlasSprite sprite = sprites.get(i);
+				final NativeImage[] spriteImages = images.get(i);
+				assert spriteImages.length == levels;
+
+				final NativeImage source = spriteImages[level];
+				final int sourceWidth = source.getWidth();
+				final long sourceAddress = ((NativeImageExt) (Object) source).canvas_pointer();
+				final int sourceX = frameOrigins[i * 2] >> level;
+				final int sourceY = frameOrigins[i * 2 + 1] >> level;
+				final int targetX = (sprite.getX() >> level) - x;
+				final int targetY = (sprite.getY() >> level) - y;
+				final int rowBytes = (sprite.getWidth() >> level) * 4;
+				final int rows = sprite.getHeight() >> level;
+
+				for (int row = 0; row < rows; ++row) {
+					MemoryUtil.memCopy(
+							sourceAddress + ((long) (sourceY + row) * sourceWidth + sourceX) * 4,
+							targetAddress + ((long) (targetY + row) * targetWidth + targetX) * 4,
+							rowBytes);
+				}
+			}
+
+			target.upload(level, x, y, 0, 0, width, height, levels > 1, false);
+		}
+	}
+
+	/** Staging image at least as large as requested. Row length for upload is the image width. */
+	private NativeImage staging(int width, int height) {
+		NativeImage result = staging;
+
+		if (result == null || result.getWidth() < width || result.getHeight() < height) {
+			final int newWidth = result == null ? width : Math.max(width, result.getWidth());
+			final int newHeight = result == null ? height : Math.max(height, result.getHeight());
+
+			if (result != null) {
+				result.close();
+			}
+
+			result = new NativeImage(newWidth, newHeight, false);
+			staging = result;
+		}
+
+		return result;
+	}
+
+	/** Releases the staging image. Call when the atlas is reloaded or closed. */
+	public void close() {
+		if (staging != null) {
+			staging.close();
+			staging = null;
+		}
+	}
+}
@@ -0,0 +1,146 @@
+/*
+ * This file is part of Canvas Renderer and is licensed to the project under
+ * terms that are compatible with the GNU Lesser General Public License.
+ * See the NOTICE file distributed with this work for additional information
+ * regarding copyright ownership and licensing.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package grondag.canvas.varia;
+
+import java.util.function.LongFunction;
+
+import it.unimi.dsi.fastutil.HashCommon;
+
+/**
+ * Long-keyed map for read-mostly lookups from many threads.
+ *
+ * <p>Reads take no lock. They probe an immutable open-addressing table
+ * published through a volatile field. Inserts are serialized, copy the
+ * table with the new entry and then publish the copy, so a reader always
+ * sees a complete table. Only suitable when inserts are rare and the map
+ * stays small, as with render states and collector indices.
+ */
+public class CopyOnWriteLong2ObjectMap<V> {
+	private volatile Table<V> table;
+
+	public CopyOnWriteLong2ObjectMap(int expectedSize) {
+		table = new Table<>(tableCapacity(expectedSize));
+	}
+
+	public V get(long key) {
+		return table.get(key);
+	}
+
+	public V computeIfAbsent(long key, LongFunction<V> func) {
+		final V result = table.get(key);
+		return result == null ? insert(key, func) : result;
+	}
+
+	private synchronized V insert(long key, LongFunction<V> func) {
+		final Table<V> current = table;
+		V result = current.get(key);
+
+		if (result == null) {
+			result = func.apply(key);
+			assert result != null;
+			table = current.with(key, result);
+		}
+
+		return result;
+	}
+
+	public int size() {
+		return table.size;
+	}
+
+	/** Publishes an empty table. Readers holding the prior table are unaffected. */
+	public synchronized void clear() {
+		table = new Table<>(table.keys.length);
+	}
+
+	private static int tableCapacity(int size) {
+		// keep load at or below one half
+		return HashCommon.nextPowerOfTwo(Math.max(4, size * 2));
+	}
+
+	private static class Table<V> {
+		private final long[] keys;
+		private final Object[] values;
+		private final int mask;
+		private final int size;
+
+		private Table(int capacity) {
+			keys = new long[capacity];
+			values = new Object[capacity];
+			mask = capacity - 1;
+			size = 0;
+		}
+
+		private Table(Table<V> from, int capacity, int size) {
+			keys = new long[capacity];
+			values = new Object[capacity];
+			mask = capacity - 1;
+			this.size = size;
+
+			if (capacity == from.keys.length) {
+				System.arraycopy(from.keys, 0, keys, 0, capacity);
+				System.arraycopy(from.values, 0, values, 0, capacity);
+			} else {
+				for (int i = 0; i < from.keys.length; ++i) {
+					if (from.values[i] != null) {
+						place(from.keys[i], from.values[i]);
+					}
+				}
+			}
+		}
+
+		@SuppressWarnings("unchecked")
+		private V get(long key) {
+			int i = (int) HashCommon.mix(key) & mask;
+
+			while (true) {
+				final Object v = values[i];
+
+				if (v == null) {
+					return null;
+				} else if (keys[i] == key) {
+					return (V) v;
+				}
+
+				i = (i + 1) & mask;
+			}
+		}
+
+		private void place(long key, Object value) {
+			int i = (int) HashCommon.mix(key) & mask;
+
+			while (values[i] != null) {
+				i = (i + 1) & mask;
+			}
+
+			keys[i] = key;
+			values[i] = value;
+		}
+
+		private Table<V> with(long key, V value) {
+			final int newSize = size + 1;
+			final int capacity = Math.max(keys.length, tableCapacity(newSize));
+			final Table<V> result = new Table<>(this, capacity, newSize);
+			result.place(key, value);
+			return result;
+		}
+	}
+}
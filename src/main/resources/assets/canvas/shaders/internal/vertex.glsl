@@ -48,6 +48,55 @@ void _cv_prepareForVertex() {
 }
 #endif
 
+// Compact terrain format - see CompactTerrainPacking for layout.
+// Tangent is not stored and is derived from the normal.
+#ifdef _CV_VERTEX_TERRAIN_COMPACT
+
+uniform int[182] _cvu_sectors_int;
+
+in uvec3 in_packed_pos;
+in vec4 in_color;
+in vec2 in_uv;
+in ivec2 in_lightmap;
+in int in_material;
+#define _CV_MATERIAL_ID in_material
+
+vec3 in_vertex;
+
+vec2 _cv_signNotZero(vec2 v) {
+	return vec2(v.x >= 0.0 ? 1.0 : -1.0, v.y >= 0.0 ? 1.0 : -1.0);
+}
+
+void _cv_prepareForVertex() {
+	int sectorId = int((in_packed_pos.x >> 22u) & 0x1FFu);
+	int packedSector = _cvu_sectors_int[sectorId >> 1];
+	packedSector = (sectorId & 1) == 1 ? ((packedSector >> 16) & 0xFFFF) : (packedSector & 0xFFFF);
+
+	// These are relative to the sector origin, which will be near the camera position
+	vec3 origin = vec3(((packedSector & 0xF) - 5) * 128, ((packedSector >> 4) & 0xF) * 128 - 64, (((packedSector >> 8) & 0xF) - 5) * 128);
+
+	// 8.14 fixed point, includes sector-relative region origin
+	in_vertex = origin + vec3(in_packed_pos & 0x3FFFFFu) * (1.0 / 16384.0) - 63.0;
+
+	// octahedral normal, 7 bits per component with 63 as zero
+	vec2 oct = (vec2((in_packed_pos.yz >> 22u) & 0x7Fu) - 63.0) * (1.0 / 63.0);
+	vec3 n = vec3(oct, 1.0 - abs(oct.x) - abs(oct.y));
+
+	if (n.z < 0.0) {
+		n.xy = (1.0 - abs(n.yx)) * _cv_signNotZero(n.xy);
+	}
+
+	in_normal = normalize(n);
+
+	float tangentInvert = 1.0 - float((in_packed_pos.x >> 30u) & 2u);
+	vec3 tangent = abs(in_normal.y) > 0.9 ? vec3(1.0, 0.0, 0.0) : normalize(cross(vec3(0.0, 1.0, 0.0), in_normal));
+	in_tangent = vec4(tangent, tangentInvert);
+
+	uint ao = (in_packed_pos.y >> 29u) | ((in_packed_pos.z >> 29u) << 3u);
+	in_ao = float(ao) * (1.0 / 63.0);
+}
+#endif
+
 #ifdef _CV_VERTEX_DEFAULT
 in vec3 in_vertex;
 in vec4 in_color;
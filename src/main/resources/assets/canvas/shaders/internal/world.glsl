@@ -72,8 +72,11 @@
 // w = smoothed thunder strength
 #define _CV_WEATHER 20
 
-// UINT ARRAY
+// UINT ARRAY - offsets and length must match IntData, see IntDataLayoutTest
 #define _CV_RENDER_FRAMES 0
+#define _CV_WORLD_FLAGS_INDEX 1
+#define _CV_PLAYER_FLAGS_INDEX 2
+#define _CV_CONDITION_FLAGS_START 3
 
 #define _CV_FLAG_HAS_SKYLIGHT 0
 #define _CV_FLAG_IS_OVERWORLD 1
@@ -83,14 +86,9 @@
 #define _CV_FLAG_IS_THUNDERING 5
 #define _CV_FLAG_IS_SKY_DARKENED 6
 
-#define _CV_WORLD_FLAGS_INDEX 0
-#define _CV_PLAYER_FLAGS_INDEX 1
-#define _CV_CONDITION_FLAGS_START 2
-
 // update each frame
 uniform vec4[32] _cvu_world;
-uniform uint[1] _cvu_world_uint;
-uniform uint[4] _cvu_flags;
+uniform uint[5] _cvu_uint;
 
 #define _CV_MODEL_TO_WORLD 0
 #define _CV_MODEL_TO_CAMERA 1
@@ -128,5 +126,5 @@ uniform mat4[25] _cvu_matrix;
 uniform mat4 _cvu_guiViewProjMatrix;
 
 #define _cv_bitValue(bits, bitIndex) int((bits >> bitIndex) & 1u)
-#define _cv_testConditioni(conditionIndex) _cv_bitValue(_cvu_flags[_CV_CONDITION_FLAGS_START + (conditionIndex >> 5)], (conditionIndex & 31))
+#define _cv_testConditioni(conditionIndex) _cv_bitValue(_cvu_uint[_CV_CONDITION_FLAGS_START + (conditionIndex >> 5)], (conditionIndex & 31))
 #define _cv_testCondition(conditionIndex) (_cv_testConditioni(conditionIndex) == 1)
@@ -10,7 +10,7 @@
 #define frx_heldLightInnerRadius _cvu_world[_CV_RENDER_INFO].z
 #define frx_heldLightOuterRadius _cvu_world[_CV_RENDER_INFO].w
 
-#define _CV_PLAYER_EFFECT(flagId) int((_cvu_flags[_CV_PLAYER_FLAGS_INDEX] >> flagId) & 1u)
+#define _CV_PLAYER_EFFECT(flagId) int((_cvu_uint[_CV_PLAYER_FLAGS_INDEX] >> flagId) & 1u)
 #define frx_effectSpeed _CV_PLAYER_EFFECT(0)
 #define frx_effectSlowness _CV_PLAYER_EFFECT(1)
 #define frx_effectHast _CV_PLAYER_EFFECT(2)
@@ -44,7 +44,7 @@
 #define frx_effectBadOmen _CV_PLAYER_EFFECT(30)
 #define frx_effectHeroOfTheVillage _CV_PLAYER_EFFECT(31)
 
-#define _CV_PLAYER_FLAG(flagId) int((_cvu_flags[_CV_WORLD_FLAGS_INDEX] >> flagId) & 1u)
+#define _CV_PLAYER_FLAG(flagId) int((_cvu_uint[_CV_WORLD_FLAGS_INDEX] >> flagId) & 1u)
 #define frx_playerEyeInFluid _CV_PLAYER_FLAG(7)
 #define frx_playerEyeInWater _CV_PLAYER_FLAG(8)
 #define frx_playerEyeInLava _CV_PLAYER_FLAG(9)
@@ -102,7 +102,7 @@
 #define FRX_EFFECT_BAD_OMEN 30 // DEPRECATED - DO NOT USE
 #define FRX_EFFECT_HERO_OF_THE_VILLAGE 31 // DEPRECATED - DO NOT USE
 
-#define frx_playerHasEffect(effect) (frx_bitValue(_cvu_flags[_CV_PLAYER_FLAGS_INDEX], effect) == 1)  // DEPRECATED - DO NOT USE
+#define frx_playerHasEffect(effect) (frx_bitValue(_cvu_uint[_CV_PLAYER_FLAGS_INDEX], effect) == 1)  // DEPRECATED - DO NOT USE
 
 #define FRX_PLAYER_EYE_IN_FLUID 7 // DEPRECATED - DO NOT USE
 #define FRX_PLAYER_EYE_IN_WATER 8 // DEPRECATED - DO NOT USE
@@ -119,4 +119,4 @@
 #define FRX_PLAYER_SPRINTING 19 // DEPRECATED - DO NOT USE
 #define FRX_PLAYER_WET 20 // DEPRECATED - DO NOT USE
 
-#define frx_playerFlag(flag) (frx_bitValue(_cvu_flags[_CV_WORLD_FLAGS_INDEX], flag) == 1) // DEPRECATED - DO NOT USE
+#define frx_playerFlag(flag) (frx_bitValue(_cvu_uint[_CV_WORLD_FLAGS_INDEX], flag) == 1) // DEPRECATED - DO NOT USE
@@ -47,12 +47,12 @@
 #define frx_renderTargetParticles (_cvu_context[_CV_TARGET_INDEX] == 3)
 #define frx_renderTargetEntity (_cvu_context[_CV_TARGET_INDEX] == 6)
 #define frx_viewDistance _cvu_world[_CV_CLEAR_COLOR].w
-#define frx_cameraInFluid int((_cvu_flags[_CV_WORLD_FLAGS_INDEX] >> 22) & 1u)
-#define frx_cameraInWater int((_cvu_flags[_CV_WORLD_FLAGS_INDEX] >> 23) & 1u)
-#define frx_cameraInLava int((_cvu_flags[_CV_WORLD_FLAGS_INDEX] >> 24) & 1u)
-#define frx_cameraInSnow int((_cvu_flags[_CV_WORLD_FLAGS_INDEX] >> 25) & 1u)
+#define frx_cameraInFluid int((_cvu_uint[_CV_WORLD_FLAGS_INDEX] >> 22) & 1u)
+#define frx_cameraInWater int((_cvu_uint[_CV_WORLD_FLAGS_INDEX] >> 23) & 1u)
+#define frx_cameraInLava int((_cvu_uint[_CV_WORLD_FLAGS_INDEX] >> 24) & 1u)
+#define frx_cameraInSnow int((_cvu_uint[_CV_WORLD_FLAGS_INDEX] >> 25) & 1u)
 
-#define frx_viewFlag(flag) (((_cvu_flags[_CV_WORLD_FLAGS_INDEX] >> flag) & 1u) == 1u) // DEPRECATED - DO NOT USE
+#define frx_viewFlag(flag) (((_cvu_uint[_CV_WORLD_FLAGS_INDEX] >> flag) & 1u) == 1u) // DEPRECATED - DO NOT USE
 
 
 
@@ -7,7 +7,7 @@
  ***************************************************************/
 
 #define frx_renderSeconds _cvu_world[_CV_WORLD_TIME].x
-#define frx_renderFrames _cvu_world_uint[_CV_RENDER_FRAMES]
+#define frx_renderFrames _cvu_uint[_CV_RENDER_FRAMES]
 #define frx_worldDay _cvu_world[_CV_WORLD_TIME].z
 #define frx_worldTime _cvu_world[_CV_WORLD_TIME].y
 #define frx_moonSize _cvu_world[_CV_WORLD_TIME].w
@@ -25,15 +25,15 @@
 #define frx_smoothedRainGradient _cvu_world[_CV_WEATHER].z
 #define frx_smoothedThunderGradient _cvu_world[_CV_WEATHER].w
 #define frx_vanillaClearColor _cvu_world[_CV_CLEAR_COLOR].rgb
-#define frx_worldHasSkylight int((_cvu_flags[_CV_WORLD_FLAGS_INDEX] >> 0) & 1u)
-#define frx_worldIsOverworld int((_cvu_flags[_CV_WORLD_FLAGS_INDEX] >> 1) & 1u)
-#define frx_worldIsNether int((_cvu_flags[_CV_WORLD_FLAGS_INDEX] >> 2) & 1u)
-#define frx_worldIsEnd int((_cvu_flags[_CV_WORLD_FLAGS_INDEX] >> 3) & 1u)
-#define frx_worldIsRaining int((_cvu_flags[_CV_WORLD_FLAGS_INDEX] >> 4) & 1u)
-#define frx_worldIsThundering int((_cvu_flags[_CV_WORLD_FLAGS_INDEX] >> 5) & 1u)
-#define frx_worldIsSkyDarkened int((_cvu_flags[_CV_WORLD_FLAGS_INDEX] >> 6) & 1u)
-#define frx_worldIsMoonlit int((_cvu_flags[_CV_WORLD_FLAGS_INDEX] >> 21) & 1u)
+#define frx_worldHasSkylight int((_cvu_uint[_CV_WORLD_FLAGS_INDEX] >> 0) & 1u)
+#define frx_worldIsOverworld int((_cvu_uint[_CV_WORLD_FLAGS_INDEX] >> 1) & 1u)
+#define frx_worldIsNether int((_cvu_uint[_CV_WORLD_FLAGS_INDEX] >> 2) & 1u)
+#define frx_worldIsEnd int((_cvu_uint[_CV_WORLD_FLAGS_INDEX] >> 3) & 1u)
+#define frx_worldIsRaining int((_cvu_uint[_CV_WORLD_FLAGS_INDEX] >> 4) & 1u)
+#define frx_worldIsThundering int((_cvu_uint[_CV_WORLD_FLAGS_INDEX] >> 5) & 1u)
+#define frx_worldIsSkyDarkened int((_cvu_uint[_CV_WORLD_FLAGS_INDEX] >> 6) & 1u)
+#define frx_worldIsMoonlit int((_cvu_uint[_CV_WORLD_FLAGS_INDEX] >> 21) & 1u)
 #define frx_conditionTest(conditionIndex) _cv_testConditioni(conditionIndex)
 
 #define frx_testCondition(conditionIndex) (frx_conditionTest(conditionIndex) == 1) // DEPRECATED - DO NOT USE
-#define frx_worldFlag(flag) (frx_bitValue(_cvu_flags[_CV_WORLD_FLAGS_INDEX], flag) == 1.0) // DEPRECATED - DO NOT USE
+#define frx_worldFlag(flag) (frx_bitValue(_cvu_uint[_CV_WORLD_FLAGS_INDEX], flag) == 1.0) // DEPRECATED - DO NOT USE
@@ -0,0 +1,77 @@
+package grondag.canvas.apiimpl.rendercontext;
+
+import static grondag.canvas.apiimpl.rendercontext.BlockFaceCullCache.CULL;
+import static grondag.canvas.apiimpl.rendercontext.BlockFaceCullCache.DYNAMIC;
+import static grondag.canvas.apiimpl.rendercontext.BlockFaceCullCache.FULL_CUBE;
+import static grondag.canvas.apiimpl.rendercontext.BlockFaceCullCache.RENDER_UNLESS_SKIPPED;
+import static grondag.canvas.apiimpl.rendercontext.BlockFaceCullCache.VANILLA;
+import static grondag.canvas.apiimpl.rendercontext.BlockFaceCullCache.decide;
+import static grondag.canvas.apiimpl.rendercontext.BlockFaceCullCache.flags;
+
+import org.junit.jupiter.api.Test;
+
+class BlockFaceCullCacheTest {
+	// Direction ordinals
+	private static final int DOWN = 0;
+	private static final int UP = 1;
+
+	/** Opaque full cube, like stone. */
+	private static final int STONE = flags(false, 0, true);
+	/** Bottom slab: occludes every side except the top. */
+	private static final int BOTTOM_SLAB = flags(false, 1 << UP, false);
+	/** Full shape that can't occlude, like glass. */
+	private static final int GLASS = flags(false, 0, false);
+	/** Shape varies by position, like a piston head or scaffolding. */
+	private static final int DYNAMIC_STATE = flags(true, 0x3F, true);
+
+	@Test
+	void flagsPacking() {
+		assert (STONE & FULL_CUBE) != 0;
+		assert (GLASS & FULL_CUBE) == 0;
+		assert (BOTTOM_SLAB & FULL_CUBE) == 0;
+		// dynamic states cache nothing else, whatever the shape at the origin says
+		assert DYNAMIC_STATE == DYNAMIC;
+	}
+
+	@Test
+	void fullNeighborHidesNonEmptyFace() {
+		for (int face = 0; face < 6; ++face) {
+			assert decide(STONE, STONE, face) == CULL;
+		}
+
+		assert decide(BOTTOM_SLAB, STONE, DOWN) == CULL;
+	}
+
+	@Test
+	void fullNeighborShowsEmptyFace() {
+		// slab top face has no occlusion shape so vanilla always renders it, subject to skipRendering
+		assert decide(BOTTOM_SLAB, STONE, UP) == RENDER_UNLESS_SKIPPED;
+	}
+
+	@Test
+	void dynamicShapeFallsThroughToVanilla() {
+		for (int face = 0; face < 6; ++face) {
+			assert decide(DYNAMIC_STATE, STONE, face) == VANILLA;
+			// a dynamic neighbor is never treated as a full cube
+			assert decide(STONE, DYNAMIC_STATE, face) == VANILLA;
+		}
+	}
+
+	@Test
+	void skipRenderingPairsUseVanilla() {
+		// glass doesn't occlude, so glass next to glass is left to vanilla, which checks skipRendering
+		for (int face = 0; face < 6; ++face) {
+			assert decide(GLASS, GLASS, face) == VANILLA;
+			assert decide(STONE, GLASS, face) == VANILLA;
+		}
+
+		// glass beside a full cube is hidden the same as any occluding face
+		assert decide(GLASS, STONE, UP) == CULL;
+	}
+
+	@Test
+	void nonOccludingNeighborUsesVanilla() {
+		assert decide(STONE, BOTTOM_SLAB, UP) == VANILLA;
+		assert decide(BOTTOM_SLAB, BOTTOM_SLAB, DOWN) == VANILLA;
+	}
+}
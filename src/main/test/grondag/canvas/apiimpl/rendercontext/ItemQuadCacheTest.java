@@ -0,0 +1,60 @@
+package grondag.canvas.apiimpl.rendercontext;
+
+import org.junit.jupiter.api.Test;
+
+class ItemQuadCacheTest {
+	private static int[] transform(float translateX) {
+		final int[] result = new int[ItemQuadCache.TRANSFORM_LENGTH];
+		result[0] = Float.floatToRawIntBits(1f);
+		result[12] = Float.floatToRawIntBits(translateX);
+		return result;
+	}
+
+	@Test
+	void keyedByItemModelAndTransform() {
+		final ItemQuadCache<String> cache = new ItemQuadCache<>(8);
+		final Object item = new Object();
+		final Object model = new Object();
+		final int[] slot0 = transform(0);
+
+		cache.put(item, model, 0xF000F0, 0, false, slot0, "a");
+
+		// caller may reuse its transform array
+		slot0[12] = Float.floatToRawIntBits(99f);
+		assert cache.get(item, model, 0xF000F0, 0, false, transform(99f)) == null;
+		assert "a".equals(cache.get(item, model, 0xF000F0, 0, false, transform(0)));
+
+		assert cache.get(new Object(), model, 0xF000F0, 0, false, transform(0)) == null;
+		assert cache.get(item, new Object(), 0xF000F0, 0, false, transform(0)) == null;
+		assert cache.get(item, model, 0, 0, false, transform(0)) == null;
+		assert cache.get(item, model, 0xF000F0, 1, false, transform(0)) == null;
+		assert cache.get(item, model, 0xF000F0, 0, true, transform(0)) == null;
+		assert cache.get(item, model, 0xF000F0, 0, false, transform(18)) == null;
+		assert cache.get(item, model, 0xF000F0, 0, false, transform(-0f)) == null;
+	}
+
+	@Test
+	void evictsLeastRecentlyUsed() {
+		final ItemQuadCache<Integer> cache = new ItemQuadCache<>(3);
+		final Object item = new Object();
+		final Object model = new Object();
+
+		for (int i = 0; i < 3; ++i) {
+			cache.put(item, model, 0, 0, false, transform(i), i);
+		}
+
+		// touch first entry so second becomes eldest
+		assert cache.get(item, model, 0, 0, false, transform(0)) == 0;
+		cache.put(item, model, 0, 0, false, transform(3), 3);
+
+		assert cache.size() == 3;
+		assert cache.get(item, model, 0, 0, false, transform(1)) == null;
+		assert cache.get(item, model, 0, 0, false, transform(0)) == 0;
+		assert cache.get(item, model, 0, 0, false, transform(2)) == 2;
+		assert cache.get(item, model, 0, 0, false, transform(3)) == 3;
+
+		cache.clear();
+		assert cache.size() == 0;
+		assert cache.get(item, model, 0, 0, false, transform(0)) == null;
+	}
+}
@@ -0,0 +1,90 @@
+package grondag.canvas.buffer.format;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class CompactTerrainPackingTest {
+	@Test
+	void positionsRoundTripWithinIronBarPrecision() {
+		final Random r = new Random(42);
+
+		for (int i = 0; i < 100000; ++i) {
+			final float p = r.nextFloat() * 255.99f;
+			final float decoded = CompactTerrainPacking.unpackPosition(CompactTerrainPacking.packPosition(p));
+			assert Math.abs(decoded - p) <= 0.5f / CompactTerrainPacking.POSITION_SCALE + 1e-5f;
+		}
+
+		// block-aligned and sixteenth-aligned positions are exact
+		for (int i = 0; i < 256 * 16; ++i) {
+			final float p = i / 16f;
+			assert CompactTerrainPacking.unpackPosition(CompactTerrainPacking.packPosition(p)) == p;
+		}
+	}
+
+	@Test
+	void fieldsDoNotOverlap() {
+		final Random r = new Random(7);
+
+		for (int i = 0; i < 10000; ++i) {
+			final int x = r.nextInt(CompactTerrainPacking.POSITION_MASK + 1);
+			final int y = r.nextInt(CompactTerrainPacking.POSITION_MASK + 1);
+			final int z = r.nextInt(CompactTerrainPacking.POSITION_MASK + 1);
+			final int sector = r.nextInt(364);
+			final boolean inverted = r.nextBoolean();
+			final int ao = r.nextInt(CompactTerrainPacking.AO_MASK + 1);
+			final int n = CompactTerrainPacking.packNormal(r.nextFloat() - 0.5f, r.nextFloat() - 0.5f, r.nextFloat() - 0.5f);
+
+			final int px = CompactTerrainPacking.packX(x, sector, inverted);
+			final int py = CompactTerrainPacking.packY(y, n, ao);
+			final int pz = CompactTerrainPacking.packZ(z, n, ao);
+
+			assert (px & CompactTerrainPacking.POSITION_MASK) == x;
+			assert (py & CompactTerrainPacking.POSITION_MASK) == y;
+			assert (pz & CompactTerrainPacking.POSITION_MASK) == z;
+			assert CompactTerrainPacking.unpackSector(px) == sector;
+			assert CompactTerrainPacking.unpackTangentInverted(px) == inverted;
+			assert CompactTerrainPacking.unpackAo(py, pz) == ao;
+			assert CompactTerrainPacking.unpackNormalBits(py, pz) == n;
+		}
+	}
+
+	@Test
+	void axisNormalsAreExact() {
+		final float[] out = new float[3];
+		final float[][] axes = {{0, -1, 0}, {0, 1, 0}, {0, 0, -1}, {0, 0, 1}, {-1, 0, 0}, {1, 0, 0}};
+
+		for (final float[] a : axes) {
+			CompactTerrainPacking.unpackNormal(CompactTerrainPacking.packNormal(a[0], a[1], a[2]), out);
+			assert out[0] == a[0] && out[1] == a[1] && out[2] == a[2] : a[0] + "," + a[1] + "," + a[2];
+		}
+	}
+
+	@Test
+	void normalsRoundTripWithinTolerance() {
+		final Random r = new Random(11);
+		final float[] out = new float[3];
+
+		for (int i = 0; i < 100000; ++i) {
+			float x = (float) r.nextGaussian();
+			float y = (float) r.nextGaussian();
+			float z = (float) r.nextGaussian();
+			final float len = (float) Math.sqrt(x * x + y * y + z * z);
+			x /= len;
+			y /= len;
+			z /= len;
+
+			CompactTerrainPacking.unpackNormal(CompactTerrainPacking.packNormal(x, y, z), out);
+			final float outLen = (float) Math.sqrt(out[0] * out[0] + out[1] * out[1] + out[2] * out[2]);
+			final float dot = (x * out[0] + y * out[1] + z * out[2]) / outLen;
+			// about 2.5 degrees
+			assert dot > 0.999f : dot;
+		}
+	}
+
+	@Test
+	void aoKeepsEndpoints() {
+		assert CompactTerrainPacking.packAo(0) == 0;
+		assert CompactTerrainPacking.packAo(255) == CompactTerrainPacking.AO_MASK;
+	}
+}
@@ -0,0 +1,190 @@
+package grondag.canvas.buffer.input;
+
+import java.nio.FloatBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.mojang.math.Matrix4f;
+import com.mojang.math.Vector3f;
+import com.mojang.math.Vector4f;
+
+class CascadeQuadSorterTest {
+	private static final int STRIDE = 5;
+
+	/** Nested cascades centered on the origin with identity light view. */
+	private static CascadeQuadSorter sorter() {
+		final CascadeQuadSorter sorter = new CascadeQuadSorter(4);
+		sorter.setView(1, 0, 0, 0, 0, 1, 0, 0);
+		sorter.setCascades(new float[] {
+			0, 0, 0, 256,
+			0, 0, 0, 64,
+			0, 0, 0, 32,
+			0, 0, 0, 8
+		});
+		return sorter;
+	}
+
+	/** Axis-aligned quad of the given size at x, y. Tag is stored after position to track order. */
+	private static void putQuad(int[] data, int quad, float x, float y, float size, int tag) {
+		for (int v = 0; v < 4; ++v) {
+			final int i = (quad * 4 + v) * STRIDE;
+			data[i] = Float.floatToRawIntBits(x + ((v & 1) == 0 ? 0 : size));
+			data[i + 1] = Float.floatToRawIntBits(y + ((v & 2) == 0 ? 0 : size));
+			data[i + 2] = Float.floatToRawIntBits(0);
+			data[i + 3] = tag;
+			data[i + 4] = v;
+		}
+	}
+
+	private static int tag(int[] data, int quad) {
+		return data[quad * 4 * STRIDE + 3];
+	}
+
+	@Test
+	void assignment() {
+		final CascadeQuadSorter sorter = sorter();
+		assert sorter.deepestCascade(0, 0, 1, 1) == 3;
+		assert sorter.deepestCascade(20, 20, 21, 21) == 2;
+		assert sorter.deepestCascade(40, -40, 41, -39) == 1;
+		assert sorter.deepestCascade(100, 0, 101, 1) == 0;
+		assert sorter.deepestCascade(300, 0, 301, 1) == -1;
+
+		// straddling a boundary counts as inside
+		assert sorter.deepestCascade(7, 7, 9, 9) == 3;
+	}
+
+	@Test
+	void viewTransformApplied() {
+		final CascadeQuadSorter sorter = sorter();
+		// light x axis is world z, so a quad far along world x is near the center in light space
+		sorter.setView(0, 0, 1, 0, 0, 1, 0, 0);
+		final int[] data = new int[4 * STRIDE];
+		putQuad(data, 0, 100, 0, 1, 0);
+		assert sorter.quadCascade(data, 0, STRIDE) == 3;
+	}
+
+	/** Same element mapping as SkyShadowRenderer, with FastMatrix4f f_mCR read from column-major storage. */
+	private static void setView(CascadeQuadSorter sorter, Matrix4f matrix) {
+		final FloatBuffer m = FloatBuffer.allocate(16);
+		matrix.store(m);
+		// column-major: f_mCR is at index C * 4 + R
+		sorter.setView(m.get(0), m.get(4), m.get(8), m.get(12), m.get(1), m.get(5), m.get(9), m.get(13));
+	}
+
+	@Test
+	void matchesRotatedTranslatedMatrix() {
+		final Matrix4f view = new Matrix4f();
+		view.setIdentity();
+		view.multiply(Vector3f.XP.rotationDegrees(-50));
+		view.multiply(Vector3f.YP.rotationDegrees(30));
+		view.multiply(Matrix4f.createTranslateMatrix(5, -3, 12));
+
+		final CascadeQuadSorter sorter = new CascadeQuadSorter(4);
+		setView(sorter, view);
+		sorter.setCascades(new float[] {
+			0, 0, 0, 48,
+			10, -6, 0, 20,
+			-4, 8, 0, 8,
+			6, 2, 0, 3
+		});
+
+		final Random random = new Random(42);
+		final int[] data = new int[4 * STRIDE];
+		final Vector4f vec = new Vector4f();
+		final int[] hits = new int[5];
+
+		for (int n = 0; n < 2000; ++n) {
+			final float x = random.nextFloat() * 80 - 40;
+			final float y = random.nextFloat() * 80 - 40;
+			final float z = random.nextFloat() * 80 - 40;
+			float minX = Float.POSITIVE_INFINITY;
+			float minY = Float.POSITIVE_INFINITY;
+			float maxX = Float.NEGATIVE_INFINITY;
+			float maxY = Float.NEGATIVE_INFINITY;
+
+			for (int v = 0; v < 4; ++v) {
+				final float vx = x + ((v & 1) == 0 ? 0 : 1);
+				final float vy = y;
+				final float vz = z + ((v & 2) == 0 ? 0 : 1);
+				final int i = v * STRIDE;
+				data[i] = Float.floatToRawIntBits(vx);
+				data[i + 1] = Float.floatToRawIntBits(vy);
+				data[i + 2] = Float.floatToRawIntBits(vz);
+
+				vec.set(vx, vy, vz, 1);
+				vec.transform(view);
+				minX = Math.min(minX, vec.x());
+				minY = Math.min(minY, vec.y());
+				maxX = Math.max(maxX, vec.x());
+				maxY = Math.max(maxY, vec.y());
+			}
+
+			final int expected = sorter.deepestCascade(minX, minY, maxX, maxY);
+			final int actual = sorter.quadCascade(data, 0, STRIDE);
+
+			// allow float rounding right at a cascade edge
+			if (actual != expected) {
+				assert sorter.deepestCascade(minX - 1e-3f, minY - 1e-3f, maxX + 1e-3f, maxY + 1e-3f) == Math.max(actual, expected) : n;
+			}
+
+			++hits[expected + 1];
+		}
+
+		// the sample must exercise every outcome to be meaningful
+		for (final int h : hits) {
+			assert h > 0;
+		}
+	}
+
+	@Test
+	void stablePartitionAndCounts() {
+		final CascadeQuadSorter sorter = sorter();
+		final float[] xs = {100, 0, 300, 20, 2, 40, 120, -3};
+		final int[] expectedCascade = {0, 3, -1, 2, 3, 1, 0, 3};
+		final int[] data = new int[xs.length * 4 * STRIDE];
+
+		for (int q = 0; q < xs.length; ++q) {
+			putQuad(data, q, xs[q], 0, 1, q);
+		}
+
+		final int[] counts = new int[8];
+		sorter.sort(data, data.length, STRIDE, counts, 4);
+
+		// deepest first, original order kept within each group
+		final int[] expectedOrder = {1, 4, 7, 3, 5, 0, 6, 2};
+
+		for (int q = 0; q < xs.length; ++q) {
+			assert tag(data, q) == expectedOrder[q] : q;
+			// vertices moved with their quad
+			assert data[(q * 4 + 3) * STRIDE + 4] == 3;
+		}
+
+		assert counts[4 + 3] == 3 * 4;
+		assert counts[4 + 2] == 4 * 4;
+		assert counts[4 + 1] == 5 * 4;
+		assert counts[4 + 0] == 7 * 4;
+
+		// every quad drawn for a cascade is in a group at least that deep
+		for (int c = 0; c < 4; ++c) {
+			for (int q = 0; q < counts[4 + c] / 4; ++q) {
+				assert expectedCascade[tag(data, q)] >= c;
+			}
+		}
+	}
+
+	@Test
+	void alreadyOrderedIsUnchanged() {
+		final CascadeQuadSorter sorter = sorter();
+		final int[] data = new int[3 * 4 * STRIDE];
+		putQuad(data, 0, 0, 0, 1, 0);
+		putQuad(data, 1, 20, 0, 1, 1);
+		putQuad(data, 2, 100, 0, 1, 2);
+		final int[] copy = data.clone();
+		final int[] counts = new int[4];
+		sorter.sort(data, data.length, STRIDE, counts, 0);
+		assert Arrays.equals(data, copy);
+		assert counts[0] == 12 && counts[3] == 4;
+	}
+}
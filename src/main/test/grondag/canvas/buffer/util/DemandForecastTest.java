@@ -0,0 +1,72 @@
+package grondag.canvas.buffer.util;
+
+import org.junit.jupiter.api.Test;
+
+class DemandForecastTest {
+	private static final long SECOND = 1_000_000_000L;
+
+	@Test
+	void burstDecays() {
+		final DemandForecast forecast = new DemandForecast(1);
+		long time = 0;
+		float decay = forecast.advance(time, 10);
+		assert decay == 1f;
+		assert forecast.update(0, 64, decay) == 64;
+
+		// no demand for one half-life, one second per update
+		for (int i = 0; i < 10; ++i) {
+			time += SECOND;
+			decay = forecast.advance(time, 10);
+			forecast.update(0, 0, decay);
+		}
+
+		assert forecast.forecast(0) == 32 : forecast.forecast(0);
+
+		// steady demand holds the forecast at that level
+		for (int i = 0; i < 600; ++i) {
+			time += SECOND;
+			forecast.update(0, 3, forecast.advance(time, 10));
+		}
+
+		assert forecast.forecast(0) == 3 : forecast.forecast(0);
+	}
+
+	@Test
+	void newPeakReplacesDecayedValue() {
+		final DemandForecast forecast = new DemandForecast(2);
+		long time = 0;
+		forecast.update(0, 10, forecast.advance(time, 5));
+		time += 5 * SECOND;
+		float decay = forecast.advance(time, 5);
+		assert forecast.update(0, 2, decay) == 5;
+		assert forecast.update(1, 7, decay) == 7;
+	}
+
+	@Test
+	void zeroHalfLifeDisablesDecay() {
+		final DemandForecast forecast = new DemandForecast(1);
+		long time = 0;
+		forecast.update(0, 100, forecast.advance(time, 0));
+
+		for (int i = 0; i < 100; ++i) {
+			time += 60 * SECOND;
+			forecast.update(0, 0, forecast.advance(time, 0));
+		}
+
+		assert forecast.forecast(0) == 100;
+	}
+
+	@Test
+	void unusedDemandReachesZero() {
+		final DemandForecast forecast = new DemandForecast(1);
+		long time = 0;
+		forecast.update(0, 1000, forecast.advance(time, 1));
+
+		for (int i = 0; i < 20; ++i) {
+			time += SECOND;
+			forecast.update(0, 0, forecast.advance(time, 1));
+		}
+
+		assert forecast.forecast(0) == 0 : forecast.forecast(0);
+	}
+}
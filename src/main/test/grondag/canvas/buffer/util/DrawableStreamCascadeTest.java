@@ -0,0 +1,86 @@
+package grondag.canvas.buffer.util;
+
+import java.nio.IntBuffer;
+
+import org.junit.jupiter.api.Test;
+
+import grondag.canvas.buffer.input.CascadeQuadSorter;
+import grondag.canvas.buffer.input.FaceBucket;
+import grondag.canvas.buffer.input.ShadowVertexCollector;
+
+class DrawableStreamCascadeTest {
+	private static final int STRIDE = 5;
+
+	/** Nested cascades centered on the origin with identity light view. */
+	private static CascadeQuadSorter sorter() {
+		final CascadeQuadSorter sorter = new CascadeQuadSorter(4);
+		sorter.setView(1, 0, 0, 0, 0, 1, 0, 0);
+		sorter.setCascades(new float[] {
+			0, 0, 0, 256,
+			0, 0, 0, 64,
+			0, 0, 0, 32,
+			0, 0, 0, 8
+		});
+		return sorter;
+	}
+
+	/** Writes a unit quad at x into the collector target and commits it. Tag follows position. */
+	private static void commitQuad(ShadowVertexCollector collector, float x, int tag, boolean castShadow) {
+		final int[] target = collector.target();
+
+		for (int v = 0; v < 4; ++v) {
+			final int i = v * STRIDE;
+			target[i] = Float.floatToRawIntBits(x + ((v & 1) == 0 ? 0 : 1));
+			target[i + 1] = Float.floatToRawIntBits((v & 2) == 0 ? 0 : 1);
+			target[i + 2] = Float.floatToRawIntBits(0);
+			target[i + 3] = tag;
+			target[i + 4] = v;
+		}
+
+		collector.commit(castShadow);
+	}
+
+	/** Same collector type that immediate draws get for unsorted materials when shadows are enabled. */
+	@Test
+	void shadowCollectorIsSortedByCascade() {
+		final ShadowVertexCollector collector = new ShadowVertexCollector(null, new int[4 * STRIDE]);
+		commitQuad(collector, 100, 0, true);
+		commitQuad(collector, 0, 1, false);
+		commitQuad(collector, 0, 2, true);
+		commitQuad(collector, 20, 3, true);
+
+		final int[] counts = new int[8];
+		DrawableStream.sortByShadowCascade(collector, sorter(), counts, 4, 4);
+
+		// deeper cascades draw fewer vertices, and never the color-only quad
+		assert counts[4 + 3] == 4;
+		assert counts[4 + 2] == 8;
+		assert counts[4 + 1] == 8;
+		assert counts[4 + 0] == 12;
+		assert counts[4 + 3] < collector.vertexCount();
+
+		final FaceBucket bucket = collector.faceBucket(0);
+		assert bucket.shadowVertexCount() == 12;
+
+		// shadow-casting quads come first, deepest first, then color-only quads
+		final IntBuffer buffer = IntBuffer.allocate(collector.integerSize());
+		collector.toBuffer(buffer);
+		final int[] expectedTags = {2, 3, 0, 1};
+
+		for (int q = 0; q < expectedTags.length; ++q) {
+			assert buffer.get(q * 4 * STRIDE + 3) == expectedTags[q] : q;
+			assert buffer.get((q * 4 + 3) * STRIDE + 4) == 3;
+		}
+	}
+
+	@Test
+	void emptyCollectorDrawsNothing() {
+		final ShadowVertexCollector collector = new ShadowVertexCollector(null, new int[4 * STRIDE]);
+		final int[] counts = {-1, -1, -1, -1};
+		DrawableStream.sortByShadowCascade(collector, sorter(), counts, 0, 4);
+
+		for (final int c : counts) {
+			assert c == 0;
+		}
+	}
+}
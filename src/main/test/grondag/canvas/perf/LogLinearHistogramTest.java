@@ -0,0 +1,34 @@
+package grondag.canvas.perf;
+
+import org.junit.jupiter.api.Test;
+
+class LogLinearHistogramTest {
+	@Test
+	void bucketBounds() {
+		for (long v = 0; v < 1 << 20; ++v) {
+			final int i = LogLinearHistogram.bucketIndex(v);
+			assert v >= LogLinearHistogram.bucketLowerBound(i);
+			assert v < LogLinearHistogram.bucketLowerBound(i) + LogLinearHistogram.bucketWidth(i);
+		}
+
+		assert LogLinearHistogram.bucketIndex(LogLinearHistogram.MAX_VALUE) == LogLinearHistogram.BUCKET_COUNT - 1;
+	}
+
+	@Test
+	void percentiles() {
+		final LogLinearHistogram h = new LogLinearHistogram();
+
+		for (int i = 1; i <= 100000; ++i) {
+			h.record(i * 1000L);
+		}
+
+		assert h.count() == 100000;
+		assert h.max() == 100000000L;
+		assert Math.abs(h.percentile(50) - 50000000L) < 50000000L * 0.04;
+		assert Math.abs(h.percentile(99) - 99000000L) < 99000000L * 0.04;
+		assert h.percentile(100) == h.max();
+
+		h.reset();
+		assert h.count() == 0 && h.percentile(50) == 0;
+	}
+}
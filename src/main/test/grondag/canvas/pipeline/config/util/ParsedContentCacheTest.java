@@ -0,0 +1,83 @@
+package grondag.canvas.pipeline.config.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+class ParsedContentCacheTest {
+	private static byte[] bytes(String s) {
+		return s.getBytes(StandardCharsets.UTF_8);
+	}
+
+	@Test
+	void onlyChangedContentIsParsedAgain() throws Exception {
+		final ParsedContentCache<String> cache = new ParsedContentCache<>(b -> new String(b, StandardCharsets.UTF_8).toUpperCase());
+
+		cache.beginPass();
+		assert cache.get(bytes("a")).equals("A");
+		assert cache.get(bytes("b")).equals("B");
+		assert cache.get(bytes("a")).equals("A");
+		cache.endPass();
+		assert cache.parseCount() == 2;
+
+		// second reload - "b" changed to "c", "a" unchanged
+		cache.beginPass();
+		final String a = cache.get(bytes("a"));
+		assert cache.get(bytes("c")).equals("C");
+		cache.endPass();
+		assert cache.parseCount() == 3;
+		assert cache.size() == 2;
+
+		// same instance is reused across passes
+		cache.beginPass();
+		assert cache.get(bytes("a")) == a;
+		cache.endPass();
+		assert cache.parseCount() == 3;
+
+		// "b" was dropped when unused for a pass and must be parsed again
+		cache.beginPass();
+		cache.get(bytes("b"));
+		cache.endPass();
+		assert cache.parseCount() == 4;
+	}
+
+	@Test
+	void failuresAreNotCached() {
+		final ParsedContentCache<String> cache = new ParsedContentCache<>(b -> {
+			throw new IllegalStateException();
+		});
+
+		for (int i = 0; i < 2; ++i) {
+			try {
+				cache.get(bytes("bad"));
+				assert false;
+			} catch (final Exception e) {
+				assert e instanceof IllegalStateException;
+			}
+		}
+
+		assert cache.parseCount() == 2;
+		assert cache.size() == 0;
+	}
+
+	@Test
+	void parallelGetsAgreeOnResult() {
+		final ParsedContentCache<Object> cache = new ParsedContentCache<>(b -> new Object());
+		cache.beginPass();
+
+		final Object[] results = IntStream.range(0, 10000).parallel().mapToObj(i -> {
+			try {
+				return cache.get(bytes("file" + (i % 16)));
+			} catch (final Exception e) {
+				throw new RuntimeException(e);
+			}
+		}).toArray();
+
+		for (int i = 0; i < results.length; ++i) {
+			assert results[i] == results[i % 16];
+		}
+
+		assert cache.size() == 16;
+	}
+}
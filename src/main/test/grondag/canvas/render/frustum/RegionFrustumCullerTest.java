@@ -0,0 +1,118 @@
+package grondag.canvas.render.frustum;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class RegionFrustumCullerTest {
+	private static final float MIN_GAP = 0.0001f;
+
+	private static void setPlane(RegionFrustumCuller culler, int plane, float x, float y, float z, float w) {
+		final float mag = (float) (-1 / Math.sqrt(x * x + y * y + z * z));
+		x *= mag;
+		y *= mag;
+		z *= mag;
+		w *= mag;
+		final float ext = Math.abs(x) + Math.abs(y) + Math.abs(z);
+		culler.setPlane(plane, x, y, z, w, w - 8 * ext - MIN_GAP);
+	}
+
+	/** Perspective view looking along yaw/pitch, planes extracted as in CanvasFrustum. */
+	private static void setView(RegionFrustumCuller culler, float yaw, float pitch, float fovDegrees) {
+		final float f = (float) (1 / Math.tan(Math.toRadians(fovDegrees) / 2));
+		final float near = 0.05f;
+		final float far = 2048;
+
+		// view rows: right, up, -forward
+		final float cy = (float) Math.cos(yaw);
+		final float sy = (float) Math.sin(yaw);
+		final float cp = (float) Math.cos(pitch);
+		final float sp = (float) Math.sin(pitch);
+		final float[] fwd = {-sy * cp, -sp, cy * cp};
+		final float[] right = {cy, 0, sy};
+		final float[] up = {
+			right[1] * fwd[2] - right[2] * fwd[1],
+			right[2] * fwd[0] - right[0] * fwd[2],
+			right[0] * fwd[1] - right[1] * fwd[0]};
+
+		// clip rows of projection * view, no translation because camera is at the origin
+		final float[] r0 = {f * right[0], f * right[1], f * right[2], 0};
+		final float[] r1 = {f * up[0], f * up[1], f * up[2], 0};
+		final float a = (far + near) / (near - far);
+		final float b = 2 * far * near / (near - far);
+		final float[] r2 = {-a * fwd[0], -a * fwd[1], -a * fwd[2], b};
+		final float[] r3 = {fwd[0], fwd[1], fwd[2], 0};
+
+		setPlane(culler, 0, r3[0] + r0[0], r3[1] + r0[1], r3[2] + r0[2], r3[3] + r0[3]);
+		setPlane(culler, 1, r3[0] - r0[0], r3[1] - r0[1], r3[2] - r0[2], r3[3] - r0[3]);
+		setPlane(culler, 2, r3[0] + r2[0], r3[1] + r2[1], r3[2] + r2[2], r3[3] + r2[3]);
+		setPlane(culler, 3, r3[0] - r1[0], r3[1] - r1[1], r3[2] - r1[2], r3[3] - r1[3]);
+		setPlane(culler, 4, r3[0] + r1[0], r3[1] + r1[1], r3[2] + r1[2], r3[3] + r1[3]);
+		culler.invalidate();
+	}
+
+	private static int[] compare(RegionFrustumCuller culler, double camX, double camY, double camZ, int positionVersion) {
+		final int baseX = ((int) Math.floor(camX) >> 4) << 4;
+		final int baseZ = ((int) Math.floor(camZ) >> 4) << 4;
+		int visible = 0;
+		int skipped = 0;
+
+		for (int x = baseX - 512; x <= baseX + 512; x += 16) {
+			for (int z = baseZ - 512; z <= baseZ + 512; z += 16) {
+				for (int y = -64; y < 320; y += 16) {
+					final float cx = (float) (x + 8 - camX);
+					final float cy = (float) (y + 8 - camY);
+					final float cz = (float) (z + 8 - camZ);
+
+					final boolean flat = culler.isRegionVisible(cx, cy, cz, RegionFrustumCuller.ALL_PLANES);
+					final int mask = culler.groupPlaneMask(x, y, z, camX, camY, camZ, positionVersion);
+					final boolean hierarchical = mask != RegionFrustumCuller.REJECTED && culler.isRegionVisible(cx, cy, cz, mask);
+
+					assert flat == hierarchical : x + "," + y + "," + z;
+
+					if (flat) ++visible;
+					if (mask == RegionFrustumCuller.REJECTED || mask == 0) ++skipped;
+				}
+			}
+		}
+
+		return new int[] {visible, skipped};
+	}
+
+	@Test
+	void matchesFlatTestForPerspectiveViews() {
+		final Random r = new Random(42);
+		final RegionFrustumCuller culler = new RegionFrustumCuller();
+		int skipped = 0;
+
+		for (int i = 0; i < 40; ++i) {
+			setView(culler, (float) (r.nextFloat() * Math.PI * 2), (float) ((r.nextFloat() - 0.5) * Math.PI * 0.98), 30 + r.nextFloat() * 80);
+			final double camX = (r.nextDouble() - 0.5) * 100000;
+			final double camY = r.nextDouble() * 300 - 60;
+			final double camZ = (r.nextDouble() - 0.5) * 100000;
+			final int[] result = compare(culler, camX, camY, camZ, i);
+			skipped += result[1];
+
+			// unchanged view reuses cached group results and must still agree
+			compare(culler, camX, camY, camZ, i);
+		}
+
+		// most regions are resolved by their group
+		assert skipped > 0;
+	}
+
+	@Test
+	void matchesFlatTestForArbitraryPlanes() {
+		final Random r = new Random(7);
+		final RegionFrustumCuller culler = new RegionFrustumCuller();
+
+		for (int i = 0; i < 40; ++i) {
+			for (int p = 0; p < RegionFrustumCuller.PLANE_COUNT; ++p) {
+				setPlane(culler, p, r.nextFloat() - 0.5f, r.nextFloat() - 0.5f, r.nextFloat() - 0.5f, (r.nextFloat() - 0.5f) * 400);
+			}
+
+			culler.invalidate();
+			compare(culler, r.nextDouble() * 1000, r.nextDouble() * 100, r.nextDouble() * 1000, 0);
+		}
+	}
+}
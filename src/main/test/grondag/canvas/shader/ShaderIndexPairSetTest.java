@@ -0,0 +1,64 @@
+package grondag.canvas.shader;
+
+import org.junit.jupiter.api.Test;
+
+class ShaderIndexPairSetTest {
+	@Test
+	void addReportsOnlyNewPairs() {
+		final ShaderIndexPairSet set = new ShaderIndexPairSet();
+
+		assert set.add(0, 0);
+		assert !set.add(0, 0);
+		assert set.add(0, 1);
+		assert set.add(1, 0);
+		assert !set.add(1, 0);
+		assert set.size() == 3;
+	}
+
+	@Test
+	void pairsAreNotSymmetric() {
+		final ShaderIndexPairSet set = new ShaderIndexPairSet();
+
+		set.add(2, 5);
+		assert set.contains(2, 5);
+		assert !set.contains(5, 2);
+		assert !set.contains(2, 4);
+	}
+
+	@Test
+	void growsPastInitialRows() {
+		final ShaderIndexPairSet set = new ShaderIndexPairSet();
+
+		for (int v = 0; v < 100; ++v) {
+			assert set.add(v, 99 - v);
+		}
+
+		assert !set.contains(1000, 0);
+
+		for (int v = 0; v < 100; ++v) {
+			assert set.contains(v, 99 - v);
+			assert !set.add(v, 99 - v);
+		}
+
+		assert set.size() == 100;
+	}
+
+	@Test
+	void registrationOrderDoesNotAffectMembership() {
+		final ShaderIndexPairSet forward = new ShaderIndexPairSet();
+		final ShaderIndexPairSet reverse = new ShaderIndexPairSet();
+
+		for (int i = 0; i < 20; ++i) {
+			forward.add(i % 7, i);
+			reverse.add((19 - i) % 7, 19 - i);
+		}
+
+		for (int v = 0; v < 7; ++v) {
+			for (int f = 0; f < 20; ++f) {
+				assert forward.contains(v, f) == reverse.contains(v, f);
+			}
+		}
+
+		assert forward.size() == reverse.size();
+	}
+}
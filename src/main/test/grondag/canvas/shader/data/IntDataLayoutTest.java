@@ -0,0 +1,81 @@
+package grondag.canvas.shader.data;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+class IntDataLayoutTest {
+	private static final String WORLD_GLSL = "assets/canvas/shaders/internal/world.glsl";
+	private static final Pattern DEFINE = Pattern.compile("^#define\\s+(_CV_\\w+)\\s+(\\d+)\\s*$");
+	private static final Pattern UNIFORM = Pattern.compile("^uniform\\s+uint\\s*\\[\\s*(\\d+)\\s*]\\s+_cvu_uint\\s*;");
+
+	private final Map<String, Integer> defines = new HashMap<>();
+	private int uniformLength = -1;
+
+	private void parse() throws IOException {
+		try (InputStream in = IntDataLayoutTest.class.getClassLoader().getResourceAsStream(WORLD_GLSL)) {
+			assert in != null : "Missing " + WORLD_GLSL;
+			final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+			String line;
+
+			while ((line = reader.readLine()) != null) {
+				line = line.trim();
+				Matcher m = DEFINE.matcher(line);
+
+				if (m.matches()) {
+					defines.put(m.group(1), Integer.parseInt(m.group(2)));
+				} else {
+					m = UNIFORM.matcher(line);
+
+					if (m.find()) {
+						uniformLength = Integer.parseInt(m.group(1));
+					}
+				}
+			}
+		}
+	}
+
+	private int define(String name) {
+		final Integer result = defines.get(name);
+		assert result != null : "Missing define " + name;
+		return result;
+	}
+
+	@Test
+	void offsetsMatchShader() throws IOException {
+		parse();
+		assert define("_CV_RENDER_FRAMES") == IntData.RENDER_FRAMES;
+		assert define("_CV_WORLD_FLAGS_INDEX") == IntData.WORLD_DATA_INDEX;
+		assert define("_CV_PLAYER_FLAGS_INDEX") == IntData.PLAYER_DATA_INDEX;
+		assert define("_CV_CONDITION_FLAGS_START") == IntData.CONDITION_DATA_START;
+	}
+
+	@Test
+	void lengthMatchesShader() throws IOException {
+		parse();
+		assert uniformLength == IntData.UINT_LENGTH : "_cvu_uint length " + uniformLength + " != " + IntData.UINT_LENGTH;
+	}
+
+	@Test
+	void offsetsAreDistinctAndInBounds() {
+		final int[] offsets = {IntData.RENDER_FRAMES, IntData.WORLD_DATA_INDEX, IntData.PLAYER_DATA_INDEX};
+
+		for (int i = 0; i < offsets.length; ++i) {
+			assert offsets[i] >= 0 && offsets[i] < IntData.CONDITION_DATA_START;
+
+			for (int j = i + 1; j < offsets.length; ++j) {
+				assert offsets[i] != offsets[j];
+			}
+		}
+
+		assert IntData.CONDITION_DATA_START < IntData.UINT_LENGTH;
+	}
+}
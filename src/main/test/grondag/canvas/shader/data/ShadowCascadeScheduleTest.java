@@ -0,0 +1,117 @@
+package grondag.canvas.shader.data;
+
+import org.junit.jupiter.api.Test;
+
+class ShadowCascadeScheduleTest {
+	private static int renderDue(ShadowCascadeSchedule schedule) {
+		int result = 0;
+
+		for (int c = 0; c < 4; ++c) {
+			if (schedule.isDue(c)) {
+				schedule.markRendered(c);
+				++result;
+			} else {
+				schedule.markSkipped(c);
+			}
+		}
+
+		return result;
+	}
+
+	@Test
+	void intervalOneUpdatesEveryCascade() {
+		final ShadowCascadeSchedule schedule = new ShadowCascadeSchedule(4);
+
+		for (int f = 0; f < 10; ++f) {
+			schedule.beginFrame(1, false);
+			assert renderDue(schedule) == 4;
+		}
+	}
+
+	@Test
+	void roundRobin() {
+		final ShadowCascadeSchedule schedule = new ShadowCascadeSchedule(4);
+
+		// first frame renders everything
+		schedule.beginFrame(3, false);
+		assert renderDue(schedule) == 4;
+
+		for (int f = 0; f < 30; ++f) {
+			schedule.beginFrame(3, false);
+			assert schedule.isDue(3);
+			// nearest plus exactly one far cascade
+			assert renderDue(schedule) == 2;
+		}
+
+		for (int c = 0; c < 3; ++c) {
+			assert schedule.renderCount(c) == 11 : schedule.renderCount(c);
+			assert schedule.skipCount(c) == 20;
+		}
+
+		assert schedule.renderCount(3) == 31;
+	}
+
+	@Test
+	void longIntervalStillCoversEachCascade() {
+		final ShadowCascadeSchedule schedule = new ShadowCascadeSchedule(4);
+
+		for (int interval = 2; interval <= 8; ++interval) {
+			final int[] hits = new int[3];
+
+			for (int f = 0; f < interval; ++f) {
+				for (int c = 0; c < 3; ++c) {
+					if (schedule.isScheduled(c, interval, f)) {
+						++hits[c];
+					}
+				}
+			}
+
+			for (int c = 0; c < 3; ++c) {
+				assert hits[c] == 1;
+			}
+		}
+	}
+
+	@Test
+	void viewChangeInvalidatesAll() {
+		final ShadowCascadeSchedule schedule = new ShadowCascadeSchedule(4);
+		schedule.beginFrame(4, false);
+		renderDue(schedule);
+		schedule.beginFrame(4, false);
+		renderDue(schedule);
+		schedule.beginFrame(4, true);
+		assert renderDue(schedule) == 4;
+	}
+
+	@Test
+	void unrenderedCascadeStaysDue() {
+		final ShadowCascadeSchedule schedule = new ShadowCascadeSchedule(4);
+		schedule.beginFrame(4, false);
+
+		// matrices computed but shadow pass skipped
+		schedule.beginFrame(4, false);
+
+		for (int c = 0; c < 4; ++c) {
+			assert schedule.isDue(c);
+		}
+
+		renderDue(schedule);
+		schedule.forceUpdate(0);
+		assert schedule.isDue(0);
+	}
+
+	@Test
+	void drift() {
+		assert ShadowCascadeSchedule.isWithinDrift(1, -1, 2, 64, 256);
+		assert !ShadowCascadeSchedule.isWithinDrift(9, 0, 0, 64, 256);
+		assert !ShadowCascadeSchedule.isWithinDrift(0, 0, -33, 64, 256);
+	}
+
+	@Test
+	void snapAngle() {
+		assert ShadowCascadeSchedule.snapAngle(12.34f, 0) == 12.34f;
+		final float a = ShadowCascadeSchedule.snapAngle(12.34f, 0.05f);
+		assert ShadowCascadeSchedule.snapAngle(12.345f, 0.05f) == a;
+		assert ShadowCascadeSchedule.snapAngle(12.38f, 0.05f) != a;
+	}
+}
@@ -0,0 +1,118 @@
+package grondag.canvas.terrain.occlusion;
+
+import org.junit.jupiter.api.Test;
+
+class TieredResortSchedulerTest {
+	private static class TestRegion implements TieredResortScheduler.Region {
+		final int squaredChunkDistance;
+		int version = -1;
+		int sortCount;
+
+		TestRegion(int squaredChunkDistance) {
+			this.squaredChunkDistance = squaredChunkDistance;
+		}
+
+		@Override
+		public int squaredCameraChunkDistance() {
+			return squaredChunkDistance;
+		}
+
+		@Override
+		public boolean scheduleSort(int sortPositionVersion) {
+			if (version == sortPositionVersion) {
+				return false;
+			}
+
+			version = sortPositionVersion;
+			++sortCount;
+			return true;
+		}
+	}
+
+	private static long blockPos(double x, double y, double z) {
+		return ((long) Math.floor(x) & 0xFFFFF) | (((long) Math.floor(y) & 0xFFFFF) << 20) | (((long) Math.floor(z) & 0xFFFFF) << 40);
+	}
+
+	private static void step(TieredResortScheduler scheduler, TestRegion[] regions, double x, double y, double z) {
+		scheduler.updateCamera(x, y, z, blockPos(x, y, z));
+
+		// drain any capped work as successive frames would
+		while (scheduler.hasPendingWork()) {
+			scheduler.schedule(regions, regions.length);
+		}
+	}
+
+	@Test
+	void tiers() {
+		assert TieredResortScheduler.tier(0) == 0;
+		assert TieredResortScheduler.tier(16) == 0;
+		assert TieredResortScheduler.tier(17) == 1;
+		assert TieredResortScheduler.tier(64) == 1;
+		assert TieredResortScheduler.tier(256) == 2;
+		assert TieredResortScheduler.tier(257) == 3;
+	}
+
+	@Test
+	void distantRegionsSortLessOften() {
+		final TieredResortScheduler scheduler = new TieredResortScheduler();
+		final TestRegion near = new TestRegion(1);
+		final TestRegion mid = new TestRegion(40);
+		final TestRegion far = new TestRegion(150);
+		final TestRegion veryFar = new TestRegion(1000);
+		final TestRegion[] regions = {near, mid, far, veryFar};
+
+		// walk 32 blocks in a straight line in half-block steps
+		for (int i = 0; i <= 64; ++i) {
+			step(scheduler, regions, 0.25 + i * 0.5, 64.5, 0.25);
+		}
+
+		// initial sort plus one per block (or per 2, 4, 8 blocks)
+		assert near.sortCount == 33 : near.sortCount;
+		assert mid.sortCount == 17 : mid.sortCount;
+		assert far.sortCount == 9 : far.sortCount;
+		assert veryFar.sortCount == 5 : veryFar.sortCount;
+
+		assert scheduler.scheduledCount(0) == near.sortCount;
+		assert scheduler.scheduledCount(3) == veryFar.sortCount;
+		assert scheduler.invalidationCount(3) == 5;
+	}
+
+	@Test
+	void stationaryCameraDoesNoWork() {
+		final TieredResortScheduler scheduler = new TieredResortScheduler();
+		final TestRegion[] regions = {new TestRegion(1), new TestRegion(1000)};
+		step(scheduler, regions, 0.5, 0.5, 0.5);
+		final long checked = scheduler.checkedCount(0);
+
+		for (int i = 0; i < 10; ++i) {
+			step(scheduler, regions, 0.5, 0.5, 0.5);
+		}
+
+		assert !scheduler.hasPendingWork();
+		assert scheduler.checkedCount(0) == checked;
+	}
+
+	@Test
+	void passIsCappedAndResumes() {
+		final TieredResortScheduler scheduler = new TieredResortScheduler();
+		final TestRegion[] regions = new TestRegion[100];
+
+		for (int i = 0; i < regions.length; ++i) {
+			regions[i] = new TestRegion(1);
+		}
+
+		scheduler.updateCamera(0.5, 0.5, 0.5, 0);
+		int passes = 0;
+
+		while (scheduler.hasPendingWork()) {
+			assert scheduler.schedule(regions, regions.length) <= TieredResortScheduler.MAX_SCHEDULED_PER_PASS + 1;
+			++passes;
+		}
+
+		assert passes > 1;
+
+		for (final TestRegion r : regions) {
+			assert r.sortCount == 1;
+		}
+	}
+}
@@ -0,0 +1,125 @@
+package grondag.canvas.terrain.region.input;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LightAoCacheTest {
+	private static final int SIZE = 20 * 20 * 20;
+	private static final int[] PREFILL_INDEX = new int[LightAoCache.PREFILL_COUNT];
+
+	static {
+		int i = 0;
+
+		for (int z = -1; z <= 16; ++z) {
+			for (int y = -1; y <= 16; ++y) {
+				for (int x = -1; x <= 16; ++x) {
+					PREFILL_INDEX[i++] = index(x, y, z);
+				}
+			}
+		}
+	}
+
+	private static int index(int x, int y, int z) {
+		return (x + 2) + (y + 2) * 20 + (z + 2) * 400;
+	}
+
+	private static int syntheticLight(int index) {
+		final int h = index * 0x9E3779B1;
+		return ((h >>> 8) & 0xF0) | (((h >>> 20) & 0xF0) << 16);
+	}
+
+	@Test
+	void prefillMatchesOnDemand() {
+		final Random r = new Random(42);
+		final LightAoCache cache = new LightAoCache(SIZE, PREFILL_INDEX);
+		final int[] computeCount = new int[SIZE];
+
+		for (int pass = 0; pass < 20; ++pass) {
+			cache.clear();
+			Arrays.fill(computeCount, 0);
+			final boolean[] near = new boolean[SIZE];
+
+			// some values already present, as from smoothing, must be kept
+			for (int n = 0; n < 200; ++n) {
+				cache.setLight(r.nextInt(SIZE), -7);
+			}
+
+			final int marks = r.nextInt(300);
+
+			for (int n = 0; n < marks; ++n) {
+				final int x = r.nextInt(16);
+				final int y = r.nextInt(16);
+				final int z = r.nextInt(16);
+				cache.markForPrefill(x, y, z);
+
+				for (int dz = -1; dz <= 1; ++dz) {
+					for (int dy = -1; dy <= 1; ++dy) {
+						for (int dx = -1; dx <= 1; ++dx) {
+							near[index(x + dx, y + dy, z + dz)] = true;
+						}
+					}
+				}
+			}
+
+			final boolean[] preset = new boolean[SIZE];
+
+			for (int i = 0; i < SIZE; ++i) {
+				preset[i] = cache.hasLight(i);
+			}
+
+			cache.prefillLight(i -> {
+				++computeCount[i];
+				return syntheticLight(i);
+			});
+
+			for (int i = 0; i < SIZE; ++i) {
+				assert computeCount[i] <= 1;
+				assert cache.hasLight(i) == (preset[i] || near[i]);
+
+				if (preset[i]) {
+					assert cache.light(i) == -7;
+					assert computeCount[i] == 0;
+				} else if (near[i]) {
+					assert cache.light(i) == syntheticLight(i);
+				}
+			}
+		}
+	}
+
+	@Test
+	void lightAndAoAreIndependent() {
+		final Random r = new Random(7);
+		final LightAoCache cache = new LightAoCache(SIZE, PREFILL_INDEX);
+		final int[] light = new int[SIZE];
+		final int[] ao = new int[SIZE];
+
+		for (int i = 0; i < SIZE; ++i) {
+			assert !cache.hasLight(i) && !cache.hasAo(i);
+		}
+
+		for (int n = 0; n < 50000; ++n) {
+			final int i = r.nextInt(SIZE);
+
+			if (r.nextBoolean()) {
+				light[i] = r.nextInt();
+				cache.setLight(i, light[i]);
+			} else {
+				ao[i] = r.nextInt(256);
+				cache.setAo(i, ao[i]);
+			}
+		}
+
+		for (int i = 0; i < SIZE; ++i) {
+			if (cache.hasLight(i)) assert cache.light(i) == light[i];
+			if (cache.hasAo(i)) assert cache.ao(i) == ao[i];
+		}
+
+		cache.clear();
+
+		for (int i = 0; i < SIZE; ++i) {
+			assert !cache.hasLight(i) && !cache.hasAo(i);
+		}
+	}
+}
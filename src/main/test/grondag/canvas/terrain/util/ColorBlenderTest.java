@@ -0,0 +1,68 @@
+package grondag.canvas.terrain.util;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class ColorBlenderTest {
+	@Test
+	void matchesPerColumnAverage() {
+		final Random r = new Random(42);
+
+		for (int radius = 1; radius <= 7; ++radius) {
+			final int width = ColorBlender.sourceWidth(radius);
+
+			// random noise
+			final int[] noise = new int[width * width];
+
+			for (int i = 0; i < noise.length; ++i) {
+				noise[i] = r.nextInt(0x1000000);
+			}
+
+			check(noise, radius);
+
+			// blocky biome regions with a few distinct colors
+			final int[] palette = {0x91BD59, 0x59C93C, 0x79C05A, 0xBFB755, 0x6A7039};
+			final int[] biomes = new int[width * width];
+
+			for (int z = 0; z < width; ++z) {
+				for (int x = 0; x < width; ++x) {
+					biomes[x + z * width] = palette[((x / 5) * 7 + (z / 3) * 3) % palette.length];
+				}
+			}
+
+			check(biomes, radius);
+		}
+	}
+
+	private static void check(int[] source, int radius) {
+		final int[] blended = new int[256];
+		ColorBlender.blend(source, radius, blended);
+
+		for (int z = 0; z < 16; ++z) {
+			for (int x = 0; x < 16; ++x) {
+				assert blended[x | (z << 4)] == average(source, radius, x, z);
+			}
+		}
+	}
+
+	/** Same as the original per-column blend. */
+	private static int average(int[] source, int radius, int xIn, int zIn) {
+		final int width = ColorBlender.sourceWidth(radius);
+		final int sampleCount = (radius * 2 + 1) * (radius * 2 + 1);
+		int r = 0;
+		int g = 0;
+		int b = 0;
+
+		for (int x = xIn; x <= xIn + radius * 2; x++) {
+			for (int z = zIn; z <= zIn + radius * 2; z++) {
+				final int color = source[x + z * width];
+				g += (color >> 8) & 255;
+				r += (color >> 16) & 255;
+				b += color & 255;
+			}
+		}
+
+		return (r / sampleCount & 255) << 16 | (g / sampleCount & 255) << 8 | b / sampleCount & 255;
+	}
+}
@@ -0,0 +1,199 @@
+package grondag.canvas.terrain.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LodMesherTest {
+	@Test
+	void solidRegionIsOneQuadPerFace() {
+		final int[] keys = new int[LodMesher.PADDED_COUNT];
+		fill(keys, 0, 0, 0, 16, 16, 16, 1);
+		final Surface surface = mesh(keys);
+		assert surface.quads == 6;
+		assert surface.isClosed();
+
+		for (int face = 0; face < 6; ++face) {
+			assert surface.area[face] == 256;
+		}
+	}
+
+	@Test
+	void solidNeighborsHideBorderFaces() {
+		final int[] keys = new int[LodMesher.PADDED_COUNT];
+		fill(keys, -1, -1, -1, 17, 17, 17, 1);
+		assert mesh(keys).quads == 0;
+	}
+
+	@Test
+	void heightmapTerrainUsesFewQuads() {
+		final int[] keys = new int[LodMesher.PADDED_COUNT];
+		// two plateaus with different surface keys
+		fill(keys, 0, 0, 0, 8, 6, 16, 1);
+		fill(keys, 8, 0, 0, 16, 9, 16, 2);
+		final Surface surface = mesh(keys);
+		assert surface.isClosed();
+		// two quads each for bottom, top, north and south, one per outer side, one for the step
+		assert surface.quads == 11 : surface.quads;
+		// top faces never cover more than the column footprint
+		assert surface.area[1] == 256;
+	}
+
+	@Test
+	void translucentDoesNotHideSolid() {
+		final int water = 3 | LodMesher.TRANSLUCENT;
+		final int[] keys = new int[LodMesher.PADDED_COUNT];
+		fill(keys, 0, 0, 0, 16, 4, 16, 1);
+		fill(keys, 0, 4, 0, 16, 10, 16, water);
+		final Surface surface = mesh(keys);
+
+		// seafloor top and water top are both present
+		assert surface.keyArea(1, 1) == 256;
+		assert surface.keyArea(1, water) == 256;
+		// water bottom is hidden by the solid floor
+		assert surface.keyArea(0, water) == 0;
+	}
+
+	@Test
+	void randomVoxelsAreWatertight() {
+		final Random r = new Random(42);
+
+		for (int n = 0; n < 20; ++n) {
+			final int[] keys = new int[LodMesher.PADDED_COUNT];
+
+			for (int x = 0; x < 16; ++x) {
+				for (int y = 0; y < 16; ++y) {
+					for (int z = 0; z < 16; ++z) {
+						if (r.nextInt(3) == 0) {
+							keys[LodMesher.paddedIndex(x, y, z)] = 1 + r.nextInt(3);
+						}
+					}
+				}
+			}
+
+			final Surface surface = mesh(keys);
+			assert surface.isClosed();
+			// merging never produces more quads than exposed voxel faces
+			assert surface.quads <= exposedFaceCount(keys);
+		}
+	}
+
+	@Test
+	void windingFacesOutward() {
+		final float[] v0 = new float[3];
+		final float[] v1 = new float[3];
+		final float[] v2 = new float[3];
+		final int[][] normals = {{0, -1, 0}, {0, 1, 0}, {0, 0, -1}, {0, 0, 1}, {-1, 0, 0}, {1, 0, 0}};
+
+		for (int face = 0; face < 6; ++face) {
+			LodMesher.vertex(face, 0, 0, 0, 0, 1, 1, 1, v0);
+			LodMesher.vertex(face, 1, 0, 0, 0, 1, 1, 1, v1);
+			LodMesher.vertex(face, 2, 0, 0, 0, 1, 1, 1, v2);
+			final float ax = v1[0] - v0[0];
+			final float ay = v1[1] - v0[1];
+			final float az = v1[2] - v0[2];
+			final float bx = v2[0] - v1[0];
+			final float by = v2[1] - v1[1];
+			final float bz = v2[2] - v1[2];
+			assert ay * bz - az * by == normals[face][0];
+			assert az * bx - ax * bz == normals[face][1];
+			assert ax * by - ay * bx == normals[face][2];
+		}
+	}
+
+	private static void fill(int[] keys, int x0, int y0, int z0, int x1, int y1, int z1, int key) {
+		for (int x = x0; x < x1; ++x) {
+			for (int y = y0; y < y1; ++y) {
+				for (int z = z0; z < z1; ++z) {
+					keys[LodMesher.paddedIndex(x, y, z)] = key;
+				}
+			}
+		}
+	}
+
+	private static int exposedFaceCount(int[] keys) {
+		final int[][] steps = {{0, -1, 0}, {0, 1, 0}, {0, 0, -1}, {0, 0, 1}, {-1, 0, 0}, {1, 0, 0}};
+		int result = 0;
+
+		for (int x = 0; x < 16; ++x) {
+			for (int y = 0; y < 16; ++y) {
+				for (int z = 0; z < 16; ++z) {
+					for (final int[] s : steps) {
+						if (LodMesher.isExposed(keys[LodMesher.paddedIndex(x, y, z)], keys[LodMesher.paddedIndex(x + s[0], y + s[1], z + s[2])])) {
+							++result;
+						}
+					}
+				}
+			}
+		}
+
+		return result;
+	}
+
+	private static Surface mesh(int[] keys) {
+		final Surface result = new Surface();
+		result.quads = LodMesher.mesh(keys, result::accept);
+		return result;
+	}
+
+	/** Tallies quad area per face and key, and signed face coverage for closure checks. */
+	private static class Surface {
+		int quads;
+		final int[] area = new int[6];
+		final Map<Long, Integer> keyAreas = new HashMap<>();
+		final int[][] coverage = new int[3][17 * 17 * 17];
+
+		void accept(int face, int key, int minX, int minY, int minZ, int maxX, int maxY, int maxZ) {
+			final int a = (maxX - minX) * (maxY - minY) + (maxY - minY) * (maxZ - minZ) + (maxX - minX) * (maxZ - minZ);
+			area[face] += a;
+			keyAreas.merge(((long) face << 32) | key, a, Integer::sum);
+
+			final int axis = face >> 1;
+			final int sign = (face & 1) == 1 ? 1 : -1;
+			final int ex = maxX == minX ? minX + 1 : maxX;
+			final int ey = maxY == minY ? minY + 1 : maxY;
+			final int ez = maxZ == minZ ? minZ + 1 : maxZ;
+
+			for (int x = minX; x < ex; ++x) {
+				for (int y = minY; y < ey; ++y) {
+					for (int z = minZ; z < ez; ++z) {
+						coverage[axis][x + y * 17 + z * 289] += sign;
+					}
+				}
+			}
+		}
+
+		int keyArea(int face, int key) {
+			return keyAreas.getOrDefault(((long) face << 32) | key, 0);
+		}
+
+		/** Along every line parallel to each axis, entering and exiting faces must balance. */
+		boolean isClosed() {
+			for (int axis = 0; axis < 3; ++axis) {
+				for (int u = 0; u < 16; ++u) {
+					for (int v = 0; v < 16; ++v) {
+						int sum = 0;
+
+						for (int d = 0; d <= 16; ++d) {
+							final int index = switch (axis) {
+								case 0 -> u + d * 17 + v * 289;
+								case 1 -> u + v * 17 + d * 289;
+								default -> d + v * 17 + u * 289;
+							};
+
+							sum += coverage[axis][index];
+						}
+
+						if (sum != 0) {
+							return false;
+						}
+					}
+				}
+			}
+
+			return true;
+		}
+	}
+}
@@ -0,0 +1,104 @@
+package grondag.canvas.texture;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class DirtyRectMergerTest {
+	@Test
+	void adjacentSpritesFormOneGroup() {
+		final DirtyRectMerger merger = new DirtyRectMerger();
+		// 2x2 block of 16x16 sprites, added out of order
+		merger.add(16, 16, 16, 16);
+		merger.add(0, 0, 16, 16);
+		merger.add(0, 16, 16, 16);
+		merger.add(16, 0, 16, 16);
+
+		assert merger.merge() == 1;
+		assert merger.groupX(0) == 0 && merger.groupY(0) == 0;
+		assert merger.groupWidth(0) == 32 && merger.groupHeight(0) == 32;
+		assert merger.groupMemberCount(0) == 4;
+	}
+
+	@Test
+	void gapsAndMismatchedSizesStaySeparate() {
+		final DirtyRectMerger merger = new DirtyRectMerger();
+		merger.add(0, 0, 16, 16);
+		// gap of one sprite
+		merger.add(32, 0, 16, 16);
+		// adjacent but taller - union would not be a rectangle
+		merger.add(48, 0, 16, 32);
+
+		assert merger.merge() == 3;
+	}
+
+	@Test
+	void lShapeIsNotMergedIntoOneRectangle() {
+		final DirtyRectMerger merger = new DirtyRectMerger();
+		merger.add(0, 0, 16, 16);
+		merger.add(16, 0, 16, 16);
+		merger.add(0, 16, 16, 16);
+
+		assert merger.merge() == 2;
+	}
+
+	@Test
+	void groupsExactlyCoverMembers() {
+		final Random r = new Random(42);
+		final DirtyRectMerger merger = new DirtyRectMerger();
+		final List<int[]> rects = new ArrayList<>();
+
+		for (int n = 0; n < 50; ++n) {
+			merger.clear();
+			rects.clear();
+			final boolean[] used = new boolean[32 * 32];
+
+			// random subset of a grid of 16x16 sprites, with some 32x32 sprites mixed in
+			for (int y = 0; y < 32; ++y) {
+				for (int x = 0; x < 32; ++x) {
+					if (!used[x + y * 32] && r.nextInt(3) != 0) {
+						final boolean big = x < 31 && y < 31 && r.nextInt(8) == 0 && !used[x + 1 + y * 32];
+						final int size = big ? 2 : 1;
+
+						for (int j = 0; j < size; ++j) {
+							for (int i = 0; i < size; ++i) {
+								used[x + i + (y + j) * 32] = true;
+							}
+						}
+
+						rects.add(new int[] {x * 16, y * 16, size * 16, size * 16});
+						merger.add(x * 16, y * 16, size * 16, size * 16);
+					}
+				}
+			}
+
+			final int groupCount = merger.merge();
+			final int[] seen = new int[rects.size()];
+			assert groupCount < rects.size();
+
+			for (int g = 0; g < groupCount; ++g) {
+				final int gx = merger.groupX(g);
+				final int gy = merger.groupY(g);
+				int area = 0;
+
+				for (int m = 0; m < merger.groupMemberCount(g); ++m) {
+					final int i = merger.groupMember(g, m);
+					final int[] rect = rects.get(i);
+					++seen[i];
+					area += rect[2] * rect[3];
+					assert rect[0] >= gx && rect[0] + rect[2] <= gx + merger.groupWidth(g);
+					assert rect[1] >= gy && rect[1] + rect[3] <= gy + merger.groupHeight(g);
+				}
+
+				// members don't overlap, so matching area means no gaps
+				assert area == merger.groupWidth(g) * merger.groupHeight(g);
+			}
+
+			for (final int count : seen) {
+				assert count == 1;
+			}
+		}
+	}
+}
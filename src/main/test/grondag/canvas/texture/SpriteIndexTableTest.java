@@ -0,0 +1,107 @@
+package grondag.canvas.texture;
+
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class SpriteIndexTableTest {
+	@Test
+	void sequential() {
+		final AtomicInteger next = new AtomicInteger();
+		final SpriteIndexTable a = new SpriteIndexTable(next, (k, i) -> { });
+		final SpriteIndexTable b = new SpriteIndexTable(next, (k, i) -> { });
+
+		assert a.index(5) == 0;
+		assert a.index(5) == 0;
+		assert b.index(5) == 1;
+		assert a.index(1000) == 2;
+		assert a.index(5) == 0;
+		assert b.index(5) == 1;
+		assert a.index(1000) == 2;
+	}
+
+	@Test
+	void concurrentIndicesAreUniqueDenseAndStable() throws InterruptedException {
+		final int threadCount = 8;
+		final int tableCount = 16;
+		final int keyCount = 2000;
+		final AtomicInteger next = new AtomicInteger();
+		final ConcurrentHashMap<Integer, Long> assigned = new ConcurrentHashMap<>();
+		final SpriteIndexTable[] tables = new SpriteIndexTable[tableCount];
+
+		for (int t = 0; t < tableCount; ++t) {
+			final long table = t;
+
+			tables[t] = new SpriteIndexTable(next, (k, i) -> {
+				// each index is reported exactly once, for exactly one table and key
+				assert assigned.put(i, (table << 32) | k) == null;
+			});
+		}
+
+		final int[][][] results = new int[threadCount][tableCount][keyCount];
+		final CountDownLatch start = new CountDownLatch(1);
+		final Thread[] threads = new Thread[threadCount];
+		final AtomicInteger failures = new AtomicInteger();
+
+		for (int n = 0; n < threadCount; ++n) {
+			final int thread = n;
+
+			threads[n] = new Thread(() -> {
+				final Random r = new Random(thread);
+
+				try {
+					start.await();
+
+					for (int j = 0; j < 200_000; ++j) {
+						final int t = r.nextInt(tableCount);
+						final int k = r.nextInt(keyCount);
+						final int i = tables[t].index(k);
+						final int prior = results[thread][t][k];
+
+						if (prior != 0 && prior != i + 1) {
+							failures.incrementAndGet();
+						}
+
+						results[thread][t][k] = i + 1;
+					}
+				} catch (final Throwable e) {
+					failures.incrementAndGet();
+				}
+			});
+
+			threads[n].start();
+		}
+
+		start.countDown();
+
+		for (final Thread t : threads) {
+			t.join();
+		}
+
+		assert failures.get() == 0;
+
+		final int count = next.get();
+		assert assigned.size() == count;
+
+		// dense
+		for (int i = 0; i < count; ++i) {
+			assert assigned.containsKey(i);
+		}
+
+		// all threads agree and indices map back to the table and key that requested them
+		for (int t = 0; t < tableCount; ++t) {
+			for (int k = 0; k < keyCount; ++k) {
+				final int i = tables[t].index(k);
+				assert assigned.get(i) == (((long) t << 32) | k);
+
+				for (int n = 0; n < threadCount; ++n) {
+					final int seen = results[n][t][k];
+					assert seen == 0 || seen == i + 1;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,95 @@
+package grondag.canvas.varia;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+class CopyOnWriteLong2ObjectMapTest {
+	@Test
+	void matchesReferenceSequentially() {
+		final Random r = new Random(42);
+		final CopyOnWriteLong2ObjectMap<Long> map = new CopyOnWriteLong2ObjectMap<>(4);
+		final HashMap<Long, Long> reference = new HashMap<>();
+
+		for (int i = 0; i < 5000; ++i) {
+			// small key range forces repeats, zero and negative keys included
+			final long key = r.nextInt(3000) - 1500;
+			final Long value = map.computeIfAbsent(key, k -> k * 3);
+			assert value == key * 3;
+			reference.putIfAbsent(key, value);
+			assert map.size() == reference.size();
+		}
+
+		reference.forEach((k, v) -> {
+			assert map.get(k).equals(v);
+		});
+
+		assert map.get(5000) == null;
+	}
+
+	@Test
+	void concurrentInsertsAreStableAndUnique() throws InterruptedException {
+		final int threadCount = 8;
+		final int keyCount = 4096;
+		final CopyOnWriteLong2ObjectMap<Integer> map = new CopyOnWriteLong2ObjectMap<>(16);
+		final AtomicInteger nextIndex = new AtomicInteger();
+		final int[][] seen = new int[threadCount][keyCount];
+		final CountDownLatch start = new CountDownLatch(1);
+		final Thread[] threads = new Thread[threadCount];
+
+		for (int t = 0; t < threadCount; ++t) {
+			final int thread = t;
+
+			threads[t] = new Thread(() -> {
+				final Random r = new Random(thread);
+
+				try {
+					start.await();
+				} catch (final InterruptedException e) {
+					return;
+				}
+
+				for (int n = 0; n < 200000; ++n) {
+					final int k = r.nextInt(keyCount);
+					final int index = map.computeIfAbsent(k * 0x9E3779B97F4A7C15L, key -> nextIndex.getAndIncrement());
+
+					// first value seen must never change
+					if (seen[thread][k] == 0) {
+						seen[thread][k] = index + 1;
+					} else {
+						assert seen[thread][k] == index + 1;
+					}
+				}
+			});
+
+			threads[t].start();
+		}
+
+		start.countDown();
+
+		for (final Thread thread : threads) {
+			thread.join();
+		}
+
+		// factory ran exactly once per key
+		assert nextIndex.get() == map.size();
+
+		final boolean[] used = new boolean[nextIndex.get()];
+
+		for (int k = 0; k < keyCount; ++k) {
+			final Integer index = map.get(k * 0x9E3779B97F4A7C15L);
+
+			if (index != null) {
+				assert !used[index];
+				used[index] = true;
+
+				for (int t = 0; t < threadCount; ++t) {
+					assert seen[t][k] == 0 || seen[t][k] == index + 1;
+				}
+			}
+		}
+	}
+}